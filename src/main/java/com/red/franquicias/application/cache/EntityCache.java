@@ -0,0 +1,86 @@
+package com.red.franquicias.application.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.application.consistency.ReadConsistency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineStatsCounter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache of rows that are looked up far more often than they change. Absent rows are
+ * cached too, but only for {@code negativeTtl}. Concurrent misses for the same key share one load,
+ * and callers always receive a copy so mutating it cannot change the cached value.
+ * <p>
+ * Lookups that carry a {@link ConsistencyToken} or are pinned to the primary go straight to the
+ * loader, in their own context, and leave the cache untouched: the cached answer may predate the
+ * write the caller is waiting for, and a shared load runs outside the caller's context.
+ */
+public class EntityCache<K, V> {
+
+    private final AsyncCache<K, Optional<V>> cache;
+    private final UnaryOperator<V> copy;
+
+    public EntityCache(
+            String name,
+            long maxSize,
+            Duration ttl,
+            Duration negativeTtl,
+            MeterRegistry registry,
+            UnaryOperator<V> copy
+    ) {
+        long ttlNanos = ttl.toNanos();
+        long negativeTtlNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<K, Optional<V>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats(() -> new CaffeineStatsCounter(registry, name))
+                .buildAsync();
+        this.copy = copy;
+    }
+
+    public Mono<V> get(K key, Supplier<Mono<V>> loader) {
+        return Mono.deferContextual(context -> ReadConsistency.needsOwnRead(context)
+                        ? loader.get().map(Optional::of)
+                        : Mono.fromFuture(() -> cache.get(key, (k, executor) -> load(loader)), true))
+                .flatMap(value -> Mono.justOrEmpty(value.map(copy)));
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(Optional.of(copy.apply(value))));
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    private CompletableFuture<Optional<V>> load(Supplier<Mono<V>> loader) {
+        return loader.get()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+}
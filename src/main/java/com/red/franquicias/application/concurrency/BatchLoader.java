@@ -0,0 +1,138 @@
+package com.red.franquicias.application.concurrency;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.application.consistency.ReadConsistency;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects the keys requested by concurrent callers and resolves them with one query. A batch is
+ * sent when the window started by its first key closes or when it holds {@code maxBatchSize}
+ * distinct keys; callers asking for the same key share its result, and a key the query does not
+ * return completes empty. Calls pinned to the primary or carrying a {@link ConsistencyToken} are
+ * not batched, since the shared query runs outside their context and could not honour it.
+ */
+public class BatchLoader<K, V> {
+
+    static final String METRIC = "franquicias.lookup.batch.size";
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Function<List<K>, Flux<V>> batchQuery;
+    private final Function<V, K> keyOf;
+    private final Function<K, Mono<V>> single;
+    private final DistributionSummary batchSizes;
+    private final Scheduler scheduler;
+
+    private Batch pending;
+
+    public BatchLoader(
+            String name,
+            boolean enabled,
+            Duration window,
+            int maxBatchSize,
+            MeterRegistry registry,
+            Function<List<K>, Flux<V>> batchQuery,
+            Function<V, K> keyOf,
+            Function<K, Mono<V>> single
+    ) {
+        this(name, enabled, window, maxBatchSize, registry, batchQuery, keyOf, single, Schedulers.parallel());
+    }
+
+    BatchLoader(
+            String name,
+            boolean enabled,
+            Duration window,
+            int maxBatchSize,
+            MeterRegistry registry,
+            Function<List<K>, Flux<V>> batchQuery,
+            Function<V, K> keyOf,
+            Function<K, Mono<V>> single,
+            Scheduler scheduler
+    ) {
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchQuery = batchQuery;
+        this.keyOf = keyOf;
+        this.single = single;
+        this.scheduler = scheduler;
+        this.batchSizes = DistributionSummary.builder(METRIC)
+                .description("Distinct keys resolved by each batched lookup query")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    public Mono<V> load(K key) {
+        if (!enabled) {
+            return single.apply(key);
+        }
+        return Mono.deferContextual(context -> ReadConsistency.needsOwnRead(context)
+                ? single.apply(key)
+                : enqueue(key));
+    }
+
+    private Mono<V> enqueue(K key) {
+        Batch full = null;
+        Sinks.One<V> sink;
+        synchronized (this) {
+            if (pending == null) {
+                Batch batch = new Batch();
+                pending = batch;
+                scheduler.schedule(() -> flush(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            sink = pending.sinks.computeIfAbsent(key, k -> Sinks.one());
+            if (pending.sinks.size() >= maxBatchSize) {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return sink.asMono();
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        Map<K, Sinks.One<V>> sinks = batch.sinks;
+        batchSizes.record(sinks.size());
+        batchQuery.apply(new ArrayList<>(sinks.keySet()))
+                .subscribe(
+                        value -> {
+                            Sinks.One<V> sink = sinks.remove(keyOf.apply(value));
+                            if (sink != null) {
+                                sink.tryEmitValue(value);
+                            }
+                        },
+                        ex -> sinks.values().forEach(sink -> sink.tryEmitError(ex)),
+                        () -> sinks.values().forEach(Sinks.One::tryEmitEmpty));
+    }
+
+    private final class Batch {
+        private final Map<K, Sinks.One<V>> sinks = new LinkedHashMap<>();
+    }
+}
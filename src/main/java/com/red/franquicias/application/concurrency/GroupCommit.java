@@ -0,0 +1,110 @@
+package com.red.franquicias.application.concurrency;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gathers items submitted by concurrent callers and writes them with one call to {@code commit},
+ * which must emit one result per item in order and complete only once they are committed. A batch
+ * is sent when the window opened by its first item closes or when it holds {@code maxBatchSize}
+ * items. Every caller is answered after the whole batch has completed, and all of them fail if it
+ * does not.
+ */
+public class GroupCommit<T, R> {
+
+    static final String METRIC = "franquicias.group.commit.size";
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Function<List<T>, Flux<R>> commit;
+    private final DistributionSummary batchSizes;
+
+    private Batch pending;
+
+    public GroupCommit(
+            String name,
+            Duration window,
+            int maxBatchSize,
+            Function<List<T>, Flux<R>> commit,
+            MeterRegistry registry
+    ) {
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.commit = commit;
+        this.batchSizes = DistributionSummary.builder(METRIC)
+                .description("Items written by each grouped commit")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    public Mono<R> submit(T item) {
+        return Mono.defer(() -> {
+            Batch full = null;
+            Sinks.One<R> sink = Sinks.one();
+            synchronized (this) {
+                if (pending == null) {
+                    Batch batch = new Batch();
+                    pending = batch;
+                    Schedulers.parallel().schedule(() -> flush(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                pending.items.add(item);
+                pending.sinks.add(sink);
+                if (pending.items.size() >= maxBatchSize) {
+                    full = pending;
+                    pending = null;
+                }
+            }
+            if (full != null) {
+                send(full);
+            }
+            return sink.asMono();
+        });
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        batchSizes.record(batch.items.size());
+        Flux.defer(() -> commit.apply(batch.items))
+                .collectList()
+                .subscribe(
+                        results -> {
+                            if (results.size() != batch.sinks.size()) {
+                                fail(batch, new IllegalStateException("Group commit returned " + results.size()
+                                        + " results for " + batch.sinks.size() + " items"));
+                                return;
+                            }
+                            for (int i = 0; i < results.size(); i++) {
+                                batch.sinks.get(i).tryEmitValue(results.get(i));
+                            }
+                        },
+                        ex -> fail(batch, ex));
+    }
+
+    private void fail(Batch batch, Throwable ex) {
+        batch.sinks.forEach(sink -> sink.tryEmitError(ex));
+    }
+
+    private final class Batch {
+        private final List<T> items = new ArrayList<>();
+        private final List<Sinks.One<R>> sinks = new ArrayList<>();
+    }
+}
@@ -0,0 +1,62 @@
+package com.red.franquicias.application.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight {@link Mono} between concurrent calls for the same key. The entry is
+ * removed as soon as the shared call terminates, so nothing is cached: a call that starts
+ * after the result was emitted runs the loader again. The loader is cancelled only when every
+ * caller sharing it has cancelled.
+ */
+public class SingleFlight<K, V> {
+
+    static final String METRIC = "franquicias.single.flight";
+
+    private final Map<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter shared;
+
+    public SingleFlight(MeterRegistry registry, String name) {
+        this.executed = Counter.builder(METRIC + ".calls")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(registry);
+        this.shared = Counter.builder(METRIC + ".calls")
+                .tag("name", name)
+                .tag("result", "shared")
+                .register(registry);
+        Gauge.builder(METRIC + ".in.flight", inFlight, Map::size)
+                .tag("name", name)
+                .register(registry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Flight flight = new Flight(key, loader);
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                shared.increment();
+                return existing.result;
+            }
+            executed.increment();
+            return flight.result;
+        });
+    }
+
+    private final class Flight {
+        private final Mono<V> result;
+
+        private Flight(K key, Supplier<Mono<V>> loader) {
+            this.result = Mono.defer(loader)
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .share();
+        }
+    }
+}
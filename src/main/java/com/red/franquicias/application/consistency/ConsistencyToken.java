@@ -0,0 +1,29 @@
+package com.red.franquicias.application.consistency;
+
+/**
+ * GTID set a client received after a write. Reads carrying it are served by the primary
+ * until the replica has applied every transaction in the set.
+ */
+public final class ConsistencyToken {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private final String gtidSet;
+    private volatile boolean appliedOnReplica;
+
+    public ConsistencyToken(String gtidSet) {
+        this.gtidSet = gtidSet;
+    }
+
+    public String gtidSet() {
+        return gtidSet;
+    }
+
+    public boolean isAppliedOnReplica() {
+        return appliedOnReplica;
+    }
+
+    public void markAppliedOnReplica() {
+        appliedOnReplica = true;
+    }
+}
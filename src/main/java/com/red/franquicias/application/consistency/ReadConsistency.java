@@ -0,0 +1,32 @@
+package com.red.franquicias.application.consistency;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Reactor context markers for reads that must see the latest writes: requests pinned to the
+ * primary, and reads carrying a {@link ConsistencyToken}. Such reads are never served from a
+ * cache or a query shared with other callers, which may have read from a lagging replica.
+ */
+public final class ReadConsistency {
+
+    private static final Context PRIMARY_ONLY = Context.of(ReadConsistency.class, true);
+
+    private ReadConsistency() {
+    }
+
+    /**
+     * Context that runs every query below it on the primary.
+     */
+    public static Context primaryOnly() {
+        return PRIMARY_ONLY;
+    }
+
+    public static boolean isPrimaryOnly(ContextView context) {
+        return context.hasKey(ReadConsistency.class);
+    }
+
+    public static boolean needsOwnRead(ContextView context) {
+        return isPrimaryOnly(context) || context.hasKey(ConsistencyToken.class);
+    }
+}
@@ -4,15 +4,19 @@ import com.red.franquicias.domain.model.Branch;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface BranchRepositoryPort {
     Mono<Branch> save(Branch branch);
 
     Mono<Branch> findById(Long id);
 
-    Mono<Branch> findByIdAndFranchiseId(Long id, Long franchiseId);
+    Flux<Branch> findAllById(Collection<Long> ids);
 
-    Mono<Boolean> existsByNameAndFranchiseId(String name, Long franchiseId);
+    Mono<Branch> findByIdAndFranchiseId(Long id, Long franchiseId);
 
     Flux<Branch> findByFranchiseId(Long franchiseId);
+
+    Flux<Branch> findAll();
 }
 
@@ -1,14 +1,19 @@
 package com.red.franquicias.application.port.out;
 
 import com.red.franquicias.domain.model.Franchise;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface FranchiseRepositoryPort {
     Mono<Franchise> save(Franchise franchise);
 
     Mono<Franchise> findById(Long id);
 
-    Mono<Boolean> existsByName(String name);
+    Flux<Franchise> findAllById(Collection<Long> ids);
+
+    Flux<Franchise> findAll();
 }
 
 
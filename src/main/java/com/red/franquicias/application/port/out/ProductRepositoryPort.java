@@ -1,10 +1,16 @@
 package com.red.franquicias.application.port.out;
 
 import com.red.franquicias.application.usecase.product.BranchTopProductRow;
+import com.red.franquicias.application.usecase.product.ProductOwnershipRow;
+import com.red.franquicias.application.usecase.product.ProductStockChange;
+import com.red.franquicias.application.usecase.product.StockUpdate;
 import com.red.franquicias.domain.model.Product;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface ProductRepositoryPort {
     Mono<Product> save(Product product);
 
@@ -12,12 +18,46 @@ public interface ProductRepositoryPort {
 
     Mono<Product> findByIdAndBranchId(Long id, Long branchId);
 
-    Mono<Boolean> existsByNameAndBranchId(String name, Long branchId);
-
     Mono<Void> deleteById(Long id);
 
     Mono<Product> findTopByBranchIdOrderByStockDesc(Long branchId);
 
     Flux<BranchTopProductRow> findTopProductsByFranchiseId(Long franchiseId);
+
+    Flux<BranchTopProductRow> findTopProductsPerBranch(Long franchiseId, Integer perBranch);
+
+    Flux<BranchTopProductRow> findTopProductsAcrossBranches(Long franchiseId, Integer limit);
+
+    Flux<Product> findAll();
+
+    Mono<ProductOwnershipRow> findOwnership(Long franchiseId, Long branchId, Long productId);
+
+    /**
+     * Emits the product as this write left it, read back in the same transaction; empty if no row changed.
+     */
+    Mono<Product> setStock(Long productId, Long branchId, Long franchiseId, Integer stock);
+
+    /**
+     * Like {@link #setStock}, adding {@code delta} unless the stock would go below zero.
+     */
+    Mono<Product> addStock(Long productId, Long branchId, Long franchiseId, Integer delta);
+
+    Flux<Long> setStocks(Long branchId, List<ProductStockChange> changes);
+
+    /**
+     * Applies the updates in one transaction and emits, in the given order, the product as that
+     * transaction left it for each update that changed a row and an empty value for the others;
+     * completes only once the transaction has committed.
+     */
+    Flux<Optional<Product>> applyStockUpdates(List<StockUpdate> updates);
+
+    /**
+     * Applies the updates of a write-ahead segment in one transaction, recording the segment in it, and
+     * emits the rows each update changed, in the given order; emits nothing and changes nothing if the
+     * writer's segment was already applied.
+     */
+    Flux<Long> applyStockSegment(String writer, long segment, List<StockUpdate> updates);
+
+    Flux<Product> insertAll(Long branchId, List<Product> products);
 }
 
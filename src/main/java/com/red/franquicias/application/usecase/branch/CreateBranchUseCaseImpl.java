@@ -2,6 +2,8 @@ package com.red.franquicias.application.usecase.branch;
 
 import com.red.franquicias.application.port.out.BranchRepositoryPort;
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.exception.TechnicalException;
@@ -16,30 +18,30 @@ public class CreateBranchUseCaseImpl implements CreateBranchUseCase {
 
     private final BranchRepositoryPort branchRepositoryPort;
     private final FranchiseRepositoryPort franchiseRepositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
 
     public CreateBranchUseCaseImpl(
             BranchRepositoryPort branchRepositoryPort,
-            FranchiseRepositoryPort franchiseRepositoryPort
+            FranchiseRepositoryPort franchiseRepositoryPort,
+            TopStockIndex topStockIndex,
+            FranchiseVersions franchiseVersions
     ) {
         this.branchRepositoryPort = branchRepositoryPort;
         this.franchiseRepositoryPort = franchiseRepositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
     }
 
     @Override
     public Mono<Branch> create(Branch branch) {
         return franchiseRepositoryPort.findById(branch.getFranchiseId())
-                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.FRANCHISE_NOT_FOUND)))
-                .flatMap(franchise ->
-                        branchRepositoryPort.existsByNameAndFranchiseId(branch.getName(), branch.getFranchiseId())
-                                .flatMap(exists -> {
-                                    if (exists) {
-                                        return Mono.error(new BusinessException(
-                                                TechnicalMessage.BRANCH_NAME_ALREADY_EXISTS
-                                        ));
-                                    }
-                                    return branchRepositoryPort.save(branch);
-                                })
-                )
+                .switchIfEmpty(Mono.error(() -> BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)))
+                .flatMap(franchise -> branchRepositoryPort.save(branch))
+                .doOnNext(saved -> {
+                    topStockIndex.onBranchSaved(saved);
+                    franchiseVersions.bump(saved.getFranchiseId());
+                })
                 .onErrorMap(
                         ex -> !(ex instanceof BusinessException),
                         ex -> new TechnicalException(ex, TechnicalMessage.BRANCH_CREATE_ERROR)
@@ -2,6 +2,8 @@ package com.red.franquicias.application.usecase.branch;
 
 import com.red.franquicias.application.port.out.BranchRepositoryPort;
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.exception.TechnicalException;
@@ -16,13 +18,19 @@ public class UpdateBranchNameUseCaseImpl implements UpdateBranchNameUseCase {
 
     private final BranchRepositoryPort branchRepositoryPort;
     private final FranchiseRepositoryPort franchiseRepositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
 
     public UpdateBranchNameUseCaseImpl(
             BranchRepositoryPort branchRepositoryPort,
-            FranchiseRepositoryPort franchiseRepositoryPort
+            FranchiseRepositoryPort franchiseRepositoryPort,
+            TopStockIndex topStockIndex,
+            FranchiseVersions franchiseVersions
     ) {
         this.branchRepositoryPort = branchRepositoryPort;
         this.franchiseRepositoryPort = franchiseRepositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
     }
 
     @Override
@@ -33,26 +41,22 @@ public class UpdateBranchNameUseCaseImpl implements UpdateBranchNameUseCase {
     ) {
         return franchiseRepositoryPort.findById(franchiseId)
                 .switchIfEmpty(Mono.error(
-                        new BusinessException(TechnicalMessage.FRANCHISE_NOT_FOUND)
+                        () -> BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)
                 ))
                 .flatMap(franchise ->
                         branchRepositoryPort.findByIdAndFranchiseId(branchId, franchiseId)
                                 .switchIfEmpty(Mono.error(
-                                        new BusinessException(TechnicalMessage.BRANCH_NOT_FOUND)
+                                        () -> BusinessException.of(TechnicalMessage.BRANCH_NOT_FOUND)
                                 ))
-                                .flatMap(existing ->
-                                        branchRepositoryPort.existsByNameAndFranchiseId(name, franchiseId)
-                                                .flatMap(exists -> {
-                                                    if (exists && !existing.getName().equals(name)) {
-                                                        return Mono.error(new BusinessException(
-                                                                TechnicalMessage.BRANCH_NAME_ALREADY_EXISTS
-                                                        ));
-                                                    }
-                                                    existing.setName(name);
-                                                    return branchRepositoryPort.save(existing);
-                                                })
-                                )
+                                .flatMap(existing -> {
+                                    existing.setName(name);
+                                    return branchRepositoryPort.save(existing);
+                                })
                 )
+                .doOnNext(saved -> {
+                    topStockIndex.onBranchSaved(saved);
+                    franchiseVersions.bump(franchiseId);
+                })
                 .onErrorMap(
                         ex -> !(ex instanceof BusinessException),
                         ex -> new TechnicalException(ex, TechnicalMessage.BRANCH_UPDATE_ERROR)
@@ -1,6 +1,8 @@
 package com.red.franquicias.application.usecase.franchise;
 
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.exception.TechnicalException;
@@ -14,21 +16,21 @@ import reactor.core.publisher.Mono;
 public class CreateFranchiseUseCaseImpl implements CreateFranchiseUseCase {
 
     private final FranchiseRepositoryPort repositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
 
-    public CreateFranchiseUseCaseImpl(FranchiseRepositoryPort repositoryPort) {
+    public CreateFranchiseUseCaseImpl(FranchiseRepositoryPort repositoryPort, TopStockIndex topStockIndex, FranchiseVersions franchiseVersions) {
         this.repositoryPort = repositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
     }
 
     @Override
     public Mono<Franchise> create(Franchise franchise) {
-        return repositoryPort.existsByName(franchise.getName())
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new BusinessException(
-                                TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS
-                        ));
-                    }
-                    return repositoryPort.save(franchise);
+        return repositoryPort.save(franchise)
+                .doOnNext(saved -> {
+                    topStockIndex.onFranchiseSaved(saved);
+                    franchiseVersions.bump(saved.getId());
                 })
                 .onErrorMap(
                         ex -> !(ex instanceof BusinessException),
@@ -1,6 +1,8 @@
 package com.red.franquicias.application.usecase.franchise;
 
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.exception.TechnicalException;
@@ -14,27 +16,27 @@ import reactor.core.publisher.Mono;
 public class UpdateFranchiseNameUseCaseImpl implements UpdateFranchiseNameUseCase {
 
     private final FranchiseRepositoryPort repositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
 
-    public UpdateFranchiseNameUseCaseImpl(FranchiseRepositoryPort repositoryPort) {
+    public UpdateFranchiseNameUseCaseImpl(FranchiseRepositoryPort repositoryPort, TopStockIndex topStockIndex, FranchiseVersions franchiseVersions) {
         this.repositoryPort = repositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
     }
 
     @Override
     public Mono<Franchise> updateName(Long id, String name) {
         return repositoryPort.findById(id)
-                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.FRANCHISE_NOT_FOUND)))
-                .flatMap(existing ->
-                        repositoryPort.existsByName(name)
-                                .flatMap(exists -> {
-                                    if (exists && !existing.getName().equals(name)) {
-                                        return Mono.error(new BusinessException(
-                                                TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS
-                                        ));
-                                    }
-                                    existing.setName(name);
-                                    return repositoryPort.save(existing);
-                                })
-                )
+                .switchIfEmpty(Mono.error(() -> BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)))
+                .flatMap(existing -> {
+                    existing.setName(name);
+                    return repositoryPort.save(existing);
+                })
+                .doOnNext(saved -> {
+                    topStockIndex.onFranchiseSaved(saved);
+                    franchiseVersions.bump(id);
+                })
                 .onErrorMap(
                         ex -> !(ex instanceof BusinessException),
                         ex -> new TechnicalException(ex, TechnicalMessage.FRANCHISE_UPDATE_NAME_ERROR)
@@ -5,4 +5,15 @@ public record BranchTopProduct(
         String branchName,
         ProductInfo product
 ) {
+    static BranchTopProduct fromRow(BranchTopProductRow row) {
+        return new BranchTopProduct(
+                row.branch_id(),
+                row.branch_name(),
+                new ProductInfo(
+                        row.product_id(),
+                        row.product_name(),
+                        row.stock()
+                )
+        );
+    }
 }
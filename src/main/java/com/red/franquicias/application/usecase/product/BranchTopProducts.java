@@ -0,0 +1,10 @@
+package com.red.franquicias.application.usecase.product;
+
+import java.util.List;
+
+public record BranchTopProducts(
+        Long branchId,
+        String branchName,
+        List<ProductInfo> products
+) {
+}
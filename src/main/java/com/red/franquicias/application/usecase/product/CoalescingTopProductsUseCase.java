@@ -0,0 +1,53 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.concurrency.SingleFlight;
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Concurrent top-products requests for the same franchise share one query, as long as no write to
+ * the franchise was seen in between: flights are keyed by the {@link FranchiseVersions} version, so a
+ * request arriving after a write starts a new query instead of joining one that may have read before
+ * it. Writes made through another instance end the flight once the change log reaches this one.
+ * Requests that carry a {@link ConsistencyToken} run on their own, since a query started before their
+ * write may still read from a replica that has not applied it. Streams are not shared: each
+ * subscriber drives its own cursor.
+ */
+@Component
+@Primary
+public class CoalescingTopProductsUseCase implements GetTopProductsByFranchiseUseCase {
+
+    private final GetTopProductsByFranchiseUseCaseImpl delegate;
+    private final FranchiseVersions franchiseVersions;
+    private final SingleFlight<FranchiseVersion, TopProductsResult> singleFlight;
+
+    public CoalescingTopProductsUseCase(
+            GetTopProductsByFranchiseUseCaseImpl delegate,
+            FranchiseVersions franchiseVersions,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.franchiseVersions = franchiseVersions;
+        this.singleFlight = new SingleFlight<>(meterRegistry, "top-products");
+    }
+
+    @Override
+    public Mono<TopProductsResult> getTopProducts(Long franchiseId) {
+        return Mono.deferContextual(context -> context.hasKey(ConsistencyToken.class)
+                ? delegate.getTopProducts(franchiseId)
+                : singleFlight.execute(new FranchiseVersion(franchiseId, franchiseVersions.current(franchiseId)),
+                        () -> delegate.getTopProducts(franchiseId)));
+    }
+
+    @Override
+    public Flux<BranchTopProduct> streamTopProducts(Long franchiseId) {
+        return delegate.streamTopProducts(franchiseId);
+    }
+
+    private record FranchiseVersion(Long franchiseId, long version) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.red.franquicias.application.usecase.product;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-franchise version that every write use case bumps once its write has succeeded and
+ * before the response is emitted. The tag prefix is unique per process, so a restarted or
+ * different instance never validates a tag it did not issue.
+ */
+@Component
+public class FranchiseVersions {
+
+    private final String instance = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public void bump(Long franchiseId) {
+        versions.merge(franchiseId, 1L, Long::sum);
+    }
+
+    public long current(Long franchiseId) {
+        return versions.getOrDefault(franchiseId, 0L);
+    }
+
+    public String etag(Long franchiseId) {
+        return "\"" + instance + "-" + current(franchiseId) + "\"";
+    }
+}
@@ -0,0 +1,18 @@
+package com.red.franquicias.application.usecase.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
+
+public interface GetGlobalTopProductsUseCase {
+    int MAX_LIMIT = 1000;
+
+    Flux<BranchTopProduct> getTopProducts(
+            @NotNull Long franchiseId,
+            @NotNull(message = "limit is required")
+            @Min(value = 1, message = "limit must be between 1 and " + MAX_LIMIT)
+            @Max(value = MAX_LIMIT, message = "limit must be between 1 and " + MAX_LIMIT)
+            Integer limit
+    );
+}
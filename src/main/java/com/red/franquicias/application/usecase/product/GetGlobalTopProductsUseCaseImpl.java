@@ -0,0 +1,47 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.exception.TechnicalException;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Validated
+public class GetGlobalTopProductsUseCaseImpl implements GetGlobalTopProductsUseCase {
+
+    private final ProductRepositoryPort productRepositoryPort;
+    private final FranchiseRepositoryPort franchiseRepositoryPort;
+
+    public GetGlobalTopProductsUseCaseImpl(
+            ProductRepositoryPort productRepositoryPort,
+            FranchiseRepositoryPort franchiseRepositoryPort
+    ) {
+        this.productRepositoryPort = productRepositoryPort;
+        this.franchiseRepositoryPort = franchiseRepositoryPort;
+    }
+
+    /**
+     * Streams the franchise's {@code limit} highest-stock products in order. An empty answer only costs
+     * the extra franchise lookup needed to tell a franchise without products from a missing one.
+     */
+    @Override
+    public Flux<BranchTopProduct> getTopProducts(Long franchiseId, Integer limit) {
+        return productRepositoryPort.findTopProductsAcrossBranches(franchiseId, limit)
+                .map(BranchTopProduct::fromRow)
+                .switchIfEmpty(Mono.defer(() -> franchiseRepositoryPort.findById(franchiseId))
+                        .switchIfEmpty(Mono.error(BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)))
+                        .thenMany(Flux.empty()))
+                .onErrorMap(
+                        ex -> !(ex instanceof BusinessException),
+                        ex -> new TechnicalException(
+                                ex,
+                                TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR
+                        )
+                );
+    }
+}
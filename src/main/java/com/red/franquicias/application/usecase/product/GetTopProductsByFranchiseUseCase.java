@@ -1,11 +1,14 @@
 package com.red.franquicias.application.usecase.product;
 
 import com.red.franquicias.domain.model.Product;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 public interface GetTopProductsByFranchiseUseCase {
     Mono<TopProductsResult> getTopProducts(Long franchiseId);
+
+    Flux<BranchTopProduct> streamTopProducts(Long franchiseId);
 }
 
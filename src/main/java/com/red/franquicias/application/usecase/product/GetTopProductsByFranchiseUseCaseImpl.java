@@ -5,56 +5,72 @@ import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.exception.TechnicalException;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 @Service
 public class GetTopProductsByFranchiseUseCaseImpl
         implements GetTopProductsByFranchiseUseCase {
 
     private final ProductRepositoryPort productRepositoryPort;
+    private final TopStockIndex topStockIndex;
 
     public GetTopProductsByFranchiseUseCaseImpl(
-            ProductRepositoryPort productRepositoryPort
+            ProductRepositoryPort productRepositoryPort,
+            TopStockIndex topStockIndex
     ) {
         this.productRepositoryPort = productRepositoryPort;
+        this.topStockIndex = topStockIndex;
     }
 
     @Override
     public Mono<TopProductsResult> getTopProducts(Long franchiseId) {
+        TopProductsResult indexed = topStockIndex.topProducts(franchiseId);
+        if (indexed != null) {
+            return Mono.just(indexed);
+        }
+        return queryTopProducts(franchiseId);
+    }
+
+    /**
+     * Emits each branch's top product as its row is read, so the cursor is only advanced as fast as
+     * the subscriber consumes. A franchise without rows is reported as not found before anything is emitted.
+     */
+    @Override
+    public Flux<BranchTopProduct> streamTopProducts(Long franchiseId) {
+        TopProductsResult indexed = topStockIndex.topProducts(franchiseId);
+        if (indexed != null) {
+            return Flux.fromIterable(indexed.results());
+        }
+        return productRepositoryPort.findTopProductsByFranchiseId(franchiseId)
+                .switchOnFirst((first, rows) -> first.isOnComplete()
+                        ? Flux.error(BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND))
+                        : rows)
+                .filter(row -> row.product_id() != null)
+                .map(BranchTopProduct::fromRow)
+                .onErrorMap(
+                        ex -> !(ex instanceof BusinessException),
+                        ex -> new TechnicalException(
+                                ex,
+                                TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR
+                        )
+                );
+    }
+
+    Mono<TopProductsResult> queryTopProducts(Long franchiseId) {
 
         return productRepositoryPort.findTopProductsByFranchiseId(franchiseId)
                 .collectList()
                 .flatMap(rows -> {
                     if (rows.isEmpty()) {
                         return Mono.error(
-                                new BusinessException(
+                                BusinessException.of(
                                         TechnicalMessage.FRANCHISE_NOT_FOUND
                                 )
                         );
                     }
 
-                    BranchTopProductRow first = rows.get(0);
-
-                    List<BranchTopProduct> results = rows.stream()
-                            .filter(r -> r.product_id() != null)
-                            .map(r -> new BranchTopProduct(
-                                    r.branch_id(),
-                                    r.branch_name(),
-                                    new ProductInfo(
-                                            r.product_id(),
-                                            r.product_name(),
-                                            r.stock()
-                                    )
-                            ))
-                            .toList();
-
-                    return Mono.just(new TopProductsResult(
-                            first.franchise_id(),
-                            first.franchise_name(),
-                            results
-                    ));
+                    return Mono.just(TopProductsResult.fromRows(rows));
                 })
                 .onErrorMap(
                         ex -> !(ex instanceof BusinessException),
@@ -0,0 +1,18 @@
+package com.red.franquicias.application.usecase.product;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Mono;
+
+public interface GetTopProductsPerBranchUseCase {
+    int MAX_PER_BRANCH = 100;
+
+    Mono<TopProductsPerBranchResult> getTopProducts(
+            @NotNull Long franchiseId,
+            @NotNull(message = "perBranch is required")
+            @Min(value = 1, message = "perBranch must be between 1 and " + MAX_PER_BRANCH)
+            @Max(value = MAX_PER_BRANCH, message = "perBranch must be between 1 and " + MAX_PER_BRANCH)
+            Integer perBranch
+    );
+}
@@ -0,0 +1,44 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.exception.TechnicalException;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+@Service
+@Validated
+public class GetTopProductsPerBranchUseCaseImpl implements GetTopProductsPerBranchUseCase {
+
+    private final ProductRepositoryPort productRepositoryPort;
+
+    public GetTopProductsPerBranchUseCaseImpl(ProductRepositoryPort productRepositoryPort) {
+        this.productRepositoryPort = productRepositoryPort;
+    }
+
+    @Override
+    public Mono<TopProductsPerBranchResult> getTopProducts(Long franchiseId, Integer perBranch) {
+        return productRepositoryPort.findTopProductsPerBranch(franchiseId, perBranch)
+                .collectList()
+                .flatMap(rows -> {
+                    if (rows.isEmpty()) {
+                        return Mono.error(
+                                BusinessException.of(
+                                        TechnicalMessage.FRANCHISE_NOT_FOUND
+                                )
+                        );
+                    }
+
+                    return Mono.just(TopProductsPerBranchResult.fromRows(rows));
+                })
+                .onErrorMap(
+                        ex -> !(ex instanceof BusinessException),
+                        ex -> new TechnicalException(
+                                ex,
+                                TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR
+                        )
+                );
+    }
+}
@@ -0,0 +1,13 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.domain.model.Product;
+import jakarta.validation.constraints.NotNull;
+import reactor.core.publisher.Flux;
+
+public interface ImportProductsUseCase {
+    Flux<ProductImportResult> importProducts(
+            @NotNull Long franchiseId,
+            @NotNull Long branchId,
+            @NotNull Flux<Product> products
+    );
+}
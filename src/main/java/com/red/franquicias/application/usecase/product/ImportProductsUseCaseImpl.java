@@ -0,0 +1,90 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.model.Product;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Validated
+public class ImportProductsUseCaseImpl implements ImportProductsUseCase {
+
+    static final int BATCH_SIZE = 500;
+
+    private final ProductRepositoryPort productRepositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
+    private final Validator validator;
+
+    public ImportProductsUseCaseImpl(
+            ProductRepositoryPort productRepositoryPort,
+            TopStockIndex topStockIndex,
+            FranchiseVersions franchiseVersions,
+            Validator validator
+    ) {
+        this.productRepositoryPort = productRepositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
+        this.validator = validator;
+    }
+
+    @Override
+    public Flux<ProductImportResult> importProducts(Long franchiseId, Long branchId, Flux<Product> products) {
+
+        return ProductOwnership.requireBranch(productRepositoryPort.findOwnership(franchiseId, branchId, null))
+                .flatMapMany(ignored -> products
+                        .index()
+                        .buffer(BATCH_SIZE)
+                        .concatMap(rows -> importBatch(franchiseId, branchId, rows), 1));
+    }
+
+    private Flux<ProductImportResult> importBatch(Long franchiseId, Long branchId, List<Tuple2<Long, Product>> rows) {
+        ProductImportResult[] results = new ProductImportResult[rows.size()];
+        List<Integer> positions = new ArrayList<>(rows.size());
+        List<Product> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Product product = rows.get(i).getT2();
+            Set<ConstraintViolation<Product>> violations = validator.validate(product);
+            if (violations.isEmpty()) {
+                positions.add(i);
+                valid.add(product);
+            } else {
+                results[i] = new ProductImportResult(rows.get(i).getT1() + 1, null, product.getName(), product.getStock(),
+                        ProductImportResult.Status.INVALID, violations.iterator().next().getMessage());
+            }
+        }
+        if (valid.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+        return productRepositoryPort.insertAll(branchId, valid)
+                .collectList()
+                .flatMapIterable(inserted -> {
+                    for (int i = 0; i < inserted.size(); i++) {
+                        int position = positions.get(i);
+                        results[position] = toResult(rows.get(position).getT1() + 1, inserted.get(i));
+                    }
+                    franchiseVersions.bump(franchiseId);
+                    return Arrays.asList(results);
+                });
+    }
+
+    private ProductImportResult toResult(long line, Product product) {
+        if (product.getId() == null) {
+            return new ProductImportResult(line, null, product.getName(), product.getStock(),
+                    ProductImportResult.Status.DUPLICATE, TechnicalMessage.PRODUCT_NAME_ALREADY_EXISTS.getMessage());
+        }
+        topStockIndex.onProductSaved(product);
+        return new ProductImportResult(line, product.getId(), product.getName(), product.getStock(),
+                ProductImportResult.Status.CREATED, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.red.franquicias.application.usecase.product;
+
+public record ProductImportResult(
+        long line,
+        Long productId,
+        String name,
+        Integer stock,
+        Status status,
+        String message
+) {
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
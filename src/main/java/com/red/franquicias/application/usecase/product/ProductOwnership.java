@@ -0,0 +1,34 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.model.Product;
+import reactor.core.publisher.Mono;
+
+final class ProductOwnership {
+
+    private ProductOwnership() {
+    }
+
+    static Mono<Long> requireBranch(Mono<ProductOwnershipRow> ownership) {
+        return ownership
+                .switchIfEmpty(Mono.error(() -> BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)))
+                .flatMap(row -> row.branch_id() == null
+                        ? Mono.error(BusinessException.of(TechnicalMessage.BRANCH_NOT_FOUND))
+                        : Mono.just(row.branch_id()));
+    }
+
+    static Mono<Product> requireProduct(Mono<ProductOwnershipRow> ownership) {
+        return ownership
+                .switchIfEmpty(Mono.error(() -> BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)))
+                .flatMap(row -> {
+                    if (row.branch_id() == null) {
+                        return Mono.error(BusinessException.of(TechnicalMessage.BRANCH_NOT_FOUND));
+                    }
+                    if (row.product_id() == null) {
+                        return Mono.error(BusinessException.of(TechnicalMessage.PRODUCT_NOT_FOUND));
+                    }
+                    return Mono.just(new Product(row.product_id(), row.branch_id(), row.product_name(), row.stock()));
+                });
+    }
+}
@@ -0,0 +1,9 @@
+package com.red.franquicias.application.usecase.product;
+
+public record ProductOwnershipRow(
+        Long franchise_id,
+        Long branch_id,
+        Long product_id,
+        String product_name,
+        Integer stock
+) {}
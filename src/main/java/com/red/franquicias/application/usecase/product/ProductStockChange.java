@@ -0,0 +1,7 @@
+package com.red.franquicias.application.usecase.product;
+
+public record ProductStockChange(
+        Long productId,
+        Integer stock
+) {
+}
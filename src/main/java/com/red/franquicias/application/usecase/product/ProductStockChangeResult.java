@@ -0,0 +1,13 @@
+package com.red.franquicias.application.usecase.product;
+
+public record ProductStockChangeResult(
+        Long productId,
+        Integer stock,
+        Status status
+) {
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        INVALID
+    }
+}
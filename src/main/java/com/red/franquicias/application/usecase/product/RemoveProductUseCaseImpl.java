@@ -1,10 +1,6 @@
 package com.red.franquicias.application.usecase.product;
 
-import com.red.franquicias.application.port.out.BranchRepositoryPort;
-import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
-import com.red.franquicias.domain.enums.TechnicalMessage;
-import com.red.franquicias.domain.exception.BusinessException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -12,32 +8,27 @@ import reactor.core.publisher.Mono;
 public class RemoveProductUseCaseImpl implements RemoveProductUseCase {
 
     private final ProductRepositoryPort productRepositoryPort;
-    private final BranchRepositoryPort branchRepositoryPort;
-    private final FranchiseRepositoryPort franchiseRepositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
 
     public RemoveProductUseCaseImpl(
             ProductRepositoryPort productRepositoryPort,
-            BranchRepositoryPort branchRepositoryPort,
-            FranchiseRepositoryPort franchiseRepositoryPort
+            TopStockIndex topStockIndex,
+            FranchiseVersions franchiseVersions
     ) {
         this.productRepositoryPort = productRepositoryPort;
-        this.branchRepositoryPort = branchRepositoryPort;
-        this.franchiseRepositoryPort = franchiseRepositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
     }
 
     @Override
     public Mono<Void> remove(Long productId, Long branchId, Long franchiseId) {
 
-        return franchiseRepositoryPort.findById(franchiseId)
-                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.FRANCHISE_NOT_FOUND)))
-                .flatMap(franchise ->
-                        branchRepositoryPort.findByIdAndFranchiseId(branchId, franchiseId)
-                                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.BRANCH_NOT_FOUND)))
-                                .flatMap(branch ->
-                                        productRepositoryPort.findByIdAndBranchId(productId, branchId)
-                                                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.PRODUCT_NOT_FOUND)))
-                                                .flatMap(product -> productRepositoryPort.deleteById(productId))
-                                )
-                );
+        return ProductOwnership.requireProduct(productRepositoryPort.findOwnership(franchiseId, branchId, productId))
+                .flatMap(product -> productRepositoryPort.deleteById(productId))
+                .doOnSuccess(ignored -> {
+                    topStockIndex.onProductRemoved(productId);
+                    franchiseVersions.bump(franchiseId);
+                });
     }
 }
@@ -0,0 +1,21 @@
+package com.red.franquicias.application.usecase.product;
+
+/**
+ * One stock write for a product of a branch of a franchise: either the new stock, or a delta that is
+ * applied only if the stock stays at zero or above.
+ */
+public record StockUpdate(
+        Long productId,
+        Long branchId,
+        Long franchiseId,
+        Integer amount,
+        boolean delta
+) {
+    public static StockUpdate set(Long productId, Long branchId, Long franchiseId, Integer stock) {
+        return new StockUpdate(productId, branchId, franchiseId, stock, false);
+    }
+
+    public static StockUpdate add(Long productId, Long branchId, Long franchiseId, Integer delta) {
+        return new StockUpdate(productId, branchId, franchiseId, delta, true);
+    }
+}
@@ -0,0 +1,36 @@
+package com.red.franquicias.application.usecase.product;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record TopProductsPerBranchResult(
+        Long franchiseId,
+        String franchiseName,
+        List<BranchTopProducts> results
+) {
+    /**
+     * Groups rows ordered by branch and rank, keeping that order; branches without products are left out.
+     */
+    public static TopProductsPerBranchResult fromRows(List<BranchTopProductRow> rows) {
+        BranchTopProductRow first = rows.get(0);
+
+        Map<Long, BranchTopProducts> branches = new LinkedHashMap<>();
+        for (BranchTopProductRow row : rows) {
+            if (row.product_id() == null) {
+                continue;
+            }
+            branches.computeIfAbsent(row.branch_id(),
+                            branchId -> new BranchTopProducts(branchId, row.branch_name(), new ArrayList<>()))
+                    .products()
+                    .add(new ProductInfo(row.product_id(), row.product_name(), row.stock()));
+        }
+
+        return new TopProductsPerBranchResult(
+                first.franchise_id(),
+                first.franchise_name(),
+                List.copyOf(branches.values())
+        );
+    }
+}
@@ -7,4 +7,18 @@ public record TopProductsResult(
         String franchiseName,
         List<BranchTopProduct> results
 ) {
+    public static TopProductsResult fromRows(List<BranchTopProductRow> rows) {
+        BranchTopProductRow first = rows.get(0);
+
+        List<BranchTopProduct> results = rows.stream()
+                .filter(r -> r.product_id() != null)
+                .map(BranchTopProduct::fromRow)
+                .toList();
+
+        return new TopProductsResult(
+                first.franchise_id(),
+                first.franchise_name(),
+                results
+        );
+    }
 }
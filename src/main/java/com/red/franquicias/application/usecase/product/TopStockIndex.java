@@ -0,0 +1,269 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.domain.model.Product;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-branch products ordered by stock, updated by the write use cases. Rows loaded from
+ * the database never overwrite changes a use case applied while the load was running.
+ * Readers only see each branch's immutable list of top products, republished after every
+ * change to the branch, so they never catch a product halfway through a move. Writes can finish
+ * in a different order than they committed, so products they change are re-read and a row only
+ * replaces one from a read started after it.
+ */
+@Component
+public class TopStockIndex {
+
+    private static final Comparator<Entry> BY_STOCK_DESC = Comparator
+            .comparingInt(Entry::stock).reversed()
+            .thenComparingLong(Entry::productId);
+
+    private final Map<Long, FranchiseNode> franchises = new ConcurrentHashMap<>();
+    private final Map<Long, BranchNode> branches = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> stockChangedWhileLoading = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lastRead = new ConcurrentHashMap<>();
+    private final AtomicLong reads = new AtomicLong();
+
+    private volatile boolean tracking;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void startLoading() {
+        franchises.clear();
+        branches.clear();
+        products.clear();
+        removedWhileLoading.clear();
+        stockChangedWhileLoading.clear();
+        lastRead.clear();
+        ready = false;
+        tracking = true;
+    }
+
+    public synchronized void finishLoading() {
+        removedWhileLoading.clear();
+        stockChangedWhileLoading.clear();
+        ready = true;
+    }
+
+    public synchronized void loadFranchise(Franchise franchise) {
+        FranchiseNode node = franchises.computeIfAbsent(franchise.getId(), id -> new FranchiseNode(franchise.getName()));
+        if (node.name == null) {
+            node.name = franchise.getName();
+        }
+    }
+
+    public synchronized void loadBranch(Branch branch) {
+        if (!branches.containsKey(branch.getId())) {
+            putBranch(branch);
+        }
+    }
+
+    public synchronized void loadProduct(Product product) {
+        if (!products.containsKey(product.getId()) && !removedWhileLoading.contains(product.getId())) {
+            Integer changedStock = stockChangedWhileLoading.get(product.getId());
+            putProduct(changedStock == null
+                    ? product
+                    : new Product(product.getId(), product.getBranchId(), product.getName(), changedStock));
+        }
+    }
+
+    public synchronized void onFranchiseSaved(Franchise franchise) {
+        if (!tracking) {
+            return;
+        }
+        franchises.computeIfAbsent(franchise.getId(), id -> new FranchiseNode(franchise.getName()))
+                .name = franchise.getName();
+    }
+
+    public synchronized void onBranchSaved(Branch branch) {
+        if (tracking) {
+            putBranch(branch);
+        }
+    }
+
+    public synchronized void onProductSaved(Product product) {
+        if (tracking) {
+            putProduct(product);
+        }
+    }
+
+    public synchronized void onStockChanged(Long productId, int stock) {
+        if (!tracking) {
+            return;
+        }
+        Entry current = products.get(productId);
+        if (current != null) {
+            putProduct(new Product(productId, current.branchId(), current.name(), stock));
+        } else if (!ready) {
+            stockChangedWhileLoading.put(productId, stock);
+        }
+    }
+
+    /**
+     * Re-reads a product after a write committed and applies the row, or its absence, read back.
+     */
+    public Mono<Void> refresh(Long productId, Function<Long, Mono<Product>> reader) {
+        return Mono.defer(() -> {
+            if (!tracking) {
+                return Mono.empty();
+            }
+            long read = startRead();
+            return reader.apply(productId)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(row -> onProductRead(productId, read, row.orElse(null)))
+                    .then();
+        });
+    }
+
+    /**
+     * Numbers a read of product rows; must be called before the query is sent.
+     */
+    public long startRead() {
+        return reads.incrementAndGet();
+    }
+
+    /**
+     * Applies a product row, or {@code null} if it no longer exists, unless a read started later
+     * has already been applied: this one may predate a write that read saw.
+     */
+    public synchronized void onProductRead(Long productId, long read, Product row) {
+        if (!tracking || lastRead.getOrDefault(productId, 0L) > read) {
+            return;
+        }
+        lastRead.put(productId, read);
+        if (row == null) {
+            removeProduct(productId);
+        } else {
+            putProduct(row);
+        }
+    }
+
+    public synchronized void onProductRemoved(Long productId) {
+        if (!tracking) {
+            return;
+        }
+        lastRead.put(productId, startRead());
+        removeProduct(productId);
+    }
+
+    private void removeProduct(Long productId) {
+        Entry previous = products.remove(productId);
+        if (previous != null) {
+            BranchNode branch = branches.get(previous.branchId());
+            if (branch != null) {
+                branch.products.remove(previous);
+                branch.publishTop();
+            }
+        }
+        if (!ready) {
+            removedWhileLoading.add(productId);
+        }
+    }
+
+    public TopProductsResult topProducts(Long franchiseId) {
+        if (!ready) {
+            return null;
+        }
+        FranchiseNode franchise = franchises.get(franchiseId);
+        if (franchise == null || franchise.branches.isEmpty()) {
+            return null;
+        }
+        List<BranchTopProduct> results = new ArrayList<>();
+        for (BranchNode branch : franchise.branches.values()) {
+            for (Entry entry : branch.top) {
+                results.add(new BranchTopProduct(
+                        branch.id,
+                        branch.name,
+                        new ProductInfo(entry.productId(), entry.name(), entry.stock())
+                ));
+            }
+        }
+        return new TopProductsResult(franchiseId, franchise.name, results);
+    }
+
+    private void putBranch(Branch branch) {
+        BranchNode node = branches.get(branch.getId());
+        if (node == null) {
+            node = new BranchNode(branch.getId());
+            branches.put(branch.getId(), node);
+        }
+        node.name = branch.getName();
+        franchises.computeIfAbsent(branch.getFranchiseId(), id -> new FranchiseNode(null))
+                .branches.put(branch.getId(), node);
+    }
+
+    private void putProduct(Product product) {
+        Entry entry = new Entry(product.getId(), product.getBranchId(), product.getName(), product.getStock());
+        Entry previous = products.put(entry.productId(), entry);
+        BranchNode previousBranch = previous == null ? null : branches.get(previous.branchId());
+        if (previousBranch != null) {
+            previousBranch.products.remove(previous);
+        }
+        BranchNode branch = branches.get(entry.branchId());
+        if (branch == null) {
+            branch = new BranchNode(entry.branchId());
+            branches.put(entry.branchId(), branch);
+        }
+        branch.products.add(entry);
+        branch.publishTop();
+        if (previousBranch != null && previousBranch != branch) {
+            previousBranch.publishTop();
+        }
+    }
+
+    private record Entry(long productId, Long branchId, String name, int stock) {
+    }
+
+    private static final class FranchiseNode {
+        private final NavigableMap<Long, BranchNode> branches = new ConcurrentSkipListMap<>();
+        private volatile String name;
+
+        private FranchiseNode(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class BranchNode {
+        private final Long id;
+        private final ConcurrentSkipListSet<Entry> products = new ConcurrentSkipListSet<>(BY_STOCK_DESC);
+        private volatile List<Entry> top = List.of();
+        private volatile String name;
+
+        private BranchNode(Long id) {
+            this.id = id;
+        }
+
+        private void publishTop() {
+            List<Entry> highest = new ArrayList<>();
+            for (Entry entry : products) {
+                if (!highest.isEmpty() && entry.stock() != highest.get(0).stock()) {
+                    break;
+                }
+                highest.add(entry);
+            }
+            top = List.copyOf(highest);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.red.franquicias.application.usecase.product;
+
+public record TopStockIndexConsistency(
+        Long franchiseId,
+        boolean indexReady,
+        boolean consistent,
+        TopProductsResult indexResult,
+        TopProductsResult databaseResult
+) {
+}
@@ -0,0 +1,53 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.BranchRepositoryPort;
+import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "franquicias.top-products.index", name = "enabled", havingValue = "true")
+public class TopStockIndexLoader {
+    private static final Logger log = LoggerFactory.getLogger(TopStockIndexLoader.class);
+
+    private final TopStockIndex topStockIndex;
+    private final FranchiseRepositoryPort franchiseRepositoryPort;
+    private final BranchRepositoryPort branchRepositoryPort;
+    private final ProductRepositoryPort productRepositoryPort;
+
+    public TopStockIndexLoader(
+            TopStockIndex topStockIndex,
+            FranchiseRepositoryPort franchiseRepositoryPort,
+            BranchRepositoryPort branchRepositoryPort,
+            ProductRepositoryPort productRepositoryPort
+    ) {
+        this.topStockIndex = topStockIndex;
+        this.franchiseRepositoryPort = franchiseRepositoryPort;
+        this.branchRepositoryPort = branchRepositoryPort;
+        this.productRepositoryPort = productRepositoryPort;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        topStockIndex.startLoading();
+        franchiseRepositoryPort.findAll()
+                .doOnNext(topStockIndex::loadFranchise)
+                .thenMany(branchRepositoryPort.findAll().doOnNext(topStockIndex::loadBranch))
+                .thenMany(productRepositoryPort.findAll().doOnNext(topStockIndex::loadProduct))
+                .count()
+                .subscribe(
+                        products -> {
+                            topStockIndex.finishLoading();
+                            log.info("Top stock index loaded {} products in {} ms",
+                                    products, (System.nanoTime() - start) / 1_000_000);
+                        },
+                        ex -> log.error("Top stock index could not be loaded, top-products will query MySQL", ex)
+                );
+    }
+}
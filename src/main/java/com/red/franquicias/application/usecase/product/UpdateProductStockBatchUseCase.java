@@ -0,0 +1,17 @@
+package com.red.franquicias.application.usecase.product;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface UpdateProductStockBatchUseCase {
+    Mono<List<ProductStockChangeResult>> updateStocks(
+            @NotNull Long franchiseId,
+            @NotNull Long branchId,
+            @NotNull(message = "Stock changes are required")
+            @Size(min = 1, max = 5000, message = "Stock changes must contain between 1 and 5000 items")
+            List<ProductStockChange> changes
+    );
+}
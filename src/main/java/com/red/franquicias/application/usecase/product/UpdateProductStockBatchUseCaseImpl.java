@@ -0,0 +1,72 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Service
+@Validated
+public class UpdateProductStockBatchUseCaseImpl implements UpdateProductStockBatchUseCase {
+
+    private static final int REFRESH_CONCURRENCY = 16;
+
+    private final ProductRepositoryPort productRepositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
+
+    public UpdateProductStockBatchUseCaseImpl(
+            ProductRepositoryPort productRepositoryPort,
+            TopStockIndex topStockIndex,
+            FranchiseVersions franchiseVersions
+    ) {
+        this.productRepositoryPort = productRepositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
+    }
+
+    @Override
+    public Mono<List<ProductStockChangeResult>> updateStocks(Long franchiseId, Long branchId, List<ProductStockChange> changes) {
+        List<ProductStockChange> valid = changes.stream()
+                .filter(this::isValid)
+                .toList();
+
+        return ProductOwnership.requireBranch(productRepositoryPort.findOwnership(franchiseId, branchId, null))
+                .flatMap(ignored -> productRepositoryPort.setStocks(branchId, valid).collectList())
+                .map(rowsUpdated -> toResults(changes, rowsUpdated))
+                .delayUntil(results -> Flux.fromIterable(results)
+                        .filter(result -> result.status() == ProductStockChangeResult.Status.UPDATED)
+                        .flatMap(result -> topStockIndex.refresh(result.productId(), productRepositoryPort::findById),
+                                REFRESH_CONCURRENCY))
+                .doOnNext(results -> franchiseVersions.bump(franchiseId));
+    }
+
+    private List<ProductStockChangeResult> toResults(List<ProductStockChange> changes, List<Long> rowsUpdated) {
+        List<ProductStockChangeResult> results = new ArrayList<>(changes.size());
+        Iterator<Long> updated = rowsUpdated.iterator();
+        for (ProductStockChange change : changes) {
+            if (!isValid(change)) {
+                results.add(new ProductStockChangeResult(
+                        change == null ? null : change.productId(),
+                        change == null ? null : change.stock(),
+                        ProductStockChangeResult.Status.INVALID
+                ));
+                continue;
+            }
+            ProductStockChangeResult.Status status = updated.next() > 0
+                    ? ProductStockChangeResult.Status.UPDATED
+                    : ProductStockChangeResult.Status.NOT_FOUND;
+            results.add(new ProductStockChangeResult(change.productId(), change.stock(), status));
+        }
+        return results;
+    }
+
+    private boolean isValid(ProductStockChange change) {
+        return change != null && change.productId() != null && change.stock() != null && change.stock() >= 0;
+    }
+}
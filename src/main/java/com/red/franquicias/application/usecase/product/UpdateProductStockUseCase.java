@@ -14,4 +14,12 @@ public interface UpdateProductStockUseCase {
             @Min(value = 0, message = "Product stock must be greater than or equal to 0")
             Integer stock
     );
+
+    Mono<Product> adjustStock(
+            @NotNull Long productId,
+            @NotNull Long branchId,
+            @NotNull Long franchiseId,
+            @NotNull(message = "Stock delta is required")
+            Integer delta
+    );
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.red.franquicias.application.usecase.product;
 
-import com.red.franquicias.application.port.out.BranchRepositoryPort;
-import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
@@ -15,35 +13,37 @@ import reactor.core.publisher.Mono;
 public class UpdateProductStockUseCaseImpl implements UpdateProductStockUseCase {
 
     private final ProductRepositoryPort productRepositoryPort;
-    private final BranchRepositoryPort branchRepositoryPort;
-    private final FranchiseRepositoryPort franchiseRepositoryPort;
+    private final TopStockIndex topStockIndex;
+    private final FranchiseVersions franchiseVersions;
 
     public UpdateProductStockUseCaseImpl(
             ProductRepositoryPort productRepositoryPort,
-            BranchRepositoryPort branchRepositoryPort,
-            FranchiseRepositoryPort franchiseRepositoryPort
+            TopStockIndex topStockIndex,
+            FranchiseVersions franchiseVersions
     ) {
         this.productRepositoryPort = productRepositoryPort;
-        this.branchRepositoryPort = branchRepositoryPort;
-        this.franchiseRepositoryPort = franchiseRepositoryPort;
+        this.topStockIndex = topStockIndex;
+        this.franchiseVersions = franchiseVersions;
     }
 
     @Override
     public Mono<Product> updateStock(Long productId, Long branchId, Long franchiseId, Integer stock) {
 
-        return franchiseRepositoryPort.findById(franchiseId)
-                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.FRANCHISE_NOT_FOUND)))
-                .flatMap(franchise ->
-                        branchRepositoryPort.findByIdAndFranchiseId(branchId, franchiseId)
-                                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.BRANCH_NOT_FOUND)))
-                                .flatMap(branch ->
-                                        productRepositoryPort.findByIdAndBranchId(productId, branchId)
-                                                .switchIfEmpty(Mono.error(new BusinessException(TechnicalMessage.PRODUCT_NOT_FOUND)))
-                                                .flatMap(existing -> {
-                                                    existing.setStock(stock);
-                                                    return productRepositoryPort.save(existing);
-                                                })
-                                )
-                );
+        return applied(productRepositoryPort.setStock(productId, branchId, franchiseId, stock), productId, branchId, franchiseId);
+    }
+
+    @Override
+    public Mono<Product> adjustStock(Long productId, Long branchId, Long franchiseId, Integer delta) {
+
+        return applied(productRepositoryPort.addStock(productId, branchId, franchiseId, delta), productId, branchId, franchiseId);
+    }
+
+    private Mono<Product> applied(Mono<Product> update, Long productId, Long branchId, Long franchiseId) {
+        return update
+                .switchIfEmpty(Mono.defer(() -> ProductOwnership.requireProduct(
+                                productRepositoryPort.findOwnership(franchiseId, branchId, productId))
+                        .then(Mono.error(() -> BusinessException.of(TechnicalMessage.PRODUCT_STOCK_INSUFFICIENT)))))
+                .delayUntil(saved -> topStockIndex.refresh(productId, productRepositoryPort::findById))
+                .doOnNext(saved -> franchiseVersions.bump(franchiseId));
     }
 }
@@ -0,0 +1,7 @@
+package com.red.franquicias.application.usecase.product;
+
+import reactor.core.publisher.Mono;
+
+public interface VerifyTopStockIndexUseCase {
+    Mono<TopStockIndexConsistency> verify(Long franchiseId);
+}
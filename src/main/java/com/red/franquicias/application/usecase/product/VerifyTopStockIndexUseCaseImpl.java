@@ -0,0 +1,61 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.TechnicalException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class VerifyTopStockIndexUseCaseImpl implements VerifyTopStockIndexUseCase {
+
+    private static final Comparator<BranchTopProduct> BY_BRANCH_AND_PRODUCT = Comparator
+            .comparing(BranchTopProduct::branchId)
+            .thenComparing(result -> result.product().productId());
+
+    private final ProductRepositoryPort productRepositoryPort;
+    private final TopStockIndex topStockIndex;
+
+    public VerifyTopStockIndexUseCaseImpl(
+            ProductRepositoryPort productRepositoryPort,
+            TopStockIndex topStockIndex
+    ) {
+        this.productRepositoryPort = productRepositoryPort;
+        this.topStockIndex = topStockIndex;
+    }
+
+    @Override
+    public Mono<TopStockIndexConsistency> verify(Long franchiseId) {
+        TopProductsResult indexed = topStockIndex.topProducts(franchiseId);
+
+        return productRepositoryPort.findTopProductsByFranchiseId(franchiseId)
+                .collectList()
+                .map(rows -> {
+                    TopProductsResult database = rows.isEmpty() ? null : TopProductsResult.fromRows(rows);
+                    return new TopStockIndexConsistency(
+                            franchiseId,
+                            topStockIndex.isReady(),
+                            sameContent(indexed, database),
+                            indexed,
+                            database
+                    );
+                })
+                .onErrorMap(ex -> new TechnicalException(ex, TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR));
+    }
+
+    private boolean sameContent(TopProductsResult indexed, TopProductsResult database) {
+        if (indexed == null || database == null) {
+            return indexed == database;
+        }
+        return Objects.equals(indexed.franchiseName(), database.franchiseName())
+                && sorted(indexed.results()).equals(sorted(database.results()));
+    }
+
+    private List<BranchTopProduct> sorted(List<BranchTopProduct> results) {
+        return results.stream().sorted(BY_BRANCH_AND_PRODUCT).toList();
+    }
+}
@@ -16,7 +16,12 @@ public enum TechnicalMessage {
     BRANCH_NOT_FOUND("404", "Branch not found or does not belong to franchise", "branchId"),
     PRODUCT_NOT_FOUND("404", "Product not found", "productId"),
     PRODUCT_NAME_ALREADY_EXISTS("409", "Product name already exists in this branch", "name"),
-    TOP_PRODUCTS_QUERY_ERROR("500", "Error retrieving top products", null);
+    PRODUCT_STOCK_INSUFFICIENT("409", "Product stock cannot become negative", "delta"),
+    PRODUCT_STOCK_UPDATE_INVALID("400", "Provide either stock or delta, not both", "stock"),
+    TOP_PRODUCTS_QUERY_ERROR("500", "Error retrieving top products", null),
+    TOP_PRODUCTS_PER_BRANCH_INVALID("400", "perBranch must be an integer between 1 and 100", "perBranch"),
+    TOP_PRODUCTS_LIMIT_INVALID("400", "limit must be an integer between 1 and 1000", "limit"),
+    DATABASE_UNAVAILABLE("503", "No database connection available, retry later", null);
 
     private final String code;
     private final String message;
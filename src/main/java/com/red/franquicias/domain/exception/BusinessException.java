@@ -4,12 +4,33 @@ package com.red.franquicias.domain.exception;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import lombok.Getter;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Getter
 public class BusinessException extends ProcessorException {
 
+    private static final Map<TechnicalMessage, BusinessException> STACKLESS = new EnumMap<>(TechnicalMessage.class);
+
+    static {
+        for (TechnicalMessage technicalMessage : TechnicalMessage.values()) {
+            STACKLESS.put(technicalMessage, new BusinessException(technicalMessage, true));
+        }
+    }
+
     public BusinessException(TechnicalMessage technicalMessage) {
         super(technicalMessage.getMessage(), technicalMessage);
     }
 
+    private BusinessException(TechnicalMessage technicalMessage, boolean stackless) {
+        super(technicalMessage, stackless);
+    }
 
+    /**
+     * Shared stackless instance for the given message; business errors are expected
+     * outcomes and carry no useful stack trace.
+     */
+    public static BusinessException of(TechnicalMessage technicalMessage) {
+        return STACKLESS.get(technicalMessage);
+    }
 }
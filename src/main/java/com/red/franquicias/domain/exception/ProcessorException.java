@@ -19,4 +19,13 @@ public class ProcessorException extends RuntimeException {
         super(message);
         this.technicalMessage = technicalMessage;
     }
+
+    /**
+     * Stackless variant for expected outcomes: no stack trace is captured and suppressed
+     * exceptions are not recorded, so a single instance can be shared between requests.
+     */
+    protected ProcessorException(TechnicalMessage technicalMessage, boolean stackless) {
+        super(technicalMessage.getMessage(), null, !stackless, !stackless);
+        this.technicalMessage = technicalMessage;
+    }
 }
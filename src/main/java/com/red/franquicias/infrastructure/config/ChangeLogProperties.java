@@ -0,0 +1,21 @@
+package com.red.franquicias.infrastructure.config;
+
+import com.red.franquicias.infrastructure.drivenadapter.changelog.ChangeLogPoller;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * How often {@link ChangeLogPoller} reads {@code change_log}, how long it waits for a sequence gap to
+ * be filled by a transaction still in flight and how long rows are kept.
+ */
+@ConfigurationProperties(prefix = "franquicias.change-log")
+public record ChangeLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("10s") Duration gapTimeout,
+        @DefaultValue("1h") Duration retention
+) {
+}
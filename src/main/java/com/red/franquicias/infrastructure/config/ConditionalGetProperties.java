@@ -0,0 +1,12 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Franchise versions only see writes made through this instance and assume the next read
+ * already sees them, so conditional GETs are opt-in for single-instance deployments whose
+ * top-products reads are not served by a lagging replica.
+ */
+@ConfigurationProperties(prefix = "franquicias.conditional-get")
+public record ConditionalGetProperties(boolean enabled) {
+}
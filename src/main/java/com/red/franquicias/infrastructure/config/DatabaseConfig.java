@@ -1,24 +1,95 @@
 package com.red.franquicias.infrastructure.config;
 
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection.MicrometerPoolMetricsRecorder;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection.ReplicaConsistency;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection.RoutingConnectionFactory;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
 import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
-import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
 
 @Configuration
+@EnableConfigurationProperties({R2dbcProperties.class, R2dbcPoolProperties.class, R2dbcReplicaProperties.class,
+        SchemaMigrationProperties.class, EntityCacheProperties.class, ChangeLogProperties.class,
+        LookupBatchingProperties.class, StockGroupCommitProperties.class, StockWriteBehindProperties.class})
 public class DatabaseConfig {
-    
+
     @Bean
-    public ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory) {
-        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
-        initializer.setConnectionFactory(connectionFactory);
-        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
-        populator.addScript(new ClassPathResource("schema.sql"));
-        populator.addScript(new ClassPathResource("data.sql"));
-        initializer.setDatabasePopulator(populator);
-        return initializer;
+    public RoutingConnectionFactory routingConnectionFactory(
+            R2dbcProperties r2dbcProperties,
+            R2dbcPoolProperties poolProperties,
+            R2dbcReplicaProperties replicaProperties,
+            MeterRegistry meterRegistry
+    ) {
+        ConnectionFactory primary = ConnectionFactoryBuilder.withUrl(r2dbcProperties.getUrl())
+                .username(r2dbcProperties.getUsername())
+                .password(r2dbcProperties.getPassword())
+                .build();
+        ConnectionFactory replica = replicaProperties.isConfigured()
+                ? ConnectionFactoryBuilder.withUrl(replicaProperties.url())
+                        .username(replicaProperties.username())
+                        .password(replicaProperties.password())
+                        .build()
+                : primary;
+
+        Map<ConnectionRoute, ConnectionPool> pools = new EnumMap<>(ConnectionRoute.class);
+        pools.put(ConnectionRoute.WRITE, pool(primary, "write", poolProperties.write(), meterRegistry));
+        pools.put(ConnectionRoute.READ, pool(replica, "read", poolProperties.read(), meterRegistry));
+        pools.put(ConnectionRoute.ANALYTICS, pool(replica, "analytics", poolProperties.analytics(), meterRegistry));
+        return new RoutingConnectionFactory(pools, replicaProperties.isConfigured()
+                ? new ReplicaConsistency(pools.get(ConnectionRoute.WRITE), pools.get(ConnectionRoute.READ))
+                : null);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "franquicias.migrations", name = "enabled", matchIfMissing = true)
+    public SchemaMigrations schemaMigrations(ConnectionFactory connectionFactory, SchemaMigrationProperties properties) {
+        return new SchemaMigrations(connectionFactory, properties);
+    }
+
+    private ConnectionPool pool(
+            ConnectionFactory connectionFactory,
+            String name,
+            R2dbcPoolProperties.Pool properties,
+            MeterRegistry meterRegistry
+    ) {
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name(name)
+                .initialSize(properties.initialSize())
+                .maxSize(properties.maxSize())
+                .maxAcquireTime(properties.maxAcquireTime())
+                .maxIdleTime(properties.maxIdleTime())
+                .validationQuery(properties.validationQuery())
+                .metricsRecorder(new MicrometerPoolMetricsRecorder(meterRegistry, name))
+                .build());
+
+        PoolMetrics metrics = pool.getMetrics().orElseThrow();
+        gauge(meterRegistry, "acquired", name, metrics, PoolMetrics::acquiredSize);
+        gauge(meterRegistry, "allocated", name, metrics, PoolMetrics::allocatedSize);
+        gauge(meterRegistry, "idle", name, metrics, PoolMetrics::idleSize);
+        gauge(meterRegistry, "pending", name, metrics, PoolMetrics::pendingAcquireSize);
+        gauge(meterRegistry, "max.allocated", name, metrics, PoolMetrics::getMaxAllocatedSize);
+        return pool;
     }
-}
 
+    private void gauge(MeterRegistry meterRegistry, String metric, String pool, PoolMetrics metrics,
+                       ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder("franquicias.r2dbc.pool." + metric, metrics, value)
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+}
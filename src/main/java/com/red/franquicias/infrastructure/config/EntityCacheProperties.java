@@ -0,0 +1,19 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Franchise and branch lookups are cached per instance. Misses are kept for a shorter time so a row
+ * created through another instance becomes visible quickly.
+ */
+@ConfigurationProperties(prefix = "franquicias.entity-cache")
+public record EntityCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long maxSize,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("5s") Duration negativeTtl
+) {
+}
@@ -1,11 +1,12 @@
 package com.red.franquicias.infrastructure.config;
 
+import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.ProcessorException;
-import com.red.franquicias.infrastructure.entrypoint.web.dto.ErrorResponse;
+import io.r2dbc.spi.R2dbcTimeoutException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
@@ -14,72 +15,115 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebExceptionHandler;
 import reactor.core.publisher.Mono;
+import reactor.pool.PoolAcquirePendingLimitException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes the error body as {@code timestamp, path, status, error, message}. The part after
+ * the path is fixed per {@link TechnicalMessage}, so it is encoded once at startup and only
+ * the timestamp and path are encoded per request.
+ */
 @Component
 @Order(-2)
 public class GlobalErrorHandler implements WebExceptionHandler {
 
-    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private static final byte[] TIMESTAMP_PREFIX = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PATH_PREFIX = "\",\"path\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final String POOL_ACQUIRE_TIMEOUT_MESSAGE = "Connection acquisition timed out";
+
+    private final Map<TechnicalMessage, EncodedError> technicalErrors = new EnumMap<>(TechnicalMessage.class);
+
+    public GlobalErrorHandler() {
+        for (TechnicalMessage technicalMessage : TechnicalMessage.values()) {
+            technicalErrors.put(technicalMessage, encode(
+                    safeStatus(technicalMessage.getCode(), HttpStatus.INTERNAL_SERVER_ERROR),
+                    technicalMessage.getMessage()
+            ));
+        }
+    }
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
 
-        HttpStatus status;
-        String message;
+        EncodedError error;
 
-        if (ex instanceof ConstraintViolationException cve) {
-            status = HttpStatus.BAD_REQUEST;
-            message = cve.getConstraintViolations().stream()
+        if (isConnectionUnavailable(ex)) {
+            error = technicalErrors.get(TechnicalMessage.DATABASE_UNAVAILABLE);
+
+        } else if (ex instanceof ConstraintViolationException cve) {
+            error = encode(HttpStatus.BAD_REQUEST, cve.getConstraintViolations().stream()
                     .map(v -> v.getPropertyPath() + ": " + v.getMessage())
                     .findFirst()
-                    .orElse("Validation error");
+                    .orElse("Validation error"));
 
         } else if (ex instanceof ProcessorException pe) {
 
-            status = safeStatus(pe.getTechnicalMessage().getCode(), HttpStatus.INTERNAL_SERVER_ERROR);
-
-            message = pe.getTechnicalMessage().getMessage();
+            error = technicalErrors.get(pe.getTechnicalMessage());
 
         } else if (ex instanceof ResponseStatusException rse) {
-            status = HttpStatus.valueOf(rse.getStatusCode().value());
-            message = rse.getReason() != null ? rse.getReason() : "Request error";
-
+            error = encode(HttpStatus.valueOf(rse.getStatusCode().value()),
+                    rse.getReason() != null ? rse.getReason() : "Request error");
 
         } else {
-            status = HttpStatus.INTERNAL_SERVER_ERROR;
-            message = ex.getMessage() != null ? ex.getMessage() : "An error occurred";
+            error = encode(HttpStatus.INTERNAL_SERVER_ERROR,
+                    ex.getMessage() != null ? ex.getMessage() : "An error occurred");
         }
 
-        String error = status.getReasonPhrase();
-
-        ErrorResponse errorResponse = new ErrorResponse(
-                LocalDateTime.now(),
-                exchange.getRequest().getPath().value(),
-                status.value(),
-                error,
-                message
-        );
+        byte[] timestamp = LocalDateTime.now().toString().getBytes(StandardCharsets.US_ASCII);
+        byte[] path = escapeJson(exchange.getRequest().getPath().value()).getBytes(StandardCharsets.UTF_8);
 
         ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
+        response.setStatusCode(error.status());
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (error.status() == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
 
-        String json = String.format(
-                "{\"timestamp\":\"%s\",\"path\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\"}",
-                errorResponse.timestamp(),
-                errorResponse.path(),
-                errorResponse.status(),
-                escapeJson(errorResponse.error()),
-                escapeJson(errorResponse.message())
-        );
-
-        DataBuffer buffer = bufferFactory.wrap(json.getBytes(StandardCharsets.UTF_8));
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(TIMESTAMP_PREFIX.length + timestamp.length
+                + PATH_PREFIX.length + path.length + error.suffix().length);
+        buffer.write(TIMESTAMP_PREFIX)
+                .write(timestamp)
+                .write(PATH_PREFIX)
+                .write(path)
+                .write(error.suffix());
         return response.writeWith(Mono.just(buffer));
     }
 
+    /**
+     * Pool acquire timeouts surface wrapped by Spring's translation and by the use cases'
+     * technical errors, so the whole cause chain is checked. The pool reports them as an
+     * {@link R2dbcTimeoutException} of its own over the {@link TimeoutException} of the acquire;
+     * statement and validation timeouts are left as server errors.
+     */
+    private boolean isConnectionUnavailable(Throwable ex) {
+        for (Throwable current = ex; current != null; current = current.getCause()) {
+            if (current instanceof PoolAcquirePendingLimitException || isAcquireTimeout(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAcquireTimeout(Throwable ex) {
+        return ex instanceof R2dbcTimeoutException
+                && ex.getCause() instanceof TimeoutException
+                && ex.getMessage() != null
+                && ex.getMessage().startsWith(POOL_ACQUIRE_TIMEOUT_MESSAGE);
+    }
+
+    private EncodedError encode(HttpStatus status, String message) {
+        String suffix = "\",\"status\":" + status.value()
+                + ",\"error\":\"" + escapeJson(status.getReasonPhrase())
+                + "\",\"message\":\"" + escapeJson(message) + "\"}";
+        return new EncodedError(status, suffix.getBytes(StandardCharsets.UTF_8));
+    }
+
     private HttpStatus safeStatus(String code, HttpStatus fallback) {
         try {
             return HttpStatus.valueOf(Integer.parseInt(code));
@@ -95,4 +139,7 @@ public class GlobalErrorHandler implements WebExceptionHandler {
                 .replace("\n", "\\n")
                 .replace("\r", "\\r");
     }
+
+    private record EncodedError(HttpStatus status, byte[] suffix) {
+    }
 }
@@ -0,0 +1,18 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Lookups by id that miss the entity cache are held for at most {@code window}, or until
+ * {@code maxBatchSize} distinct keys are waiting, and then resolved with a single query.
+ */
+@ConfigurationProperties(prefix = "franquicias.lookup-batching")
+public record LookupBatchingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1ms") Duration window,
+        @DefaultValue("64") int maxBatchSize
+) {
+}
@@ -0,0 +1,23 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "franquicias.r2dbc.pools")
+public record R2dbcPoolProperties(
+        @DefaultValue Pool write,
+        @DefaultValue Pool read,
+        @DefaultValue Pool analytics
+) {
+
+    public record Pool(
+            @DefaultValue("1") int initialSize,
+            @DefaultValue("10") int maxSize,
+            @DefaultValue("2s") Duration maxAcquireTime,
+            @DefaultValue("30m") Duration maxIdleTime,
+            @DefaultValue("SELECT 1") String validationQuery
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Optional read replica. When {@code url} is set the read and analytics pools connect to it;
+ * otherwise every pool uses the primary from {@code spring.r2dbc}.
+ */
+@ConfigurationProperties(prefix = "franquicias.r2dbc.replica")
+public record R2dbcReplicaProperties(String url, String username, String password) {
+
+    public boolean isConfigured() {
+        return url != null && !url.isBlank();
+    }
+}
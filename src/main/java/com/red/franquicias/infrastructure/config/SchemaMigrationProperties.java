@@ -0,0 +1,20 @@
+package com.red.franquicias.infrastructure.config;
+
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Where {@link SchemaMigrations} looks for {@code V<version>__<description>.sql} scripts and how
+ * long a task waits for another one that is already migrating.
+ */
+@ConfigurationProperties(prefix = "franquicias.migrations")
+public record SchemaMigrationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("classpath:db/migration") List<String> locations,
+        @DefaultValue("60s") Duration lockTimeout
+) {
+}
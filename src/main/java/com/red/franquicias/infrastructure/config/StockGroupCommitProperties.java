@@ -0,0 +1,18 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Single stock updates are held for at most {@code window}, or until {@code maxBatchSize} are
+ * waiting, and then written in one transaction.
+ */
+@ConfigurationProperties(prefix = "franquicias.stock-group-commit")
+public record StockGroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2ms") Duration window,
+        @DefaultValue("256") int maxBatchSize
+) {
+}
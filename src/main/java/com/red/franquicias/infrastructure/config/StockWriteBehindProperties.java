@@ -0,0 +1,20 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Stock deltas are kept in memory and in a local write-ahead log under {@code walDirectory}, and
+ * written to the database every {@code flushInterval}. Appends to the log are synced to disk together
+ * for up to {@code walSyncWindow} before callers are answered.
+ */
+@ConfigurationProperties(prefix = "franquicias.stock-write-behind")
+public record StockWriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100ms") Duration flushInterval,
+        @DefaultValue("data/stock-wal") String walDirectory,
+        @DefaultValue("1ms") Duration walSyncWindow
+) {
+}
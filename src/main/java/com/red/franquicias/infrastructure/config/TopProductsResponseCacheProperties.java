@@ -0,0 +1,15 @@
+package com.red.franquicias.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Serialized top-products responses are keyed by the franchise version, so like conditional
+ * GETs the cache is opt-in for single-instance deployments without a lagging read replica.
+ */
+@ConfigurationProperties(prefix = "franquicias.top-products.response-cache")
+public record TopProductsResponseCacheProperties(
+        boolean enabled,
+        @DefaultValue("10000") int maxEntries
+) {
+}
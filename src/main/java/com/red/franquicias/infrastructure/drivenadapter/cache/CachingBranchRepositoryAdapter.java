@@ -0,0 +1,89 @@
+package com.red.franquicias.infrastructure.drivenadapter.cache;
+
+import com.red.franquicias.application.cache.EntityCache;
+import com.red.franquicias.application.concurrency.BatchLoader;
+import com.red.franquicias.application.port.out.BranchRepositoryPort;
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.infrastructure.config.EntityCacheProperties;
+import com.red.franquicias.infrastructure.config.LookupBatchingProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.BranchRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Serves the branch-belongs-to-franchise lookup from an {@link EntityCache}. A branch never moves to
+ * another franchise, so a save only has to replace the entry for its own franchise. Misses arriving
+ * together are resolved by one {@link BatchLoader} query by id, and a branch only answers the key
+ * of the franchise it belongs to.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "franquicias.entity-cache", name = "enabled", matchIfMissing = true)
+public class CachingBranchRepositoryAdapter implements BranchRepositoryPort {
+
+    private final BranchRepositoryAdapter delegate;
+    private final EntityCache<BranchKey, Branch> cache;
+    private final BatchLoader<BranchKey, Branch> loader;
+
+    public CachingBranchRepositoryAdapter(
+            BranchRepositoryAdapter delegate,
+            EntityCacheProperties properties,
+            LookupBatchingProperties batchingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.cache = new EntityCache<>("branches", properties.maxSize(), properties.ttl(),
+                properties.negativeTtl(), meterRegistry,
+                branch -> new Branch(branch.getId(), branch.getFranchiseId(), branch.getName()));
+        this.loader = new BatchLoader<>("branches", batchingProperties.enabled(), batchingProperties.window(),
+                batchingProperties.maxBatchSize(), meterRegistry,
+                keys -> delegate.findAllById(keys.stream().map(BranchKey::id).distinct().toList()),
+                branch -> new BranchKey(branch.getId(), branch.getFranchiseId()),
+                key -> delegate.findByIdAndFranchiseId(key.id(), key.franchiseId()));
+    }
+
+    @Override
+    public Mono<Branch> save(Branch branch) {
+        return delegate.save(branch)
+                .doOnNext(saved -> cache.put(new BranchKey(saved.getId(), saved.getFranchiseId()), saved));
+    }
+
+    @Override
+    public Mono<Branch> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Mono<Branch> findByIdAndFranchiseId(Long id, Long franchiseId) {
+        BranchKey key = new BranchKey(id, franchiseId);
+        return cache.get(key, () -> loader.load(key));
+    }
+
+    @Override
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return delegate.findByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Flux<Branch> findAll() {
+        return delegate.findAll();
+    }
+
+    public void invalidate(Long id, Long franchiseId) {
+        cache.invalidate(new BranchKey(id, franchiseId));
+    }
+
+    private record BranchKey(Long id, Long franchiseId) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.red.franquicias.infrastructure.drivenadapter.cache;
+
+import com.red.franquicias.application.cache.EntityCache;
+import com.red.franquicias.application.concurrency.BatchLoader;
+import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.infrastructure.config.EntityCacheProperties;
+import com.red.franquicias.infrastructure.config.LookupBatchingProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.FranchiseRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Serves franchise lookups by id from an {@link EntityCache}. Saves go to the database first and then
+ * replace the cached entry, so a rename through this instance is visible to its next lookup. Misses
+ * arriving together are resolved by one {@link BatchLoader} query.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "franquicias.entity-cache", name = "enabled", matchIfMissing = true)
+public class CachingFranchiseRepositoryAdapter implements FranchiseRepositoryPort {
+
+    private final FranchiseRepositoryAdapter delegate;
+    private final EntityCache<Long, Franchise> cache;
+    private final BatchLoader<Long, Franchise> loader;
+
+    public CachingFranchiseRepositoryAdapter(
+            FranchiseRepositoryAdapter delegate,
+            EntityCacheProperties properties,
+            LookupBatchingProperties batchingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.cache = new EntityCache<>("franchises", properties.maxSize(), properties.ttl(),
+                properties.negativeTtl(), meterRegistry,
+                franchise -> new Franchise(franchise.getId(), franchise.getName()));
+        this.loader = new BatchLoader<>("franchises", batchingProperties.enabled(), batchingProperties.window(),
+                batchingProperties.maxBatchSize(), meterRegistry,
+                delegate::findAllById, Franchise::getId, delegate::findById);
+    }
+
+    @Override
+    public Mono<Franchise> save(Franchise franchise) {
+        return delegate.save(franchise)
+                .doOnNext(saved -> cache.put(saved.getId(), saved));
+    }
+
+    @Override
+    public Mono<Franchise> findById(Long id) {
+        return cache.get(id, () -> loader.load(id));
+    }
+
+    @Override
+    public Flux<Franchise> findAllById(Collection<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Flux<Franchise> findAll() {
+        return delegate.findAll();
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+}
@@ -0,0 +1,50 @@
+package com.red.franquicias.infrastructure.drivenadapter.changelog;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Position of the poller in {@code change_log}. A sequence number is taken at insert but only becomes
+ * visible at commit, so a gap below a visible row may still be filled by a transaction in flight. The
+ * cursor stops before the first gap until the row after it is older than the gap timeout, and
+ * remembers the rows above it that were already handed out so reading them again is harmless.
+ */
+class ChangeLogCursor {
+
+    private final Duration gapTimeout;
+    private final NavigableSet<Long> seenAhead = new TreeSet<>();
+    private long position;
+
+    ChangeLogCursor(long position, Duration gapTimeout) {
+        this.position = position;
+        this.gapTimeout = gapTimeout;
+    }
+
+    long position() {
+        return position;
+    }
+
+    /**
+     * Takes a batch read after {@link #position()} in seq order and returns the rows not handed out before.
+     */
+    List<ChangeLogEntry> advance(List<ChangeLogEntry> batch) {
+        List<ChangeLogEntry> unseen = new ArrayList<>();
+        boolean contiguous = true;
+        for (ChangeLogEntry entry : batch) {
+            if (!seenAhead.contains(entry.seq())) {
+                unseen.add(entry);
+            }
+            if (contiguous && (entry.seq() == position + 1 || entry.age().compareTo(gapTimeout) >= 0)) {
+                position = entry.seq();
+            } else {
+                contiguous = false;
+                seenAhead.add(entry.seq());
+            }
+        }
+        seenAhead.headSet(position, true).clear();
+        return unseen;
+    }
+}
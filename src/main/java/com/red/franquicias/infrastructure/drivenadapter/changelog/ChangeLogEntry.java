@@ -0,0 +1,18 @@
+package com.red.franquicias.infrastructure.drivenadapter.changelog;
+
+import java.time.Duration;
+
+/**
+ * A {@code change_log} row as read by the poller; {@code age} is measured by MySQL, so it does not
+ * depend on the clocks of the instances.
+ */
+record ChangeLogEntry(
+        long seq,
+        String origin,
+        String entity,
+        Long entityId,
+        Long branchId,
+        Long franchiseId,
+        Duration age
+) {
+}
@@ -0,0 +1,242 @@
+package com.red.franquicias.infrastructure.drivenadapter.changelog;
+
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import com.red.franquicias.infrastructure.drivenadapter.cache.CachingBranchRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.cache.CachingFranchiseRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ChangeLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tails {@code change_log} and drops what this instance keeps in memory about rows other instances
+ * changed: cached franchises and branches, the top stock index and the franchise versions behind the
+ * ETags and the response cache. A change is applied at most one poll interval after it commits, plus
+ * the time a sequence gap ahead of it takes to close.
+ */
+@Component
+@ConditionalOnProperty(prefix = "franquicias.change-log", name = "enabled", matchIfMissing = true)
+public class ChangeLogPoller implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogPoller.class);
+
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    private final DatabaseClient databaseClient;
+    private final ChangeLog changeLog;
+    private final ChangeLogProperties properties;
+    private final FranchiseVersions franchiseVersions;
+    private final TopStockIndex topStockIndex;
+    private final ObjectProvider<CachingFranchiseRepositoryAdapter> franchiseCache;
+    private final ObjectProvider<CachingBranchRepositoryAdapter> branchCache;
+    private final Timer staleness;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private ChangeLogCursor cursor;
+    private volatile long lastPollNanos = System.nanoTime();
+
+    public ChangeLogPoller(
+            DatabaseClient databaseClient,
+            ChangeLog changeLog,
+            ChangeLogProperties properties,
+            FranchiseVersions franchiseVersions,
+            TopStockIndex topStockIndex,
+            ObjectProvider<CachingFranchiseRepositoryAdapter> franchiseCache,
+            ObjectProvider<CachingBranchRepositoryAdapter> branchCache,
+            MeterRegistry meterRegistry
+    ) {
+        this.databaseClient = databaseClient;
+        this.changeLog = changeLog;
+        this.properties = properties;
+        this.franchiseVersions = franchiseVersions;
+        this.topStockIndex = topStockIndex;
+        this.franchiseCache = franchiseCache;
+        this.branchCache = branchCache;
+        this.staleness = Timer.builder("franquicias.change.log.staleness")
+                .description("Time from a change being logged by another instance to this instance applying it")
+                .register(meterRegistry);
+        Gauge.builder("franquicias.change.log.last.poll.age", this,
+                        poller -> (System.nanoTime() - poller.lastPollNanos) / 1e9)
+                .description("Time since this instance last read change_log successfully")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscriptions.add(Flux.interval(properties.pollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> poll()
+                        .onErrorResume(ex -> {
+                            log.warn("Could not read change_log, retrying in {}", properties.pollInterval(), ex);
+                            return Mono.empty();
+                        }))
+                .subscribe());
+        subscriptions.add(Flux.interval(PURGE_INTERVAL)
+                .onBackpressureDrop()
+                .concatMap(tick -> purge()
+                        .onErrorResume(ex -> {
+                            log.warn("Could not purge change_log", ex);
+                            return Mono.empty();
+                        }))
+                .subscribe());
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Emits how many changes made by other instances were applied.
+     */
+    Mono<Integer> poll() {
+        return currentCursor()
+                .flatMap(current -> batch(current.position()).map(current::advance))
+                .doOnNext(entries -> lastPollNanos = System.nanoTime())
+                .flatMap(this::apply);
+    }
+
+    Mono<Integer> apply(List<ChangeLogEntry> entries) {
+        List<ChangeLogEntry> remote = entries.stream()
+                .filter(entry -> !changeLog.origin().equals(entry.origin()))
+                .toList();
+        if (remote.isEmpty()) {
+            return Mono.just(0);
+        }
+        return refreshIndex(remote).then(Mono.fromCallable(() -> {
+            for (ChangeLogEntry entry : remote) {
+                switch (entry.entity()) {
+                    case ChangeLog.FRANCHISE -> franchiseCache.ifAvailable(cache -> cache.invalidate(entry.entityId()));
+                    case ChangeLog.BRANCH -> branchCache.ifAvailable(cache -> cache.invalidate(entry.entityId(), entry.franchiseId()));
+                    default -> {
+                    }
+                }
+            }
+            remote.stream().map(ChangeLogEntry::franchiseId).distinct().forEach(franchiseVersions::bump);
+            remote.forEach(entry -> staleness.record(entry.age()));
+            return remote.size();
+        }));
+    }
+
+    private Mono<ChangeLogCursor> currentCursor() {
+        if (cursor != null) {
+            return Mono.just(cursor);
+        }
+        return databaseClient.sql("SELECT COALESCE(MAX(seq), 0) AS seq FROM change_log")
+                .map(row -> row.get("seq", Long.class))
+                .one()
+                .map(position -> cursor = new ChangeLogCursor(position, properties.gapTimeout()));
+    }
+
+    private Mono<List<ChangeLogEntry>> batch(long after) {
+        return databaseClient.sql("""
+                        SELECT seq, origin, entity, entity_id, branch_id, franchise_id,
+                               TIMESTAMPDIFF(MICROSECOND, changed_at, CURRENT_TIMESTAMP(3)) AS age_micros
+                        FROM change_log
+                        WHERE seq > :after
+                        ORDER BY seq
+                        LIMIT :batchSize
+                        """)
+                .bind("after", after)
+                .bind("batchSize", properties.batchSize())
+                .map(row -> new ChangeLogEntry(
+                        row.get("seq", Long.class),
+                        row.get("origin", String.class),
+                        row.get("entity", String.class),
+                        row.get("entity_id", Long.class),
+                        row.get("branch_id", Long.class),
+                        row.get("franchise_id", Long.class),
+                        Duration.ofNanos(Math.max(0L, row.get("age_micros", Long.class)) * 1_000L)))
+                .all()
+                .collectList();
+    }
+
+    /**
+     * Re-reads the changed rows on the primary, so the index never takes a value older than the change
+     * it was told about, and updates it before the versions move on.
+     */
+    private Mono<Void> refreshIndex(List<ChangeLogEntry> remote) {
+        if (!topStockIndex.isReady()) {
+            return Mono.empty();
+        }
+        Set<Long> franchiseIds = ids(remote, ChangeLog.FRANCHISE);
+        Set<Long> branchIds = ids(remote, ChangeLog.BRANCH);
+        Set<Long> productIds = ids(remote, ChangeLog.PRODUCT);
+
+        Mono<Void> franchises = franchiseIds.isEmpty() ? Mono.empty() : databaseClient
+                .sql("SELECT id, name FROM franchises WHERE id IN (:ids)")
+                .bind("ids", franchiseIds)
+                .map(row -> new Franchise(row.get("id", Long.class), row.get("name", String.class)))
+                .all()
+                .doOnNext(topStockIndex::onFranchiseSaved)
+                .then();
+        Mono<Void> branches = branchIds.isEmpty() ? Mono.empty() : databaseClient
+                .sql("SELECT id, franchise_id, name FROM branches WHERE id IN (:ids)")
+                .bind("ids", branchIds)
+                .map(row -> new Branch(row.get("id", Long.class), row.get("franchise_id", Long.class),
+                        row.get("name", String.class)))
+                .all()
+                .doOnNext(topStockIndex::onBranchSaved)
+                .then();
+        Mono<Void> products = productIds.isEmpty() ? Mono.empty() : Mono.defer(() -> {
+            long read = topStockIndex.startRead();
+            return databaseClient
+                    .sql("SELECT id, branch_id, name, stock FROM products WHERE id IN (:ids)")
+                    .bind("ids", productIds)
+                    .map(row -> new Product(row.get("id", Long.class), row.get("branch_id", Long.class),
+                            row.get("name", String.class), row.get("stock", Integer.class)))
+                    .all()
+                    .collectMap(Product::getId, Function.identity())
+                    .doOnNext(found -> productIds.forEach(productId ->
+                            topStockIndex.onProductRead(productId, read, found.get(productId))))
+                    .then();
+        });
+        return franchises.then(branches).then(products);
+    }
+
+    private Set<Long> ids(List<ChangeLogEntry> entries, String entity) {
+        return entries.stream()
+                .filter(entry -> entity.equals(entry.entity()))
+                .map(ChangeLogEntry::entityId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private Mono<Long> purge() {
+        return databaseClient.sql("""
+                        DELETE FROM change_log
+                        WHERE changed_at < CURRENT_TIMESTAMP(3) - INTERVAL :seconds SECOND
+                        LIMIT :limit
+                        """)
+                .bind("seconds", properties.retention().toSeconds())
+                .bind("limit", PURGE_BATCH_SIZE)
+                .fetch()
+                .rowsUpdated();
+    }
+}
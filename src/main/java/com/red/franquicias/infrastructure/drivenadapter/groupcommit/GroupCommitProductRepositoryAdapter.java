@@ -0,0 +1,125 @@
+package com.red.franquicias.infrastructure.drivenadapter.groupcommit;
+
+import com.red.franquicias.application.concurrency.GroupCommit;
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.application.usecase.product.BranchTopProductRow;
+import com.red.franquicias.application.usecase.product.ProductOwnershipRow;
+import com.red.franquicias.application.usecase.product.ProductStockChange;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.StockGroupCommitProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ProductRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes single stock updates through a {@link GroupCommit}, so a burst of updates shares one
+ * transaction instead of taking a connection and a commit each. Callers still get the product as the
+ * shared transaction left it, once that transaction has committed. Stock write-behind, when enabled, takes
+ * over single stock updates instead.
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${franquicias.stock-group-commit.enabled:false} and !${franquicias.stock-write-behind.enabled:false}")
+public class GroupCommitProductRepositoryAdapter implements ProductRepositoryPort {
+
+    private final ProductRepositoryAdapter delegate;
+    private final GroupCommit<StockUpdate, Optional<Product>> stockUpdates;
+
+    public GroupCommitProductRepositoryAdapter(
+            ProductRepositoryAdapter delegate,
+            StockGroupCommitProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.stockUpdates = new GroupCommit<>("stock", properties.window(), properties.maxBatchSize(),
+                delegate::applyStockUpdates, meterRegistry);
+    }
+
+    @Override
+    public Mono<Product> setStock(Long productId, Long branchId, Long franchiseId, Integer stock) {
+        return stockUpdates.submit(StockUpdate.set(productId, branchId, franchiseId, stock)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<Product> addStock(Long productId, Long branchId, Long franchiseId, Integer delta) {
+        return stockUpdates.submit(StockUpdate.add(productId, branchId, franchiseId, delta)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Flux<Optional<Product>> applyStockUpdates(List<StockUpdate> updates) {
+        return delegate.applyStockUpdates(updates);
+    }
+
+    @Override
+    public Flux<Long> applyStockSegment(String writer, long segment, List<StockUpdate> updates) {
+        return delegate.applyStockSegment(writer, segment, updates);
+    }
+
+    @Override
+    public Mono<Product> save(Product product) {
+        return delegate.save(product);
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Mono<Product> findByIdAndBranchId(Long id, Long branchId) {
+        return delegate.findByIdAndBranchId(id, branchId);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return delegate.deleteById(id);
+    }
+
+    @Override
+    public Mono<Product> findTopByBranchIdOrderByStockDesc(Long branchId) {
+        return delegate.findTopByBranchIdOrderByStockDesc(branchId);
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsByFranchiseId(Long franchiseId) {
+        return delegate.findTopProductsByFranchiseId(franchiseId);
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsPerBranch(Long franchiseId, Integer perBranch) {
+        return delegate.findTopProductsPerBranch(franchiseId, perBranch);
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsAcrossBranches(Long franchiseId, Integer limit) {
+        return delegate.findTopProductsAcrossBranches(franchiseId, limit);
+    }
+
+    @Override
+    public Flux<Product> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Mono<ProductOwnershipRow> findOwnership(Long franchiseId, Long branchId, Long productId) {
+        return delegate.findOwnership(franchiseId, branchId, productId);
+    }
+
+    @Override
+    public Flux<Long> setStocks(Long branchId, List<ProductStockChange> changes) {
+        return delegate.setStocks(branchId, changes);
+    }
+
+    @Override
+    public Flux<Product> insertAll(Long branchId, List<Product> products) {
+        return delegate.insertAll(branchId, products);
+    }
+}
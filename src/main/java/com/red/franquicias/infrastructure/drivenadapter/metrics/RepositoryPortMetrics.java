@@ -0,0 +1,86 @@
+package com.red.franquicias.infrastructure.drivenadapter.metrics;
+
+import com.red.franquicias.infrastructure.metrics.CallMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wraps every {@code *RepositoryPort} bean so each port method records a latency timer and
+ * an error counter tagged with the port and method name. Meters are registered when the
+ * adapter is created; calls only look up their meters by {@link Method}. Only the database adapters
+ * under {@code drivenadapter.r2dbc} are timed, so decorators such as the entity caches do not count
+ * a call twice.
+ */
+@Component
+public class RepositoryPortMetrics implements BeanPostProcessor {
+
+    static final String METRIC = "franquicias.port";
+    private static final String PORT_PACKAGE = "com.red.franquicias.application.port.out";
+    private static final String ADAPTER_PACKAGE = "com.red.franquicias.infrastructure.drivenadapter.r2dbc";
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public RepositoryPortMetrics(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> port = repositoryPort(bean.getClass());
+        MeterRegistry meterRegistry = port == null ? null : registry.getIfAvailable();
+        if (meterRegistry == null) {
+            return bean;
+        }
+
+        Map<Method, CallMeters> meters = new HashMap<>();
+        for (Method method : port.getMethods()) {
+            CallMeters callMeters = CallMeters.register(meterRegistry, METRIC,
+                    Tags.of("port", port.getSimpleName(), "method", method.getName()));
+            meters.put(method, callMeters);
+            meters.put(ClassUtils.getMostSpecificMethod(method, bean.getClass()), callMeters);
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            CallMeters callMeters = meters.get(invocation.getMethod());
+            Object result = invocation.proceed();
+            if (callMeters == null) {
+                return result;
+            }
+            if (result instanceof Mono<?> mono) {
+                return callMeters.time(mono);
+            }
+            if (result instanceof Flux<?> flux) {
+                return callMeters.time(flux);
+            }
+            return result;
+        });
+        return proxyFactory.getProxy();
+    }
+
+    private static Class<?> repositoryPort(Class<?> beanClass) {
+        if (!beanClass.getPackageName().startsWith(ADAPTER_PACKAGE)) {
+            return null;
+        }
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(beanClass)) {
+            if (candidate.getPackageName().equals(PORT_PACKAGE)
+                    && candidate.getSimpleName().endsWith("RepositoryPort")) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
 
 import com.red.franquicias.application.port.out.BranchRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Branch;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.BranchEntity;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.BranchRepository;
@@ -8,43 +10,60 @@ import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Component
 public class BranchRepositoryAdapter implements BranchRepositoryPort {
     private final BranchRepository repository;
+    private final ChangeLog changeLog;
 
-    public BranchRepositoryAdapter(BranchRepository repository) {
+    public BranchRepositoryAdapter(BranchRepository repository, ChangeLog changeLog) {
         this.repository = repository;
+        this.changeLog = changeLog;
     }
 
     @Override
     public Mono<Branch> save(Branch branch) {
         BranchEntity entity = toEntity(branch);
-        return repository.save(entity)
-                .map(this::toDomain);
+        return changeLog.recording(repository.save(entity).map(this::toDomain),
+                        saved -> changeLog.branch(saved.getId(), saved.getFranchiseId()))
+                .onErrorMap(DuplicateKeyErrors::isDuplicateKey,
+                        ex -> BusinessException.of(TechnicalMessage.BRANCH_NAME_ALREADY_EXISTS));
     }
 
     @Override
     public Mono<Branch> findById(Long id) {
         return repository.findById(id)
-                .map(this::toDomain);
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     @Override
     public Mono<Branch> findByIdAndFranchiseId(Long id, Long franchiseId) {
         return repository.findByIdAndFranchiseId(id, franchiseId)
-                .map(this::toDomain);
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     @Override
-    public Mono<Boolean> existsByNameAndFranchiseId(String name, Long franchiseId) {
-        return repository.findByNameAndFranchiseId(name, franchiseId)
-                .hasElement();
+    public Flux<Branch> findByFranchiseId(Long franchiseId) {
+        return repository.findByFranchiseId(franchiseId)
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     @Override
-    public Flux<Branch> findByFranchiseId(Long franchiseId) {
-        return repository.findByFranchiseId(franchiseId)
-                .map(this::toDomain);
+    public Flux<Branch> findAllById(Collection<Long> ids) {
+        return repository.findAllById(ids)
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
+    }
+
+    @Override
+    public Flux<Branch> findAll() {
+        return repository.findAll()
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.ANALYTICS.context());
     }
 
     private BranchEntity toEntity(Branch branch) {
@@ -0,0 +1,190 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
+
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Appends to {@code change_log} in the same transaction as the mutation it describes, so another
+ * instance never sees the change without its entry or the entry without the change. Rows carry
+ * this instance's {@link #origin()} so the poller can skip what was already applied locally. With
+ * {@code franquicias.change-log.enabled=false} nothing reads or purges the table, so no entry is written.
+ */
+@Component
+public class ChangeLog {
+
+    public static final String FRANCHISE = "FRANCHISE";
+    public static final String BRANCH = "BRANCH";
+    public static final String PRODUCT = "PRODUCT";
+
+    private static final String INSERT_PRODUCTS_OF_BRANCH = """
+            INSERT INTO change_log (origin, entity, entity_id, branch_id, franchise_id)
+            SELECT ?, 'PRODUCT', p.id, p.branch_id, b.franchise_id
+            FROM products p
+            JOIN branches b ON b.id = p.branch_id
+            WHERE p.branch_id = ? AND p.id IN (%s)
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final boolean enabled;
+    private final String origin = UUID.randomUUID().toString();
+
+    public ChangeLog(
+            DatabaseClient databaseClient,
+            TransactionalOperator transactionalOperator,
+            ChangeLogProperties properties
+    ) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.enabled = properties.enabled();
+    }
+
+    public String origin() {
+        return origin;
+    }
+
+    /**
+     * Runs the mutation and the entry derived from its result in one transaction.
+     */
+    <T> Mono<T> recording(Mono<T> mutation, Function<T, Mono<Void>> entry) {
+        return inTransaction(mutation.flatMap(result -> entry.apply(result).thenReturn(result)));
+    }
+
+    <T> Mono<T> inTransaction(Mono<T> work) {
+        return transactionalOperator.transactional(work);
+    }
+
+    Mono<Void> franchise(Long franchiseId) {
+        return insert(FRANCHISE, franchiseId, null, franchiseId);
+    }
+
+    Mono<Void> branch(Long branchId, Long franchiseId) {
+        return insert(BRANCH, branchId, branchId, franchiseId);
+    }
+
+    Mono<Void> product(Long productId, Long branchId, Long franchiseId) {
+        return insert(PRODUCT, productId, branchId, franchiseId);
+    }
+
+    Mono<Void> product(Long productId, Long branchId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("""
+                        INSERT INTO change_log (origin, entity, entity_id, branch_id, franchise_id)
+                        SELECT :origin, 'PRODUCT', :productId, b.id, b.franchise_id
+                        FROM branches b
+                        WHERE b.id = :branchId
+                        """)
+                .bind("origin", origin)
+                .bind("productId", productId)
+                .bind("branchId", branchId)
+                .then();
+    }
+
+    /**
+     * Must run before the delete, while the product row still tells its branch and franchise.
+     */
+    Mono<Void> productRemoved(Long productId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("""
+                        INSERT INTO change_log (origin, entity, entity_id, branch_id, franchise_id)
+                        SELECT :origin, 'PRODUCT', p.id, p.branch_id, b.franchise_id
+                        FROM products p
+                        JOIN branches b ON b.id = p.branch_id
+                        WHERE p.id = :productId
+                        """)
+                .bind("origin", origin)
+                .bind("productId", productId)
+                .then();
+    }
+
+    Mono<Void> productsNamed(Long branchId, List<String> names) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("""
+                        INSERT INTO change_log (origin, entity, entity_id, branch_id, franchise_id)
+                        SELECT :origin, 'PRODUCT', p.id, p.branch_id, b.franchise_id
+                        FROM products p
+                        JOIN branches b ON b.id = p.branch_id
+                        WHERE p.branch_id = :branchId AND p.name IN (:names)
+                        """)
+                .bind("origin", origin)
+                .bind("branchId", branchId)
+                .bind("names", names)
+                .then();
+    }
+
+    /**
+     * Entries for a stock batch, on the connection that holds the batch's own transaction.
+     */
+    Mono<Void> products(Connection connection, Long branchId, List<Long> productIds) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        Statement statement = connection.createStatement(
+                INSERT_PRODUCTS_OF_BRANCH.formatted(String.join(", ", productIds.stream().map(id -> "?").toList())));
+        statement.bind(0, origin).bind(1, branchId);
+        for (int i = 0; i < productIds.size(); i++) {
+            statement.bind(i + 2, productIds.get(i));
+        }
+        return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated)
+                .then();
+    }
+
+    /**
+     * Entries for the stock updates that changed a row, on the connection that holds their transaction.
+     */
+    Mono<Void> stockUpdates(Connection connection, List<StockUpdate> updated) {
+        if (!enabled || updated.isEmpty()) {
+            return Mono.empty();
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO change_log (origin, entity, entity_id, branch_id, franchise_id) VALUES ");
+        for (int i = 0; i < updated.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, 'PRODUCT', ?, ?, ?)");
+        }
+        Statement statement = connection.createStatement(sql.toString());
+        for (int i = 0; i < updated.size(); i++) {
+            StockUpdate update = updated.get(i);
+            statement.bind(i * 4, origin)
+                    .bind(i * 4 + 1, update.productId())
+                    .bind(i * 4 + 2, update.branchId())
+                    .bind(i * 4 + 3, update.franchiseId());
+        }
+        return Flux.from(statement.execute())
+                .concatMap(Result::getRowsUpdated)
+                .then();
+    }
+
+    private Mono<Void> insert(String entity, Long entityId, Long branchId, Long franchiseId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO change_log (origin, entity, entity_id, branch_id, franchise_id)
+                        VALUES (:origin, :entity, :entityId, :branchId, :franchiseId)
+                        """)
+                .bind("origin", origin)
+                .bind("entity", entity)
+                .bind("entityId", entityId)
+                .bind("franchiseId", franchiseId);
+        spec = branchId == null ? spec.bindNull("branchId", Long.class) : spec.bind("branchId", branchId);
+        return spec.then();
+    }
+}
@@ -0,0 +1,32 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
+
+import com.red.franquicias.application.consistency.ReadConsistency;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Connection pool a query should run on. Adapters attach it to the Reactor context with
+ * {@code contextWrite(route.context())}, keyed by this class; queries without a route use {@link #WRITE}.
+ */
+public enum ConnectionRoute {
+    WRITE,
+    READ,
+    ANALYTICS;
+
+    private final Context context = Context.of(ConnectionRoute.class, this);
+
+    public Context context() {
+        return context;
+    }
+
+    /**
+     * Context that runs every query on {@link #WRITE}, whatever route the adapters attach below it.
+     */
+    public static Context primaryOnly() {
+        return ReadConsistency.primaryOnly();
+    }
+
+    public static boolean isPrimaryOnly(ContextView context) {
+        return ReadConsistency.isPrimaryOnly(context);
+    }
+}
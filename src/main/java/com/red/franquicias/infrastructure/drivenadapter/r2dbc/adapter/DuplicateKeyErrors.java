@@ -0,0 +1,25 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
+
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+final class DuplicateKeyErrors {
+
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    private DuplicateKeyErrors() {
+    }
+
+    static boolean isDuplicateKey(Throwable ex) {
+        for (Throwable current = ex; current != null; current = current.getCause()) {
+            if (current instanceof DuplicateKeyException) {
+                return true;
+            }
+            if (current instanceof R2dbcDataIntegrityViolationException violation
+                    && violation.getErrorCode() == MYSQL_DUPLICATE_ENTRY) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,37 +1,55 @@
 package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
 
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.FranchiseEntity;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.FranchiseRepository;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Component
 public class FranchiseRepositoryAdapter implements FranchiseRepositoryPort {
     private final FranchiseRepository repository;
+    private final ChangeLog changeLog;
 
-    public FranchiseRepositoryAdapter(FranchiseRepository repository) {
+    public FranchiseRepositoryAdapter(FranchiseRepository repository, ChangeLog changeLog) {
         this.repository = repository;
+        this.changeLog = changeLog;
     }
 
     @Override
     public Mono<Franchise> save(Franchise franchise) {
         FranchiseEntity entity = toEntity(franchise);
-        return repository.save(entity)
-                .map(this::toDomain);
+        return changeLog.recording(repository.save(entity).map(this::toDomain),
+                        saved -> changeLog.franchise(saved.getId()))
+                .onErrorMap(DuplicateKeyErrors::isDuplicateKey,
+                        ex -> BusinessException.of(TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS));
     }
 
     @Override
     public Mono<Franchise> findById(Long id) {
         return repository.findById(id)
-                .map(this::toDomain);
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
+    }
+
+    @Override
+    public Flux<Franchise> findAllById(Collection<Long> ids) {
+        return repository.findAllById(ids)
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     @Override
-    public Mono<Boolean> existsByName(String name) {
-        return repository.findByName(name)
-                .hasElement();
+    public Flux<Franchise> findAll() {
+        return repository.findAll()
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.ANALYTICS.context());
     }
 
     private FranchiseEntity toEntity(Franchise franchise) {
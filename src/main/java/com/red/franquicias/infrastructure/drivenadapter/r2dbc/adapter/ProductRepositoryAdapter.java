@@ -2,55 +2,91 @@ package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
 
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
 import com.red.franquicias.application.usecase.product.BranchTopProductRow;
+import com.red.franquicias.application.usecase.product.ProductOwnershipRow;
+import com.red.franquicias.application.usecase.product.ProductStockChange;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Product;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.ProductEntity;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.ProductRepository;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
 @Component
 public class ProductRepositoryAdapter implements ProductRepositoryPort {
+    private static final int STOCK_BATCH_CHUNK_SIZE = 500;
+    private static final String SET_STOCK_SQL = "UPDATE products SET stock = ? WHERE id = ? AND branch_id = ?";
+    private static final String SET_OWNED_STOCK_SQL = """
+            UPDATE products p
+            JOIN branches b ON b.id = p.branch_id
+            SET p.stock = ?
+            WHERE p.id = ? AND p.branch_id = ? AND b.franchise_id = ?
+            """;
+    private static final String ADD_OWNED_STOCK_SQL = """
+            UPDATE products p
+            JOIN branches b ON b.id = p.branch_id
+            SET p.stock = p.stock + ?
+            WHERE p.id = ? AND p.branch_id = ? AND b.franchise_id = ? AND p.stock + ? >= 0
+            """;
+
     private final ProductRepository repository;
+    private final DatabaseClient databaseClient;
+    private final ChangeLog changeLog;
 
-    public ProductRepositoryAdapter(ProductRepository repository) {
+    public ProductRepositoryAdapter(ProductRepository repository, DatabaseClient databaseClient, ChangeLog changeLog) {
         this.repository = repository;
+        this.databaseClient = databaseClient;
+        this.changeLog = changeLog;
     }
 
     @Override
     public Mono<Product> save(Product product) {
         ProductEntity entity = toEntity(product);
-        return repository.save(entity)
-                .map(this::toDomain);
+        return changeLog.recording(repository.save(entity).map(this::toDomain),
+                        saved -> changeLog.product(saved.getId(), saved.getBranchId()))
+                .onErrorMap(DuplicateKeyErrors::isDuplicateKey,
+                        ex -> BusinessException.of(TechnicalMessage.PRODUCT_NAME_ALREADY_EXISTS));
     }
 
     @Override
     public Mono<Product> findById(Long id) {
         return repository.findById(id)
-                .map(this::toDomain);
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     @Override
     public Mono<Product> findByIdAndBranchId(Long id, Long branchId) {
         return repository.findByIdAndBranchId(id, branchId)
-                .map(this::toDomain);
-    }
-
-    @Override
-    public Mono<Boolean> existsByNameAndBranchId(String name, Long branchId) {
-        return repository.findByNameAndBranchId(name, branchId)
-                .hasElement();
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     @Override
     public Mono<Void> deleteById(Long id) {
-        return repository.deleteById(id);
+        return changeLog.inTransaction(changeLog.productRemoved(id).then(repository.deleteById(id)));
     }
 
     @Override
     public Mono<Product> findTopByBranchIdOrderByStockDesc(Long branchId) {
         return repository.findTopByBranchIdOrderByStockDesc(branchId)
-                .map(this::toDomain);
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.READ.context());
     }
 
     private ProductEntity toEntity(Product product) {
@@ -63,7 +99,260 @@ public class ProductRepositoryAdapter implements ProductRepositoryPort {
 
     @Override
     public Flux<BranchTopProductRow> findTopProductsByFranchiseId(Long franchiseId) {
-        return repository.findTopProductsByFranchiseId(franchiseId);
+        return repository.findTopProductsByFranchiseId(franchiseId)
+                .contextWrite(ConnectionRoute.ANALYTICS.context());
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsPerBranch(Long franchiseId, Integer perBranch) {
+        return repository.findTopProductsPerBranch(franchiseId, perBranch)
+                .contextWrite(ConnectionRoute.ANALYTICS.context());
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsAcrossBranches(Long franchiseId, Integer limit) {
+        return repository.findTopProductsAcrossBranches(franchiseId, limit)
+                .contextWrite(ConnectionRoute.ANALYTICS.context());
+    }
+
+    @Override
+    public Flux<Product> findAll() {
+        return repository.findAll()
+                .map(this::toDomain)
+                .contextWrite(ConnectionRoute.ANALYTICS.context());
+    }
+
+    @Override
+    public Mono<ProductOwnershipRow> findOwnership(Long franchiseId, Long branchId, Long productId) {
+        return repository.findOwnership(franchiseId, branchId, productId)
+                .contextWrite(ConnectionRoute.READ.context());
+    }
+
+    @Override
+    public Mono<Product> setStock(Long productId, Long branchId, Long franchiseId, Integer stock) {
+        return changeLog.inTransaction(repository.setStock(productId, branchId, franchiseId, stock)
+                .flatMap(rows -> writtenProduct(rows, productId, branchId, franchiseId)));
+    }
+
+    @Override
+    public Mono<Product> addStock(Long productId, Long branchId, Long franchiseId, Integer delta) {
+        return changeLog.inTransaction(repository.addStock(productId, branchId, franchiseId, delta)
+                .flatMap(rows -> writtenProduct(rows, productId, branchId, franchiseId)));
+    }
+
+    /**
+     * Read in the transaction that changed the row, which still holds its lock, so the stock is the one
+     * this write left and not one of a concurrent write.
+     */
+    private Mono<Product> writtenProduct(Long rows, Long productId, Long branchId, Long franchiseId) {
+        return rows > 0
+                ? changeLog.product(productId, branchId, franchiseId).then(repository.findById(productId).map(this::toDomain))
+                : Mono.empty();
+    }
+
+    @Override
+    public Flux<Long> setStocks(Long branchId, List<ProductStockChange> changes) {
+        return Flux.fromIterable(changes)
+                .buffer(STOCK_BATCH_CHUNK_SIZE)
+                .concatMap(chunk -> databaseClient.inConnectionMany(connection -> Flux.usingWhen(
+                        Mono.from(connection.beginTransaction()).thenReturn(connection),
+                        c -> Flux.from(stockBatch(c, branchId, chunk).execute())
+                                .concatMap(Result::getRowsUpdated)
+                                .concatWith(changeLog.products(c, branchId,
+                                        chunk.stream().map(ProductStockChange::productId).toList()).then(Mono.empty())),
+                        Connection::commitTransaction,
+                        (c, ex) -> c.rollbackTransaction(),
+                        Connection::rollbackTransaction
+                )));
+    }
+
+    /**
+     * Rows are written in product id order, so two transactions touching the same products lock them in
+     * the same order; updates to one product keep their relative order. Consecutive updates of the same
+     * kind share one batched statement.
+     */
+    @Override
+    public Flux<Optional<Product>> applyStockUpdates(List<StockUpdate> updates) {
+        return inTransaction(c -> writeStockUpdates(c, updates)
+                .collectList()
+                .flatMapMany(rows -> writtenProducts(c, updates, rows)));
+    }
+
+    @Override
+    public Flux<Long> applyStockSegment(String writer, long segment, List<StockUpdate> updates) {
+        return inTransaction(c -> claimSegment(c, writer, segment)
+                .flatMapMany(claimed -> claimed ? writeStockUpdates(c, updates) : Flux.empty()));
+    }
+
+    private <T> Flux<T> inTransaction(Function<Connection, Flux<T>> work) {
+        return databaseClient.inConnectionMany(connection -> Flux.usingWhen(
+                Mono.from(connection.beginTransaction()).thenReturn(connection),
+                work,
+                Connection::commitTransaction,
+                (c, ex) -> c.rollbackTransaction(),
+                Connection::rollbackTransaction
+        ));
+    }
+
+    private Mono<Boolean> claimSegment(Connection connection, String writer, long segment) {
+        Statement claim = connection.createStatement(
+                        "INSERT IGNORE INTO stock_write_behind_segments (writer, segment) VALUES (?, ?)")
+                .bind(0, writer)
+                .bind(1, segment);
+        Statement trim = connection.createStatement(
+                        "DELETE FROM stock_write_behind_segments WHERE writer = ? AND segment < ?")
+                .bind(0, writer)
+                .bind(1, segment);
+        return Flux.from(claim.execute())
+                .concatMap(Result::getRowsUpdated)
+                .reduce(0L, Long::sum)
+                .flatMap(claimed -> Flux.from(trim.execute())
+                        .concatMap(Result::getRowsUpdated)
+                        .then(Mono.just(claimed > 0)));
+    }
+
+    private Flux<Long> writeStockUpdates(Connection c, List<StockUpdate> updates) {
+        List<Integer> lockOrder = IntStream.range(0, updates.size()).boxed()
+                .sorted(Comparator.comparing(i -> updates.get(i).productId()))
+                .toList();
+        return Flux.fromIterable(runsOfSameKind(lockOrder, updates))
+                .concatMap(run -> Flux.from(stockUpdateBatch(c, run).execute())
+                        .concatMap(Result::getRowsUpdated))
+                .collectList()
+                .flatMapMany(rows -> {
+                    Long[] byPosition = new Long[updates.size()];
+                    List<StockUpdate> updated = new ArrayList<>();
+                    for (int i = 0; i < rows.size(); i++) {
+                        byPosition[lockOrder.get(i)] = rows.get(i);
+                        if (rows.get(i) > 0) {
+                            updated.add(updates.get(lockOrder.get(i)));
+                        }
+                    }
+                    return changeLog.stockUpdates(c, updated).thenMany(Flux.fromArray(byPosition));
+                });
+    }
+
+    /**
+     * An update that shares the transaction with later updates of the same product gets the product as
+     * the last of them left it.
+     */
+    private Flux<Optional<Product>> writtenProducts(Connection c, List<StockUpdate> updates, List<Long> rows) {
+        List<Long> ids = IntStream.range(0, updates.size())
+                .filter(i -> rows.get(i) > 0)
+                .mapToObj(i -> updates.get(i).productId())
+                .distinct()
+                .toList();
+        Mono<Map<Long, Product>> written = ids.isEmpty()
+                ? Mono.just(Map.of())
+                : Flux.from(productsById(c, ids).execute())
+                        .concatMap(result -> result.map((row, metadata) -> new Product(row.get("id", Long.class),
+                                row.get("branch_id", Long.class), row.get("name", String.class),
+                                row.get("stock", Integer.class))))
+                        .collectMap(Product::getId);
+        return written.flatMapIterable(products -> IntStream.range(0, updates.size())
+                .mapToObj(i -> rows.get(i) > 0
+                        ? Optional.ofNullable(products.get(updates.get(i).productId()))
+                        : Optional.<Product>empty())
+                .toList());
+    }
+
+    private Statement productsById(Connection connection, List<Long> ids) {
+        Statement statement = connection.createStatement("SELECT id, branch_id, name, stock FROM products WHERE id IN ("
+                + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")");
+        for (int i = 0; i < ids.size(); i++) {
+            statement.bind(i, ids.get(i));
+        }
+        return statement;
+    }
+
+    @Override
+    public Flux<Product> insertAll(Long branchId, List<Product> products) {
+        List<String> names = products.stream().map(Product::getName).toList();
+        return changeLog.inTransaction(insertRows(branchId, products)
+                        .flatMap(rows -> changeLog.productsNamed(branchId, names).thenReturn(rows)))
+                .thenMany(Flux.defer(() -> withInsertedIds(branchId, products)))
+                .onErrorResume(DuplicateKeyErrors::isDuplicateKey, ex -> Flux.fromIterable(products)
+                        .concatMap(product -> changeLog.recording(
+                                        repository.save(new ProductEntity(null, branchId, product.getName(), product.getStock()))
+                                                .map(this::toDomain),
+                                        saved -> changeLog.product(saved.getId(), branchId))
+                                .onErrorResume(DuplicateKeyErrors::isDuplicateKey, duplicate -> Mono.just(product))));
+    }
+
+    private Mono<Long> insertRows(Long branchId, List<Product> products) {
+        StringBuilder sql = new StringBuilder("INSERT INTO products (branch_id, name, stock) VALUES ");
+        for (int i = 0; i < products.size(); i++) {
+            sql.append(i == 0 ? "(" : ", (").append(":branchId, :name").append(i).append(", :stock").append(i).append(")");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("branchId", branchId);
+        for (int i = 0; i < products.size(); i++) {
+            spec = spec.bind("name" + i, products.get(i).getName())
+                    .bind("stock" + i, products.get(i).getStock());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private Flux<Product> withInsertedIds(Long branchId, List<Product> products) {
+        List<String> names = products.stream().map(Product::getName).toList();
+        return databaseClient.sql("SELECT id, name FROM products WHERE branch_id = :branchId AND name IN (:names)")
+                .bind("branchId", branchId)
+                .bind("names", names)
+                .map(row -> Map.entry(row.get("name", String.class), row.get("id", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMapIterable(ids -> products.stream()
+                        .map(product -> new Product(ids.get(product.getName()), branchId, product.getName(), product.getStock()))
+                        .toList());
+    }
+
+    private List<List<StockUpdate>> runsOfSameKind(List<Integer> order, List<StockUpdate> updates) {
+        List<List<StockUpdate>> runs = new ArrayList<>();
+        List<StockUpdate> run = new ArrayList<>();
+        for (Integer position : order) {
+            StockUpdate update = updates.get(position);
+            if (!run.isEmpty() && run.get(0).delta() != update.delta()) {
+                runs.add(run);
+                run = new ArrayList<>();
+            }
+            run.add(update);
+        }
+        if (!run.isEmpty()) {
+            runs.add(run);
+        }
+        return runs;
+    }
+
+    private Statement stockUpdateBatch(Connection connection, List<StockUpdate> run) {
+        boolean delta = run.get(0).delta();
+        Statement statement = connection.createStatement(delta ? ADD_OWNED_STOCK_SQL : SET_OWNED_STOCK_SQL);
+        for (int i = 0; i < run.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            StockUpdate update = run.get(i);
+            statement.bind(0, update.amount())
+                    .bind(1, update.productId())
+                    .bind(2, update.branchId())
+                    .bind(3, update.franchiseId());
+            if (delta) {
+                statement.bind(4, update.amount());
+            }
+        }
+        return statement;
+    }
+
+    private Statement stockBatch(Connection connection, Long branchId, List<ProductStockChange> chunk) {
+        Statement statement = connection.createStatement(SET_STOCK_SQL);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            ProductStockChange change = chunk.get(i);
+            statement.bind(0, change.stock())
+                    .bind(1, change.productId())
+                    .bind(2, branchId);
+        }
+        return statement;
     }
 }
 
@@ -0,0 +1,89 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.pool.PoolMetricsRecorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long callers waited for a pooled connection and how long opening a new one
+ * took, per pool. Both timers are registered when the pool is built.
+ */
+public final class MicrometerPoolMetricsRecorder implements PoolMetricsRecorder {
+
+    private final Timer acquired;
+    private final Timer acquireFailed;
+    private final Timer allocated;
+    private final Timer allocationFailed;
+
+    public MicrometerPoolMetricsRecorder(MeterRegistry registry, String pool) {
+        this.acquired = acquireTimer(registry, pool, "success");
+        this.acquireFailed = acquireTimer(registry, pool, "failure");
+        this.allocated = allocationTimer(registry, pool, "success");
+        this.allocationFailed = allocationTimer(registry, pool, "failure");
+    }
+
+    private static Timer acquireTimer(MeterRegistry registry, String pool, String outcome) {
+        return Timer.builder("franquicias.r2dbc.pool.acquire")
+                .description("Time spent waiting for a pooled connection")
+                .tags("pool", pool, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Timer allocationTimer(MeterRegistry registry, String pool, String outcome) {
+        return Timer.builder("franquicias.r2dbc.pool.allocation")
+                .description("Time spent opening a new connection")
+                .tags("pool", pool, "outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public void recordPendingSuccessAndLatency(long latencyMs) {
+        acquired.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordPendingFailureAndLatency(long latencyMs) {
+        acquireFailed.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordAllocationSuccessAndLatency(long latencyMs) {
+        allocated.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordAllocationFailureAndLatency(long latencyMs) {
+        allocationFailed.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordResetLatency(long latencyMs) {
+    }
+
+    @Override
+    public void recordDestroyLatency(long latencyMs) {
+    }
+
+    @Override
+    public void recordRecycled() {
+    }
+
+    @Override
+    public void recordLifetimeDuration(long millisecondsSinceAllocation) {
+    }
+
+    @Override
+    public void recordIdleTime(long millisecondsIdle) {
+    }
+
+    @Override
+    public void recordSlowPath() {
+    }
+
+    @Override
+    public void recordFastPath() {
+    }
+}
@@ -0,0 +1,48 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the primary's executed GTID set to issue consistency tokens and asks the replica
+ * whether it has applied a token. A token confirmed once is not checked again.
+ */
+public class ReplicaConsistency {
+
+    private static final Mono<Boolean> APPLIED = Mono.just(true);
+
+    private final DatabaseClient primary;
+    private final DatabaseClient replica;
+
+    public ReplicaConsistency(ConnectionFactory primary, ConnectionFactory replica) {
+        this.primary = DatabaseClient.create(primary);
+        this.replica = DatabaseClient.create(replica);
+    }
+
+    Mono<String> primaryToken() {
+        return primary.sql("SELECT @@GLOBAL.gtid_executed AS gtids")
+                .map(row -> row.get("gtids", String.class))
+                .one()
+                .map(gtids -> gtids.replace("\n", ""))
+                .filter(gtids -> !gtids.isEmpty());
+    }
+
+    Mono<Boolean> isAppliedOnReplica(ConsistencyToken token) {
+        if (token.isAppliedOnReplica()) {
+            return APPLIED;
+        }
+        return replica.sql("SELECT GTID_SUBSET(:gtids, @@GLOBAL.gtid_executed) AS applied")
+                .bind("gtids", token.gtidSet())
+                .map(row -> row.get("applied", Long.class))
+                .one()
+                .map(applied -> applied == 1L)
+                .doOnNext(applied -> {
+                    if (applied) {
+                        token.markAppliedOnReplica();
+                    }
+                })
+                .onErrorReturn(false);
+    }
+}
@@ -0,0 +1,73 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Picks the pool named by the {@link ConnectionRoute} in the Reactor context, falling back
+ * to the write pool, or always the write pool under {@link ConnectionRoute#primaryOnly()}.
+ * When the read pools point at a replica, a {@link ConsistencyToken} in the context keeps
+ * reads on the primary until the replica has applied it.
+ */
+public class RoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    private final Map<ConnectionRoute, ConnectionPool> pools;
+    private final ReplicaConsistency replicaConsistency;
+
+    public RoutingConnectionFactory(Map<ConnectionRoute, ConnectionPool> pools) {
+        this(pools, null);
+    }
+
+    public RoutingConnectionFactory(Map<ConnectionRoute, ConnectionPool> pools, ReplicaConsistency replicaConsistency) {
+        this.pools = pools;
+        this.replicaConsistency = replicaConsistency;
+        setTargetConnectionFactories(new HashMap<>(pools));
+        setDefaultTargetConnectionFactory(pools.get(ConnectionRoute.WRITE));
+        setLenientFallback(true);
+    }
+
+    public boolean hasReplica() {
+        return replicaConsistency != null;
+    }
+
+    /**
+     * GTID set executed on the primary, to hand back to the client after a write. Empty
+     * without a replica or when GTIDs are disabled.
+     */
+    public Mono<String> consistencyToken() {
+        return hasReplica() ? replicaConsistency.primaryToken() : Mono.empty();
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(this::lookupKey);
+    }
+
+    private Mono<Object> lookupKey(ContextView context) {
+        if (ConnectionRoute.isPrimaryOnly(context)) {
+            return Mono.just(ConnectionRoute.WRITE);
+        }
+        ConnectionRoute route = context.getOrDefault(ConnectionRoute.class, ConnectionRoute.WRITE);
+        if (route == ConnectionRoute.WRITE || !hasReplica() || !context.hasKey(ConsistencyToken.class)) {
+            return Mono.just(route);
+        }
+        return replicaConsistency.isAppliedOnReplica(context.get(ConsistencyToken.class))
+                .map(applied -> applied ? route : ConnectionRoute.WRITE);
+    }
+
+    @Override
+    public void destroy() {
+        Flux.fromIterable(pools.values())
+                .flatMap(ConnectionPool::disposeLater)
+                .blockLast();
+    }
+}
@@ -0,0 +1,197 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.r2dbc.connection.init.ScriptUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned scripts found in the configured locations that are not yet recorded in
+ * {@code schema_migrations}. A MySQL named lock held on the migrating connection makes tasks that
+ * start together wait for each other instead of running the same scripts twice.
+ */
+public class SchemaMigrations implements InitializingBean {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    static final String HISTORY_TABLE = "schema_migrations";
+    private static final String LOCK_NAME = "franquicias_schema_migrations";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+(?:[._]\\d+)*)__(.+)\\.sql");
+
+    private final ConnectionFactory connectionFactory;
+    private final SchemaMigrationProperties properties;
+
+    public SchemaMigrations(ConnectionFactory connectionFactory, SchemaMigrationProperties properties) {
+        this.connectionFactory = connectionFactory;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long start = System.nanoTime();
+        List<Migration> available = scan();
+        Integer applied = migrate(available).block();
+        log.info("Schema migrations applied {} of {} scripts in {} ms",
+                applied, available.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Emits how many scripts were applied by this call.
+     */
+    public Mono<Integer> migrate() {
+        return Mono.fromCallable(this::scan).flatMap(this::migrate);
+    }
+
+    private Mono<Integer> migrate(List<Migration> available) {
+        return Mono.usingWhen(
+                connectionFactory.create(),
+                connection -> lock(connection)
+                        .then(createHistoryTable(connection))
+                        .then(appliedChecksums(connection))
+                        .flatMap(applied -> applyPending(connection, available, applied)),
+                connection -> queryLong(connection, "SELECT RELEASE_LOCK('" + LOCK_NAME + "')")
+                        .onErrorResume(ex -> Mono.empty())
+                        .then(Mono.from(connection.close()))
+        );
+    }
+
+    private Mono<Void> lock(Connection connection) {
+        return queryLong(connection, "SELECT GET_LOCK('" + LOCK_NAME + "', " + properties.lockTimeout().toSeconds() + ")")
+                .filter(acquired -> acquired == 1L)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "Could not acquire schema migration lock within " + properties.lockTimeout())))
+                .then();
+    }
+
+    private Mono<Void> createHistoryTable(Connection connection) {
+        return execute(connection, "CREATE TABLE IF NOT EXISTS " + HISTORY_TABLE + " ("
+                + "version VARCHAR(50) PRIMARY KEY, "
+                + "description VARCHAR(200) NOT NULL, "
+                + "checksum BIGINT NOT NULL, "
+                + "execution_ms BIGINT NOT NULL, "
+                + "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+    }
+
+    private Mono<Map<String, Long>> appliedChecksums(Connection connection) {
+        return Flux.from(connection.createStatement("SELECT version, checksum FROM " + HISTORY_TABLE).execute())
+                .flatMap(result -> result.map((row, metadata) ->
+                        Map.entry(row.get("version", String.class), row.get("checksum", Long.class))))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new);
+    }
+
+    private Mono<Integer> applyPending(Connection connection, List<Migration> available, Map<String, Long> applied) {
+        return Flux.fromIterable(available)
+                .concatMap(migration -> {
+                    Long checksum = applied.get(migration.version());
+                    if (checksum == null) {
+                        return apply(connection, migration).thenReturn(1);
+                    }
+                    if (checksum != migration.checksum()) {
+                        return Mono.error(new IllegalStateException("Migration V" + migration.version()
+                                + " was modified after it was applied"));
+                    }
+                    return Mono.just(0);
+                })
+                .reduce(0, Integer::sum);
+    }
+
+    private Mono<Void> apply(Connection connection, Migration migration) {
+        return Mono.fromSupplier(System::nanoTime)
+                .flatMap(start -> ScriptUtils.executeSqlScript(connection,
+                                new EncodedResource(migration.resource(), StandardCharsets.UTF_8))
+                        .then(Mono.defer(() -> Flux.from(connection.createStatement("INSERT INTO " + HISTORY_TABLE
+                                        + " (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")
+                                .bind(0, migration.version())
+                                .bind(1, migration.description())
+                                .bind(2, migration.checksum())
+                                .bind(3, (System.nanoTime() - start) / 1_000_000)
+                                .execute())
+                                .flatMap(result -> result.getRowsUpdated())
+                                .then())))
+                .doOnSuccess(ignored -> log.info("Applied schema migration V{} {}", migration.version(), migration.description()));
+    }
+
+    private Mono<Void> execute(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(result -> result.getRowsUpdated())
+                .then();
+    }
+
+    private Mono<Long> queryLong(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(result -> result.map((row, metadata) -> Optional.ofNullable(row.get(0, Long.class))))
+                .next()
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    List<Migration> scan() {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<String, Migration> migrations = new HashMap<>();
+        for (String location : properties.locations()) {
+            try {
+                for (Resource resource : resolver.getResources(location + "/V*__*.sql")) {
+                    Migration migration = Migration.of(resource);
+                    Migration previous = migrations.put(migration.version(), migration);
+                    if (previous != null) {
+                        throw new IllegalStateException("Duplicate migration version V" + migration.version()
+                                + ": " + previous.resource().getFilename() + " and " + resource.getFilename());
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        List<Migration> sorted = new ArrayList<>(migrations.values());
+        sorted.sort(Comparator.comparing(Migration::order, Migration::compareVersions));
+        return sorted;
+    }
+
+    record Migration(String version, int[] order, String description, Resource resource, long checksum) {
+
+        static Migration of(Resource resource) throws IOException {
+            Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Invalid migration name " + resource.getFilename());
+            }
+            String version = matcher.group(1).replace('_', '.');
+            int[] order = Arrays.stream(version.split("\\.")).mapToInt(Integer::parseInt).toArray();
+            CRC32 crc = new CRC32();
+            try (InputStream in = resource.getInputStream()) {
+                crc.update(in.readAllBytes());
+            }
+            return new Migration(version, order, matcher.group(2).replace('_', ' '), resource, crc.getValue());
+        }
+
+        static int compareVersions(int[] left, int[] right) {
+            for (int i = 0; i < Math.max(left.length, right.length); i++) {
+                int diff = Integer.compare(i < left.length ? left[i] : 0, i < right.length ? right[i] : 0);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -10,8 +10,6 @@ import reactor.core.publisher.Mono;
 public interface BranchRepository extends ReactiveCrudRepository<BranchEntity, Long> {
     Mono<BranchEntity> findByIdAndFranchiseId(Long id, Long franchiseId);
 
-    Mono<BranchEntity> findByNameAndFranchiseId(String name, Long franchiseId);
-
     Flux<BranchEntity> findByFranchiseId(Long franchiseId);
 }
 
@@ -1,7 +1,9 @@
 package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
 
 import com.red.franquicias.application.usecase.product.BranchTopProductRow;
+import com.red.franquicias.application.usecase.product.ProductOwnershipRow;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.ProductEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
@@ -13,9 +15,7 @@ public interface ProductRepository extends ReactiveCrudRepository<ProductEntity,
 
     Mono<ProductEntity> findByIdAndBranchId(Long id, Long branchId);
 
-    Mono<ProductEntity> findByNameAndBranchId(String name, Long branchId);
-
-    @Query("SELECT * FROM products WHERE branch_id = :branchId ORDER BY stock DESC LIMIT 1")
+    @Query("SELECT id, branch_id, name, stock FROM products WHERE branch_id = :branchId ORDER BY stock DESC, id LIMIT 1")
     Mono<ProductEntity> findTopByBranchIdOrderByStockDesc(Long branchId);
 
     @Query("""
@@ -29,19 +29,108 @@ public interface ProductRepository extends ReactiveCrudRepository<ProductEntity,
               p.stock AS stock
             FROM franchises f
             JOIN branches b ON b.franchise_id = f.id
-            LEFT JOIN (
-              SELECT p1.*
-              FROM products p1
-              JOIN (
-                SELECT branch_id, MAX(stock) AS max_stock
-                FROM products
-                GROUP BY branch_id
-              ) mx ON mx.branch_id = p1.branch_id AND mx.max_stock = p1.stock
-            ) p ON p.branch_id = b.id
+            LEFT JOIN products p
+              ON p.branch_id = b.id
+             AND p.stock = (
+               SELECT MAX(p2.stock)
+               FROM products p2
+               WHERE p2.branch_id = b.id
+             )
             WHERE f.id = :franchiseId
             ORDER BY b.id
             """)
     Flux<BranchTopProductRow> findTopProductsByFranchiseId(Long franchiseId);
 
+    /**
+     * Up to {@code perBranch} products per branch, highest stock first and lowest id first among ties.
+     * The window reads each branch in idx_products_branch_stock_cover order, so it needs no sort of its own.
+     */
+    @Query("""
+            SELECT franchise_id, franchise_name, branch_id, branch_name, product_id, product_name, stock
+            FROM (
+              SELECT
+                f.id    AS franchise_id,
+                f.name  AS franchise_name,
+                b.id    AS branch_id,
+                b.name  AS branch_name,
+                p.id    AS product_id,
+                p.name  AS product_name,
+                p.stock AS stock,
+                ROW_NUMBER() OVER (PARTITION BY b.id ORDER BY p.stock DESC, p.id) AS position
+              FROM franchises f
+              JOIN branches b ON b.franchise_id = f.id
+              LEFT JOIN products p ON p.branch_id = b.id
+              WHERE f.id = :franchiseId
+            ) ranked
+            WHERE position <= :perBranch
+            ORDER BY branch_id, position
+            """)
+    Flux<BranchTopProductRow> findTopProductsPerBranch(Long franchiseId, Integer perBranch);
+
+    /**
+     * The {@code limit} highest-stock products of the whole franchise, lowest id first among ties. Each
+     * branch contributes at most {@code limit} candidates read in idx_products_branch_stock_cover order, and
+     * only those candidates are ordered, with a sort bounded by the same limit.
+     */
+    @Query("""
+            SELECT
+              f.id    AS franchise_id,
+              f.name  AS franchise_name,
+              b.id    AS branch_id,
+              b.name  AS branch_name,
+              t.id    AS product_id,
+              t.name  AS product_name,
+              t.stock AS stock
+            FROM franchises f
+            JOIN branches b ON b.franchise_id = f.id
+            CROSS JOIN LATERAL (
+              SELECT p.id, p.name, p.stock
+              FROM products p
+              WHERE p.branch_id = b.id
+              ORDER BY p.stock DESC, p.id
+              LIMIT :limit
+            ) t
+            WHERE f.id = :franchiseId
+            ORDER BY t.stock DESC, t.id
+            LIMIT :limit
+            """)
+    Flux<BranchTopProductRow> findTopProductsAcrossBranches(Long franchiseId, Integer limit);
+
+    @Query("""
+            SELECT
+              f.id    AS franchise_id,
+              b.id    AS branch_id,
+              p.id    AS product_id,
+              p.name  AS product_name,
+              p.stock AS stock
+            FROM franchises f
+            LEFT JOIN branches b ON b.id = :branchId AND b.franchise_id = f.id
+            LEFT JOIN products p ON p.id = :productId AND p.branch_id = b.id
+            WHERE f.id = :franchiseId
+            """)
+    Mono<ProductOwnershipRow> findOwnership(Long franchiseId, Long branchId, Long productId);
+
+    @Modifying
+    @Query("""
+            UPDATE products p
+            JOIN branches b ON b.id = p.branch_id
+            SET p.stock = :stock
+            WHERE p.id = :productId
+              AND p.branch_id = :branchId
+              AND b.franchise_id = :franchiseId
+            """)
+    Mono<Long> setStock(Long productId, Long branchId, Long franchiseId, Integer stock);
+
+    @Modifying
+    @Query("""
+            UPDATE products p
+            JOIN branches b ON b.id = p.branch_id
+            SET p.stock = p.stock + :delta
+            WHERE p.id = :productId
+              AND p.branch_id = :branchId
+              AND b.franchise_id = :franchiseId
+              AND p.stock + :delta >= 0
+            """)
+    Mono<Long> addStock(Long productId, Long branchId, Long franchiseId, Integer delta);
 
 }
@@ -0,0 +1,198 @@
+package com.red.franquicias.infrastructure.drivenadapter.writebehind;
+
+import com.red.franquicias.application.usecase.product.StockUpdate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of stock deltas, one file per segment named after the writer and the segment
+ * number. Each line holds {@code productId,branchId,franchiseId,delta}; a torn last line left by a
+ * crash is ignored on recovery. The directory is locked while the log is open, so a second process
+ * pointed at it fails instead of applying segments the first one still owns.
+ * <p>
+ * Appending, rotating and closing must all happen on one thread; {@link #force} and {@link #seal} may
+ * run on any other.
+ */
+final class StockWriteAheadLog implements Closeable {
+
+    private static final String SUFFIX = ".wal";
+    private static final String LOCK_FILE = "writer.lock";
+
+    private final Path directory;
+    private final String writer;
+    private final FileChannel lockChannel;
+    private final List<Segment> recovered;
+    private final Map<Long, FileChannel> rotated = new ConcurrentHashMap<>();
+    private long segment;
+    private volatile FileChannel channel;
+    private boolean written;
+
+    StockWriteAheadLog(Path directory, String writer) throws IOException {
+        this.directory = directory;
+        this.writer = writer;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (!tryLock(lockChannel)) {
+            lockChannel.close();
+            throw new IllegalStateException("Another process is using the stock write-ahead log in " + directory);
+        }
+        this.recovered = recover(directory);
+        open(1);
+    }
+
+    String writer() {
+        return writer;
+    }
+
+    /**
+     * Segments left in the directory by earlier writers, with the deltas of each product added up.
+     */
+    List<Segment> recovered() {
+        return recovered;
+    }
+
+    void append(StockUpdate delta) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((delta.productId() + "," + delta.branchId() + "," + delta.franchiseId()
+                + "," + delta.amount() + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        written = true;
+    }
+
+    /**
+     * Makes every append made before the call durable, including those in rotated segments not yet
+     * sealed. A segment sealed meanwhile was forced before it was closed.
+     */
+    void force() throws IOException {
+        for (FileChannel each : rotated.values()) {
+            force(each);
+        }
+        force(channel);
+    }
+
+    /**
+     * Starts the next segment and returns the number of the one it replaces, which stays open until
+     * {@link #seal sealed}, or {@code 0} if nothing was appended to the current one and it was kept.
+     */
+    long rotate() throws IOException {
+        if (!written) {
+            return 0;
+        }
+        long closed = segment;
+        rotated.put(closed, channel);
+        open(closed + 1);
+        return closed;
+    }
+
+    /**
+     * Makes the rotated segments durable and closes them.
+     */
+    void seal() throws IOException {
+        for (Map.Entry<Long, FileChannel> entry : rotated.entrySet()) {
+            entry.getValue().force(false);
+            entry.getValue().close();
+            rotated.remove(entry.getKey());
+        }
+    }
+
+    void delete(String segmentWriter, long segmentNumber) throws IOException {
+        Files.deleteIfExists(file(directory, segmentWriter, segmentNumber));
+    }
+
+    @Override
+    public void close() throws IOException {
+        seal();
+        channel.force(false);
+        channel.close();
+        if (!written) {
+            delete(writer, segment);
+        }
+        lockChannel.close();
+    }
+
+    private static List<Segment> recover(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                int separator = name.lastIndexOf('-');
+                segments.add(new Segment(name.substring(0, separator),
+                        Long.parseLong(name.substring(separator + 1, name.length() - SUFFIX.length())),
+                        deltas(Files.readString(file, StandardCharsets.US_ASCII))));
+            }
+        }
+        segments.sort(Comparator.comparing(Segment::writer).thenComparingLong(Segment::number));
+        return segments;
+    }
+
+    private static List<StockUpdate> deltas(String content) {
+        Map<Long, long[]> totals = new LinkedHashMap<>();
+        Map<Long, StockUpdate> owners = new LinkedHashMap<>();
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; start = end + 1, end = content.indexOf('\n', start)) {
+            String[] fields = content.substring(start, end).split(",");
+            if (fields.length != 4) {
+                break;
+            }
+            long productId = Long.parseLong(fields[0]);
+            owners.putIfAbsent(productId, StockUpdate.add(productId, Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]), 0));
+            totals.computeIfAbsent(productId, id -> new long[1])[0] += Long.parseLong(fields[3]);
+        }
+        List<StockUpdate> deltas = new ArrayList<>();
+        totals.forEach((productId, total) -> {
+            if (total[0] != 0) {
+                StockUpdate owner = owners.get(productId);
+                deltas.add(StockUpdate.add(productId, owner.branchId(), owner.franchiseId(), Math.toIntExact(total[0])));
+            }
+        });
+        return deltas;
+    }
+
+    private static void force(FileChannel channel) throws IOException {
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException ex) {
+            // Sealed meanwhile, which forces it first.
+        }
+    }
+
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException ex) {
+            return false;
+        }
+    }
+
+    private void open(long number) throws IOException {
+        segment = number;
+        written = false;
+        channel = FileChannel.open(file(directory, writer, number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path file(Path directory, String writer, long number) {
+        return directory.resolve(writer + "-" + String.format("%019d", number) + SUFFIX);
+    }
+
+    record Segment(String writer, long number, List<StockUpdate> deltas) {
+    }
+}
@@ -0,0 +1,325 @@
+package com.red.franquicias.infrastructure.drivenadapter.writebehind;
+
+import com.red.franquicias.application.concurrency.GroupCommit;
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Stock deltas held in memory, and in a {@link StockWriteAheadLog}, until a flush writes them to the
+ * database. Every flush closes the current log segment and applies it in one transaction through
+ * {@link ProductRepositoryPort#applyStockSegment}, which also records the segment, so one replayed
+ * after a crash is applied once. Segments are applied in order; one that fails is retried on the
+ * next flush, ahead of any newer one.
+ * <p>
+ * The pending deltas, the log and the segments are only changed on one dedicated writer thread, so
+ * nothing here takes a lock and no event-loop thread waits on one or on the disk. Syncing the log
+ * runs on a worker thread next to it.
+ * <p>
+ * {@code version} is odd while a segment is being applied. A database read merged with the deltas
+ * through {@link #atStableVersion} is retried unless no segment was applied while it ran, so it never
+ * misses a delta or counts one twice.
+ */
+class StockWriteBehind implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(StockWriteBehind.class);
+
+    private static final int MAX_SYNC_BATCH_SIZE = 1024;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ProductRepositoryPort target;
+    private final StockWriteAheadLog wal;
+    private final Duration flushInterval;
+    private final Scheduler writer = Schedulers.newSingle("stock-wal", true);
+    private final GroupCommit<Boolean, Boolean> syncs;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Deque<StockWriteAheadLog.Segment> segments = new ArrayDeque<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Sinks.Many<Sinks.Empty<Void>> flushRequests = Sinks.many().unicast().onBackpressureBuffer();
+    private final DistributionSummary flushSizes;
+    private final Counter dropped;
+
+    private volatile Sinks.Empty<Void> settled = Sinks.empty();
+    private Disposable flushes;
+
+    StockWriteBehind(
+            ProductRepositoryPort target,
+            Path walDirectory,
+            Duration flushInterval,
+            Duration walSyncWindow,
+            MeterRegistry registry
+    ) {
+        this.target = target;
+        this.flushInterval = flushInterval;
+        try {
+            this.wal = new StockWriteAheadLog(walDirectory, UUID.randomUUID().toString());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        for (StockWriteAheadLog.Segment segment : wal.recovered()) {
+            segments.add(segment);
+            segment.deltas().forEach(delta -> pending.computeIfAbsent(delta.productId(),
+                    id -> new Pending(delta.branchId(), delta.franchiseId())).unflushed += delta.amount());
+        }
+        if (!segments.isEmpty()) {
+            log.info("Recovered {} stock write-ahead segments from {}", segments.size(), walDirectory);
+        }
+        this.syncs = new GroupCommit<>("stock-wal", walSyncWindow, MAX_SYNC_BATCH_SIZE, this::sync, registry);
+        this.flushSizes = DistributionSummary.builder("franquicias.stock.write.behind.flush.size")
+                .description("Products whose stock deltas were written by each flush")
+                .register(registry);
+        this.dropped = Counter.builder("franquicias.stock.write.behind.dropped")
+                .description("Flushed stock deltas that changed no row because the product was removed or would go below zero")
+                .register(registry);
+        Gauge.builder("franquicias.stock.write.behind.pending", pending, Map::size)
+                .description("Products with stock deltas not yet written to the database")
+                .register(registry);
+        settled.tryEmitEmpty();
+    }
+
+    void start() {
+        flushes = Flux.merge(
+                        Flux.interval(flushInterval).onBackpressureDrop().map(tick -> Optional.<Sinks.Empty<Void>>empty()),
+                        flushRequests.asFlux().map(Optional::of))
+                .concatMap(request -> flushOnce()
+                        .doOnSuccess(done -> request.ifPresent(Sinks.Empty::tryEmitEmpty))
+                        .onErrorResume(ex -> {
+                            request.ifPresentOrElse(r -> r.tryEmitError(ex),
+                                    () -> log.warn("Could not flush stock deltas, retrying in {}", flushInterval, ex));
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Completes once every delta added before the call has been written to the database.
+     */
+    Mono<Void> flush() {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> done = Sinks.empty();
+            flushRequests.emitNext(done, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            return done.asMono();
+        });
+    }
+
+    /**
+     * Reads with {@code read} and, if no segment was applied meanwhile, passes the result to
+     * {@code merge} on the writer thread, where no segment can complete; otherwise reads again.
+     */
+    <T, R> Mono<R> atStableVersion(Mono<T> read, Function<T, R> merge) {
+        return Mono.defer(() -> {
+            long seen = version.get();
+            Sinks.Empty<Void> applying = settled;
+            if ((seen & 1) == 1) {
+                return applying.asMono().then(atStableVersion(read, merge));
+            }
+            return read.publishOn(writer).flatMap(value -> version.get() == seen
+                    ? Mono.justOrEmpty(merge.apply(value))
+                    : atStableVersion(read, merge));
+        });
+    }
+
+    /**
+     * Stock deltas of the product not yet in the database. Exact when called from the {@code merge} of
+     * {@link #atStableVersion}.
+     */
+    long unflushed(Long productId) {
+        Pending entry = pending.get(productId);
+        return entry == null ? 0 : entry.unflushed;
+    }
+
+    /**
+     * Logs and keeps the delta if the stock, {@code flushedStock} plus what is still pending, stays at
+     * zero or above, and returns that stock; returns {@code null} otherwise. Call from the {@code merge}
+     * of {@link #atStableVersion} and wait for {@link #sync} before reporting it applied.
+     */
+    Integer add(StockUpdate delta, int flushedStock) {
+        Pending entry = pending.computeIfAbsent(delta.productId(), id -> new Pending(delta.branchId(), delta.franchiseId()));
+        long stock = flushedStock + entry.unflushed + delta.amount();
+        if (stock < 0) {
+            return null;
+        }
+        if (stock > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Stock of product " + delta.productId() + " would exceed " + Integer.MAX_VALUE);
+        }
+        try {
+            wal.append(delta);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        entry.sinceRotation += delta.amount();
+        entry.unflushed += delta.amount();
+        return (int) stock;
+    }
+
+    /**
+     * Completes once everything logged so far is on disk.
+     */
+    Mono<Void> sync() {
+        return syncs.submit(true).then();
+    }
+
+    Mono<Void> discard(Long productId) {
+        return Mono.<Void>fromRunnable(() -> pending.remove(productId)).subscribeOn(writer);
+    }
+
+    @Override
+    public void close() {
+        if (flushes != null) {
+            flushes.dispose();
+        }
+        try {
+            flushOnce().block(CLOSE_TIMEOUT);
+        } catch (RuntimeException ex) {
+            log.warn("Could not flush stock deltas on shutdown; they are applied from the write-ahead log on the next start", ex);
+        }
+        try {
+            Mono.fromCallable(() -> {
+                wal.close();
+                return true;
+            }).subscribeOn(writer).block(CLOSE_TIMEOUT);
+        } catch (RuntimeException ex) {
+            log.warn("Could not close the stock write-ahead log", ex);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Flux<Boolean> sync(List<Boolean> requests) {
+        return Mono.fromCallable(() -> {
+                    wal.force();
+                    return requests;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(Function.identity());
+    }
+
+    private Mono<Void> flushOnce() {
+        return Mono.fromCallable(this::rotate)
+                .subscribeOn(writer)
+                .flatMap(toApply -> Mono.fromCallable(() -> {
+                            wal.seal();
+                            return toApply;
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::apply)
+                .then();
+    }
+
+    /**
+     * Closes the current segment, if anything was logged to it, and returns every segment still to
+     * be applied. Runs on the writer thread.
+     */
+    private List<StockWriteAheadLog.Segment> rotate() throws IOException {
+        long closed = wal.rotate();
+        if (closed != 0) {
+            List<StockUpdate> deltas = new ArrayList<>();
+            for (Iterator<Map.Entry<Long, Pending>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Pending> entry = it.next();
+                Pending value = entry.getValue();
+                if (value.sinceRotation != 0) {
+                    deltas.add(StockUpdate.add(entry.getKey(), value.branchId, value.franchiseId,
+                            Math.toIntExact(value.sinceRotation)));
+                    value.sinceRotation = 0;
+                } else if (value.unflushed == 0) {
+                    it.remove();
+                }
+            }
+            segments.add(new StockWriteAheadLog.Segment(wal.writer(), closed, deltas));
+        }
+        return List.copyOf(segments);
+    }
+
+    private Mono<Void> apply(StockWriteAheadLog.Segment segment) {
+        return Mono.defer(() -> {
+            if (segment.deltas().isEmpty()) {
+                applied(segment, List.of());
+                return Mono.<Void>empty();
+            }
+            Sinks.Empty<Void> applying = Sinks.empty();
+            settled = applying;
+            version.incrementAndGet();
+            return target.applyStockSegment(segment.writer(), segment.number(), segment.deltas())
+                    .collectList()
+                    .publishOn(writer)
+                    .doOnNext(rows -> applied(segment, rows))
+                    .doFinally(signal -> {
+                        version.incrementAndGet();
+                        applying.tryEmitEmpty();
+                    })
+                    .then();
+        }).subscribeOn(writer);
+    }
+
+    /**
+     * {@code rows} is empty when the segment had already been applied, by this process before a lost
+     * acknowledgement or by a previous one. Runs on the writer thread.
+     */
+    private void applied(StockWriteAheadLog.Segment segment, List<Long> rows) {
+        for (StockUpdate delta : segment.deltas()) {
+            Pending entry = pending.get(delta.productId());
+            if (entry != null) {
+                entry.unflushed -= delta.amount();
+                if (entry.unflushed == 0 && entry.sinceRotation == 0) {
+                    pending.remove(delta.productId());
+                }
+            }
+        }
+        segments.remove(segment);
+        flushSizes.record(segment.deltas().size());
+        long unchanged = rows.stream().filter(changed -> changed == 0).count();
+        if (unchanged > 0) {
+            dropped.increment(unchanged);
+            log.warn("{} stock deltas of write-ahead segment {} changed no row", unchanged, segment.number());
+        }
+        try {
+            wal.delete(segment.writer(), segment.number());
+        } catch (IOException ex) {
+            log.warn("Could not delete applied stock write-ahead segment {}", segment.number(), ex);
+        }
+    }
+
+    /**
+     * Only written on the writer thread; volatile so merges of listings, which read without it, see
+     * recent values.
+     */
+    private static final class Pending {
+        private final Long branchId;
+        private final Long franchiseId;
+        private volatile long sinceRotation;
+        private volatile long unflushed;
+
+        private Pending(Long branchId, Long franchiseId) {
+            this.branchId = branchId;
+            this.franchiseId = franchiseId;
+        }
+    }
+}
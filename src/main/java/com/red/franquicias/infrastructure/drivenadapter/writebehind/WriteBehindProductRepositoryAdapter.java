@@ -0,0 +1,189 @@
+package com.red.franquicias.infrastructure.drivenadapter.writebehind;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.application.usecase.product.BranchTopProductRow;
+import com.red.franquicias.application.usecase.product.ProductOwnershipRow;
+import com.red.franquicias.application.usecase.product.ProductStockChange;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import com.red.franquicias.infrastructure.config.R2dbcReplicaProperties;
+import com.red.franquicias.infrastructure.config.StockWriteBehindProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ProductRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps stock deltas in a {@link StockWriteBehind} and writes them to the database every flush
+ * interval, so a hot product takes one row update per flush instead of one per request. A delta is
+ * acknowledged once it is synced to the local write-ahead log; deltas left there by a crash are
+ * applied on the next start.
+ * <p>
+ * Reads of a single product add the pending deltas to the stored stock exactly. Listings and
+ * rankings add them to the rows the database returns, but rank by the stock flushed so far. Setting
+ * stock and saving an existing product flush first, as both write the whole stock value, which must
+ * neither be overtaken by older deltas nor count them again. Other instances see deltas once they
+ * are flushed.
+ * <p>
+ * Only one instance may write to the database: deltas are checked against the stock this instance
+ * has flushed plus its own pending ones, so another writer could take the stock below zero or have
+ * an acknowledged delta applied over its write. Starting it with the change log, which exists for
+ * several writing instances, or with a replica fails.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "franquicias.stock-write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindProductRepositoryAdapter implements ProductRepositoryPort, SmartInitializingSingleton, DisposableBean {
+
+    private final ProductRepositoryAdapter delegate;
+    private final StockWriteBehind writeBehind;
+
+    public WriteBehindProductRepositoryAdapter(
+            ProductRepositoryAdapter delegate,
+            StockWriteBehindProperties properties,
+            R2dbcReplicaProperties replicaProperties,
+            ChangeLogProperties changeLogProperties,
+            MeterRegistry meterRegistry
+    ) {
+        if (replicaProperties.isConfigured()) {
+            throw new IllegalStateException("franquicias.stock-write-behind needs product reads on the primary;"
+                    + " it cannot be enabled together with franquicias.r2dbc.replica.url");
+        }
+        if (changeLogProperties.enabled()) {
+            throw new IllegalStateException("franquicias.stock-write-behind needs a single writing instance;"
+                    + " it cannot be enabled together with franquicias.change-log.enabled");
+        }
+        this.delegate = delegate;
+        this.writeBehind = new StockWriteBehind(delegate, Path.of(properties.walDirectory()),
+                properties.flushInterval(), properties.walSyncWindow(), meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        writeBehind.start();
+    }
+
+    @Override
+    public void destroy() {
+        writeBehind.close();
+    }
+
+    @Override
+    public Mono<Product> addStock(Long productId, Long branchId, Long franchiseId, Integer delta) {
+        StockUpdate update = StockUpdate.add(productId, branchId, franchiseId, delta);
+        return writeBehind.atStableVersion(delegate.findOwnership(franchiseId, branchId, productId),
+                        row -> row.product_id() == null ? null : added(update, row))
+                .flatMap(product -> writeBehind.sync().thenReturn(product));
+    }
+
+    @Override
+    public Mono<Product> setStock(Long productId, Long branchId, Long franchiseId, Integer stock) {
+        return writeBehind.flush()
+                .then(Mono.defer(() -> delegate.setStock(productId, branchId, franchiseId, stock)))
+                .map(this::merged);
+    }
+
+    @Override
+    public Flux<Long> setStocks(Long branchId, List<ProductStockChange> changes) {
+        return writeBehind.flush().thenMany(Flux.defer(() -> delegate.setStocks(branchId, changes)));
+    }
+
+    @Override
+    public Mono<Product> findById(Long id) {
+        return writeBehind.atStableVersion(delegate.findById(id), this::merged);
+    }
+
+    @Override
+    public Mono<Product> findByIdAndBranchId(Long id, Long branchId) {
+        return writeBehind.atStableVersion(delegate.findByIdAndBranchId(id, branchId), this::merged);
+    }
+
+    @Override
+    public Mono<ProductOwnershipRow> findOwnership(Long franchiseId, Long branchId, Long productId) {
+        return writeBehind.atStableVersion(delegate.findOwnership(franchiseId, branchId, productId),
+                row -> row.product_id() == null ? row : new ProductOwnershipRow(row.franchise_id(), row.branch_id(),
+                        row.product_id(), row.product_name(), stock(row.product_id(), row.stock())));
+    }
+
+    @Override
+    public Mono<Product> findTopByBranchIdOrderByStockDesc(Long branchId) {
+        return delegate.findTopByBranchIdOrderByStockDesc(branchId).map(this::merged);
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsByFranchiseId(Long franchiseId) {
+        return delegate.findTopProductsByFranchiseId(franchiseId).map(this::merged);
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsPerBranch(Long franchiseId, Integer perBranch) {
+        return delegate.findTopProductsPerBranch(franchiseId, perBranch).map(this::merged);
+    }
+
+    @Override
+    public Flux<BranchTopProductRow> findTopProductsAcrossBranches(Long franchiseId, Integer limit) {
+        return delegate.findTopProductsAcrossBranches(franchiseId, limit).map(this::merged);
+    }
+
+    @Override
+    public Flux<Product> findAll() {
+        return delegate.findAll().map(this::merged);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return delegate.deleteById(id).then(Mono.defer(() -> writeBehind.discard(id)));
+    }
+
+    @Override
+    public Mono<Product> save(Product product) {
+        Mono<Void> flushed = product.getId() == null ? Mono.empty() : writeBehind.flush();
+        return flushed.then(Mono.defer(() -> delegate.save(product))).map(this::merged);
+    }
+
+    @Override
+    public Flux<Optional<Product>> applyStockUpdates(List<StockUpdate> updates) {
+        return delegate.applyStockUpdates(updates);
+    }
+
+    @Override
+    public Flux<Long> applyStockSegment(String writer, long segment, List<StockUpdate> updates) {
+        return delegate.applyStockSegment(writer, segment, updates);
+    }
+
+    @Override
+    public Flux<Product> insertAll(Long branchId, List<Product> products) {
+        return delegate.insertAll(branchId, products);
+    }
+
+    private Product added(StockUpdate update, ProductOwnershipRow row) {
+        Integer stock = writeBehind.add(update, row.stock());
+        return stock == null ? null : new Product(row.product_id(), row.branch_id(), row.product_name(), stock);
+    }
+
+    private Product merged(Product product) {
+        return new Product(product.getId(), product.getBranchId(), product.getName(),
+                stock(product.getId(), product.getStock()));
+    }
+
+    private BranchTopProductRow merged(BranchTopProductRow row) {
+        return row.product_id() == null ? row : new BranchTopProductRow(row.franchise_id(), row.franchise_name(),
+                row.branch_id(), row.branch_name(), row.product_id(), row.product_name(),
+                stock(row.product_id(), row.stock()));
+    }
+
+    private Integer stock(Long productId, Integer flushedStock) {
+        long unflushed = writeBehind.unflushed(productId);
+        return unflushed == 0 || flushedStock == null ? flushedStock : Math.toIntExact(flushedStock + unflushed);
+    }
+}
@@ -0,0 +1,10 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+import java.util.List;
+
+public record BranchTopProductsResponse(
+        Long branchId,
+        String branchName,
+        List<ProductInfoResponse> products
+) {
+}
@@ -0,0 +1,11 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+public record ProductImportResponse(
+        long line,
+        Long id,
+        String name,
+        Integer stock,
+        String status,
+        String message
+) {
+}
@@ -0,0 +1,13 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductStockBatchRequest(
+        @NotNull(message = "Stock changes are required")
+        @Size(min = 1, max = 5000, message = "Stock changes must contain between 1 and 5000 items")
+        List<ProductStockItemRequest> items
+) {
+}
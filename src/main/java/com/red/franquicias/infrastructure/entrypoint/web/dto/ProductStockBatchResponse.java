@@ -0,0 +1,10 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+import java.util.List;
+
+public record ProductStockBatchResponse(
+        Long branchId,
+        long updated,
+        List<ProductStockItemResponse> results
+) {
+}
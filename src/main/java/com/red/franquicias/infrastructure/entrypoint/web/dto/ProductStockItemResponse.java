@@ -0,0 +1,8 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+public record ProductStockItemResponse(
+        Long productId,
+        Integer stock,
+        String status
+) {
+}
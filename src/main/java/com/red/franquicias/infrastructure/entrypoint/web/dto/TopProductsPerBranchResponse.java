@@ -0,0 +1,11 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+import java.util.List;
+
+public record TopProductsPerBranchResponse(
+        Long franchiseId,
+        String franchiseName,
+        Integer perBranch,
+        List<BranchTopProductsResponse> results
+) {
+}
@@ -0,0 +1,10 @@
+package com.red.franquicias.infrastructure.entrypoint.web.dto;
+
+public record TopStockIndexConsistencyResponse(
+        Long franchiseId,
+        boolean indexReady,
+        boolean consistent,
+        TopProductsResponse index,
+        TopProductsResponse database
+) {
+}
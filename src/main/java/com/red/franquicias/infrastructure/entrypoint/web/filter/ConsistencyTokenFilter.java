@@ -0,0 +1,63 @@
+package com.red.franquicias.infrastructure.entrypoint.web.filter;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection.RoutingConnectionFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Runs write requests wholly on the primary, so the checks and read-backs they make see their
+ * own writes and those of earlier requests, and adds the primary's GTID set to their successful
+ * responses. Puts the token a client sends back with a read into the Reactor context, where
+ * {@link RoutingConnectionFactory} reads it. Does nothing unless a replica is configured.
+ */
+@Component
+public class ConsistencyTokenFilter implements WebFilter {
+
+    private final RoutingConnectionFactory routingConnectionFactory;
+
+    public ConsistencyTokenFilter(RoutingConnectionFactory routingConnectionFactory) {
+        this.routingConnectionFactory = routingConnectionFactory;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!routingConnectionFactory.hasReplica()) {
+            return chain.filter(exchange);
+        }
+
+        if (isWrite(exchange.getRequest().getMethod())) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> isSuccessful(response.getStatusCode())
+                    ? routingConnectionFactory.consistencyToken()
+                            .doOnNext(token -> response.getHeaders().set(ConsistencyToken.HEADER, token))
+                            .then()
+                    : Mono.empty());
+            return chain.filter(exchange).contextWrite(ConnectionRoute.primaryOnly());
+        }
+
+        String token = exchange.getRequest().getHeaders().getFirst(ConsistencyToken.HEADER);
+        if (token == null || token.isBlank()) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(Context.of(ConsistencyToken.class, new ConsistencyToken(token)));
+    }
+
+    private boolean isWrite(HttpMethod method) {
+        return method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+    }
+
+    private boolean isSuccessful(HttpStatusCode status) {
+        return status == null || status.is2xxSuccessful();
+    }
+}
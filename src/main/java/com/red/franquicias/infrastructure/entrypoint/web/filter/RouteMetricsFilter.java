@@ -0,0 +1,56 @@
+package com.red.franquicias.infrastructure.entrypoint.web.filter;
+
+import com.red.franquicias.infrastructure.metrics.CallMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every exchange served by a router function, until its response body has been written, and
+ * counts the exchanges that fail, also while streaming the body. Tagged by HTTP method and matched
+ * route pattern; meters are created the first time a route is hit and reused afterwards.
+ */
+@Component
+public class RouteMetricsFilter implements WebFilter {
+
+    static final String METRIC = "franquicias.route";
+
+    private final MeterRegistry registry;
+    private final Map<PathPattern, Map<HttpMethod, CallMeters>> meters = new ConcurrentHashMap<>();
+
+    public RouteMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doOnEach(signal -> {
+            if ((signal.isOnComplete() || signal.isOnError())
+                    && exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE) instanceof PathPattern route) {
+                metersFor(route, exchange.getRequest().getMethod()).record(start, signal.isOnError());
+            }
+        });
+    }
+
+    private CallMeters metersFor(PathPattern route, HttpMethod method) {
+        Map<HttpMethod, CallMeters> byMethod = meters.get(route);
+        CallMeters callMeters = byMethod == null ? null : byMethod.get(method);
+        if (callMeters != null) {
+            return callMeters;
+        }
+        return meters.computeIfAbsent(route, r -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> CallMeters.register(registry, METRIC,
+                        Tags.of("method", m.name(), "route", route.getPatternString())));
+    }
+}
@@ -1,14 +1,29 @@
 package com.red.franquicias.infrastructure.entrypoint.web.handler;
 
 import com.red.franquicias.application.usecase.product.CreateProductUseCase;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.GetGlobalTopProductsUseCase;
 import com.red.franquicias.application.usecase.product.GetTopProductsByFranchiseUseCase;
+import com.red.franquicias.application.usecase.product.GetTopProductsPerBranchUseCase;
+import com.red.franquicias.application.usecase.product.ImportProductsUseCase;
 import com.red.franquicias.application.usecase.product.RemoveProductUseCase;
 import com.red.franquicias.application.usecase.product.UpdateProductNameUseCase;
+import com.red.franquicias.application.usecase.product.UpdateProductStockBatchUseCase;
 import com.red.franquicias.application.usecase.product.UpdateProductStockUseCase;
+import com.red.franquicias.application.usecase.product.VerifyTopStockIndexUseCase;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.ConditionalGetProperties;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.BranchTopProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductImportResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockBatchRequest;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockBatchResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsPerBranchResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopStockIndexConsistencyResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.UpdateProductNameRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.UpdateProductStockRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.mapper.ProductMapper;
@@ -22,23 +37,40 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Component
 @Tag(name = "Products", description = "API for product management")
 public class ProductHandler {
     private final CreateProductUseCase createProductUseCase;
+    private final ImportProductsUseCase importProductsUseCase;
     private final UpdateProductNameUseCase updateProductNameUseCase;
     private final UpdateProductStockUseCase updateProductStockUseCase;
+    private final UpdateProductStockBatchUseCase updateProductStockBatchUseCase;
     private final RemoveProductUseCase removeProductUseCase;
     private final GetTopProductsByFranchiseUseCase getTopProductsByFranchiseUseCase;
+    private final GetTopProductsPerBranchUseCase getTopProductsPerBranchUseCase;
+    private final GetGlobalTopProductsUseCase getGlobalTopProductsUseCase;
+    private final VerifyTopStockIndexUseCase verifyTopStockIndexUseCase;
+    private final FranchiseVersions franchiseVersions;
+    private final ConditionalGetProperties conditionalGetProperties;
+    private final TopProductsResponseCache topProductsResponseCache;
 
-    public ProductHandler(CreateProductUseCase createProductUseCase, UpdateProductNameUseCase updateProductNameUseCase, UpdateProductStockUseCase updateProductStockUseCase, RemoveProductUseCase removeProductUseCase, GetTopProductsByFranchiseUseCase getTopProductsByFranchiseUseCase) {
+    public ProductHandler(CreateProductUseCase createProductUseCase, ImportProductsUseCase importProductsUseCase, UpdateProductNameUseCase updateProductNameUseCase, UpdateProductStockUseCase updateProductStockUseCase, UpdateProductStockBatchUseCase updateProductStockBatchUseCase, RemoveProductUseCase removeProductUseCase, GetTopProductsByFranchiseUseCase getTopProductsByFranchiseUseCase, GetTopProductsPerBranchUseCase getTopProductsPerBranchUseCase, GetGlobalTopProductsUseCase getGlobalTopProductsUseCase, VerifyTopStockIndexUseCase verifyTopStockIndexUseCase, FranchiseVersions franchiseVersions, ConditionalGetProperties conditionalGetProperties, TopProductsResponseCache topProductsResponseCache) {
         this.createProductUseCase = createProductUseCase;
+        this.importProductsUseCase = importProductsUseCase;
         this.updateProductNameUseCase = updateProductNameUseCase;
         this.updateProductStockUseCase = updateProductStockUseCase;
+        this.updateProductStockBatchUseCase = updateProductStockBatchUseCase;
         this.removeProductUseCase = removeProductUseCase;
         this.getTopProductsByFranchiseUseCase = getTopProductsByFranchiseUseCase;
+        this.getTopProductsPerBranchUseCase = getTopProductsPerBranchUseCase;
+        this.getGlobalTopProductsUseCase = getGlobalTopProductsUseCase;
+        this.verifyTopStockIndexUseCase = verifyTopStockIndexUseCase;
+        this.franchiseVersions = franchiseVersions;
+        this.conditionalGetProperties = conditionalGetProperties;
+        this.topProductsResponseCache = topProductsResponseCache;
     }
 
     @Operation(summary = "Create product", description = "Creates a new product in a branch")
@@ -62,6 +94,20 @@ public class ProductHandler {
                 });
     }
 
+    @Operation(summary = "Import products", description = "Creates products in a branch from an NDJSON stream, one product per line, and streams back one result per line")
+    @ApiResponse(responseCode = "200", description = "Per-line import results as NDJSON", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ProductImportResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Franchise or branch not found")
+    public Mono<ServerResponse> importProducts(ServerRequest request) {
+        Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
+        Long branchId = Long.parseLong(request.pathVariable("branchId"));
+        Flux<Product> products = request.bodyToFlux(ProductRequest.class)
+                .map(productRequest -> ProductMapper.toDomain(productRequest, branchId));
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(importProductsUseCase.importProducts(franchiseId, branchId, products)
+                        .map(ProductMapper::toImportResponse), ProductImportResponse.class);
+    }
+
     @Operation(summary = "Update product name", description = "Updates the name of an existing product")
     @ApiResponse(responseCode = "200", description = "Name updated successfully", content = @Content(schema = @Schema(implementation = ProductResponse.class)))
     @ApiResponse(responseCode = "400", description = "Validation error")
@@ -81,16 +127,25 @@ public class ProductHandler {
                 });
     }
 
-    @Operation(summary = "Update product stock", description = "Updates the stock of an existing product")
+    @Operation(summary = "Update product stock", description = "Sets the stock of an existing product, or adds a signed delta to it atomically")
     @ApiResponse(responseCode = "200", description = "Stock updated successfully", content = @Content(schema = @Schema(implementation = ProductResponse.class)))
     @ApiResponse(responseCode = "400", description = "Validation error")
     @ApiResponse(responseCode = "404", description = "Franchise, branch or product not found")
+    @ApiResponse(responseCode = "409", description = "Delta would leave the stock negative")
     public Mono<ServerResponse> updateStock(ServerRequest request) {
         Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
         Long branchId = Long.parseLong(request.pathVariable("branchId"));
         Long productId = Long.parseLong(request.pathVariable("productId"));
         return request.bodyToMono(UpdateProductStockRequest.class)
-                .flatMap(updateRequest -> updateProductStockUseCase.updateStock(productId, branchId, franchiseId, updateRequest.stock()))
+                .flatMap(updateRequest -> {
+                    if (updateRequest.delta() == null) {
+                        return updateProductStockUseCase.updateStock(productId, branchId, franchiseId, updateRequest.stock());
+                    }
+                    if (updateRequest.stock() != null) {
+                        return Mono.error(BusinessException.of(TechnicalMessage.PRODUCT_STOCK_UPDATE_INVALID));
+                    }
+                    return updateProductStockUseCase.adjustStock(productId, branchId, franchiseId, updateRequest.delta());
+                })
                 .flatMap(product -> {
                     var response = ProductMapper.toResponse(product);
                     return ServerResponse.ok()
@@ -99,6 +154,23 @@ public class ProductHandler {
                 });
     }
 
+    @Operation(summary = "Update product stock in batch", description = "Sets the stock of many products of a branch, validating the franchise and branch once")
+    @ApiResponse(responseCode = "200", description = "Per-item results", content = @Content(schema = @Schema(implementation = ProductStockBatchResponse.class)))
+    @ApiResponse(responseCode = "400", description = "Validation error")
+    @ApiResponse(responseCode = "404", description = "Franchise or branch not found")
+    public Mono<ServerResponse> updateStocks(ServerRequest request) {
+        Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
+        Long branchId = Long.parseLong(request.pathVariable("branchId"));
+        return request.bodyToMono(ProductStockBatchRequest.class)
+                .flatMap(batchRequest -> updateProductStockBatchUseCase.updateStocks(franchiseId, branchId, ProductMapper.toStockChanges(batchRequest)))
+                .flatMap(results -> {
+                    var response = ProductMapper.toStockBatchResponse(branchId, results);
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(response);
+                });
+    }
+
     @Operation(summary = "Delete product", description = "Deletes a product from a branch")
     @ApiResponse(responseCode = "204", description = "Product deleted successfully")
     @ApiResponse(responseCode = "404", description = "Franchise, branch or product not found")
@@ -112,14 +184,95 @@ public class ProductHandler {
 
     @Operation(summary = "Get top products by branch", description = "Gets the product with the highest stock for each branch of a franchise")
     @ApiResponse(responseCode = "200", description = "Top products list retrieved successfully", content = @Content(schema = @Schema(implementation = TopProductsResponse.class)))
+    @ApiResponse(responseCode = "304", description = "Unchanged since the version in If-None-Match (when conditional GETs are enabled)")
     @ApiResponse(responseCode = "404", description = "Franchise not found")
     public Mono<ServerResponse> getTopProducts(ServerRequest request) {
         Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
-        return getTopProductsByFranchiseUseCase.getTopProducts(franchiseId)
-                .map(ProductMapper::toTopProductsResponse)
+        if (!conditionalGetProperties.enabled()) {
+            return topProducts(franchiseId, ServerResponse.ok());
+        }
+        String etag = franchiseVersions.etag(franchiseId);
+        return request.checkNotModified(etag)
+                .switchIfEmpty(Mono.defer(() -> topProducts(franchiseId, ServerResponse.ok().eTag(etag))));
+    }
+
+    private Mono<ServerResponse> topProducts(Long franchiseId, ServerResponse.BodyBuilder ok) {
+        ok.contentType(MediaType.APPLICATION_JSON);
+        if (!topProductsResponseCache.isEnabled()) {
+            return getTopProductsByFranchiseUseCase.getTopProducts(franchiseId)
+                    .map(ProductMapper::toTopProductsResponse)
+                    .flatMap(ok::bodyValue);
+        }
+        return topProductsResponseCache.get(franchiseId, () -> getTopProductsByFranchiseUseCase.getTopProducts(franchiseId)
+                        .map(ProductMapper::toTopProductsResponse))
+                .flatMap(json -> ok.body((response, context) ->
+                        response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(json)))));
+    }
+
+    @Operation(summary = "Get top N products per branch", description = "Gets up to perBranch products with the highest stock for each branch of a franchise, ties broken by lowest product id")
+    @ApiResponse(responseCode = "200", description = "Top products per branch retrieved successfully", content = @Content(schema = @Schema(implementation = TopProductsPerBranchResponse.class)))
+    @ApiResponse(responseCode = "400", description = "perBranch out of range")
+    @ApiResponse(responseCode = "404", description = "Franchise not found")
+    public Mono<ServerResponse> getTopProductsPerBranch(ServerRequest request) {
+        Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
+        return intQueryParam(request, "perBranch", 1, GetTopProductsPerBranchUseCase.MAX_PER_BRANCH,
+                TechnicalMessage.TOP_PRODUCTS_PER_BRANCH_INVALID)
+                .flatMap(perBranch -> getTopProductsPerBranchUseCase.getTopProducts(franchiseId, perBranch)
+                        .map(result -> ProductMapper.toTopProductsPerBranchResponse(result, perBranch)))
                 .flatMap(response -> ServerResponse.ok()
                         .contentType(MediaType.APPLICATION_JSON)
                         .bodyValue(response));
     }
-}
 
+    @Operation(summary = "Get top products across branches", description = "Streams the limit products with the highest stock across every branch of a franchise as NDJSON, highest first, ties broken by lowest product id")
+    @ApiResponse(responseCode = "200", description = "Top products as NDJSON", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BranchTopProductResponse.class)))
+    @ApiResponse(responseCode = "400", description = "limit out of range")
+    @ApiResponse(responseCode = "404", description = "Franchise not found")
+    public Mono<ServerResponse> getGlobalTopProducts(ServerRequest request) {
+        Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
+        return intQueryParam(request, "limit", 10, GetGlobalTopProductsUseCase.MAX_LIMIT,
+                TechnicalMessage.TOP_PRODUCTS_LIMIT_INVALID)
+                .flatMap(limit -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(getGlobalTopProductsUseCase.getTopProducts(franchiseId, limit)
+                                .map(ProductMapper::toBranchTopProductResponse), BranchTopProductResponse.class));
+    }
+
+    @Operation(summary = "Stream top products by branch", description = "Streams the product with the highest stock for each branch of a franchise as NDJSON, one branch per line, as rows are read")
+    @ApiResponse(responseCode = "200", description = "Top product per branch as NDJSON", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BranchTopProductResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Franchise not found")
+    public Mono<ServerResponse> streamTopProducts(ServerRequest request) {
+        Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(getTopProductsByFranchiseUseCase.streamTopProducts(franchiseId)
+                        .map(ProductMapper::toBranchTopProductResponse), BranchTopProductResponse.class);
+    }
+
+    @Operation(summary = "Verify top products index", description = "Compares the in-memory top stock index against the SQL answer for a franchise")
+    @ApiResponse(responseCode = "200", description = "Consistency report", content = @Content(schema = @Schema(implementation = TopStockIndexConsistencyResponse.class)))
+    public Mono<ServerResponse> verifyTopProductsIndex(ServerRequest request) {
+        Long franchiseId = Long.parseLong(request.pathVariable("franchiseId"));
+        return verifyTopStockIndexUseCase.verify(franchiseId)
+                .map(ProductMapper::toConsistencyResponse)
+                .flatMap(response -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(response));
+    }
+
+    private Mono<Integer> intQueryParam(ServerRequest request, String name, int defaultValue, int max, TechnicalMessage invalid) {
+        String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return Mono.just(defaultValue);
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 1 && parsed <= max) {
+                return Mono.just(parsed);
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below as the same 400 as an out-of-range value
+        }
+        return Mono.error(BusinessException.of(invalid));
+    }
+}
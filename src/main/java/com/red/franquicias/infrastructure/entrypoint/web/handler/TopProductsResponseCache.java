@@ -0,0 +1,86 @@
+package com.red.franquicias.infrastructure.entrypoint.web.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.infrastructure.config.TopProductsResponseCacheProperties;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * UTF-8 JSON of the top-products response per franchise, valid while the franchise version it
+ * was built under is still current. Writes invalidate entries by bumping the version; the
+ * version is read before loading, so a write racing a load leaves an entry that is never served.
+ * At most {@code maxEntries} franchises are kept; past that the least valuable entries are evicted.
+ */
+@Component
+public class TopProductsResponseCache {
+
+    static final String METRIC = "franquicias.top.products.response.cache";
+
+    private final FranchiseVersions franchiseVersions;
+    private final ObjectMapper objectMapper;
+    private final TopProductsResponseCacheProperties properties;
+    private final Cache<Long, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TopProductsResponseCache(
+            FranchiseVersions franchiseVersions,
+            ObjectMapper objectMapper,
+            TopProductsResponseCacheProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.franchiseVersions = franchiseVersions;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .build();
+        this.hits = Counter.builder(METRIC).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder(METRIC).tag("result", "miss").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public Mono<byte[]> get(Long franchiseId, Supplier<Mono<TopProductsResponse>> loader) {
+        long version = franchiseVersions.current(franchiseId);
+        Entry entry = entries.getIfPresent(franchiseId);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+            return entry.json();
+        }
+        misses.increment();
+        return loader.get().map(response -> {
+            byte[] json = serialize(response);
+            entries.asMap().merge(franchiseId, new Entry(version, Mono.just(json)),
+                    (current, loaded) -> loaded.version() >= current.version() ? loaded : current);
+            return json;
+        });
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private byte[] serialize(TopProductsResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize top products response", ex);
+        }
+    }
+
+    private record Entry(long version, Mono<byte[]> json) {
+    }
+}
@@ -1,15 +1,28 @@
 package com.red.franquicias.infrastructure.entrypoint.web.mapper;
 
 import com.red.franquicias.application.usecase.product.BranchTopProduct;
+import com.red.franquicias.application.usecase.product.BranchTopProducts;
+import com.red.franquicias.application.usecase.product.ProductImportResult;
 import com.red.franquicias.application.usecase.product.ProductInfo;
+import com.red.franquicias.application.usecase.product.ProductStockChange;
+import com.red.franquicias.application.usecase.product.ProductStockChangeResult;
+import com.red.franquicias.application.usecase.product.TopProductsPerBranchResult;
 import com.red.franquicias.application.usecase.product.TopProductsResult;
+import com.red.franquicias.application.usecase.product.TopStockIndexConsistency;
 import com.red.franquicias.domain.model.Product;
 import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.ProductEntity;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.BranchTopProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.BranchTopProductsResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductImportResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductInfoResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockBatchRequest;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockBatchResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockItemResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsPerBranchResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopStockIndexConsistencyResponse;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,7 +51,54 @@ public class ProductMapper {
         return new TopProductsResponse(result.franchiseId(), result.franchiseName(), results);
     }
 
-    private static BranchTopProductResponse toBranchTopProductResponse(BranchTopProduct branchTopProduct) {
+    public static TopProductsPerBranchResponse toTopProductsPerBranchResponse(TopProductsPerBranchResult result, Integer perBranch) {
+        List<BranchTopProductsResponse> results = result.results().stream()
+                .map(ProductMapper::toBranchTopProductsResponse)
+                .collect(Collectors.toList());
+        return new TopProductsPerBranchResponse(result.franchiseId(), result.franchiseName(), perBranch, results);
+    }
+
+    public static ProductImportResponse toImportResponse(ProductImportResult result) {
+        return new ProductImportResponse(
+                result.line(),
+                result.productId(),
+                result.name(),
+                result.stock(),
+                result.status().name(),
+                result.message()
+        );
+    }
+
+    public static List<ProductStockChange> toStockChanges(ProductStockBatchRequest request) {
+        if (request.items() == null) {
+            return null;
+        }
+        return request.items().stream()
+                .map(item -> item == null ? null : new ProductStockChange(item.productId(), item.stock()))
+                .collect(Collectors.toList());
+    }
+
+    public static ProductStockBatchResponse toStockBatchResponse(Long branchId, List<ProductStockChangeResult> results) {
+        List<ProductStockItemResponse> items = results.stream()
+                .map(result -> new ProductStockItemResponse(result.productId(), result.stock(), result.status().name()))
+                .collect(Collectors.toList());
+        long updated = results.stream()
+                .filter(result -> result.status() == ProductStockChangeResult.Status.UPDATED)
+                .count();
+        return new ProductStockBatchResponse(branchId, updated, items);
+    }
+
+    public static TopStockIndexConsistencyResponse toConsistencyResponse(TopStockIndexConsistency consistency) {
+        return new TopStockIndexConsistencyResponse(
+                consistency.franchiseId(),
+                consistency.indexReady(),
+                consistency.consistent(),
+                consistency.indexResult() == null ? null : toTopProductsResponse(consistency.indexResult()),
+                consistency.databaseResult() == null ? null : toTopProductsResponse(consistency.databaseResult())
+        );
+    }
+
+    public static BranchTopProductResponse toBranchTopProductResponse(BranchTopProduct branchTopProduct) {
         ProductInfo productInfo = branchTopProduct.product();
         ProductInfoResponse productInfoResponse = new ProductInfoResponse(
                 productInfo.productId(),
@@ -51,5 +111,11 @@ public class ProductMapper {
                 productInfoResponse
         );
     }
-}
 
+    private static BranchTopProductsResponse toBranchTopProductsResponse(BranchTopProducts branchTopProducts) {
+        List<ProductInfoResponse> products = branchTopProducts.products().stream()
+                .map(product -> new ProductInfoResponse(product.productId(), product.name(), product.stock()))
+                .collect(Collectors.toList());
+        return new BranchTopProductsResponse(branchTopProducts.branchId(), branchTopProducts.branchName(), products);
+    }
+}
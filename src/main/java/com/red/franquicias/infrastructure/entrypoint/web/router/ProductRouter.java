@@ -1,27 +1,39 @@
 package com.red.franquicias.infrastructure.entrypoint.web.router;
 
+import com.red.franquicias.infrastructure.config.ConditionalGetProperties;
+import com.red.franquicias.infrastructure.config.TopProductsResponseCacheProperties;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.BranchTopProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductImportResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockBatchRequest;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductStockBatchResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsPerBranchResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsResponse;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.UpdateProductNameRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.dto.UpdateProductStockRequest;
 import com.red.franquicias.infrastructure.entrypoint.web.handler.ProductHandler;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springdoc.core.annotations.RouterOperation;
 import org.springdoc.core.annotations.RouterOperations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.server.RequestPredicates;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 @Configuration
+@EnableConfigurationProperties({ConditionalGetProperties.class, TopProductsResponseCacheProperties.class})
 public class ProductRouter {
     @Bean
     @RouterOperations({
@@ -52,6 +64,33 @@ public class ProductRouter {
                             }
                     )
             ),
+            @RouterOperation(
+                    path = "/franchises/{franchiseId}/branches/{branchId}/products:import",
+                    method = RequestMethod.POST,
+                    consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                    produces = MediaType.APPLICATION_NDJSON_VALUE,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "importProducts",
+                    operation = @Operation(
+                            operationId = "importProducts",
+                            summary = "Import products",
+                            description = "Creates products in a branch from an NDJSON stream, one product per line, and streams back one result per line",
+                            tags = {"Products"},
+                            requestBody = @RequestBody(
+                                    description = "One product per line",
+                                    required = true,
+                                    content = @Content(schema = @Schema(implementation = ProductRequest.class), mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Per-line import results",
+                                            content = @Content(schema = @Schema(implementation = ProductImportResponse.class), mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+                                    ),
+                                    @ApiResponse(responseCode = "404", description = "Franchise or branch not found")
+                            }
+                    )
+            ),
             @RouterOperation(
                     path = "/franchises/{franchiseId}/branches/{branchId}/products/{productId}",
                     method = RequestMethod.PUT,
@@ -87,10 +126,10 @@ public class ProductRouter {
                     operation = @Operation(
                             operationId = "updateProductStock",
                             summary = "Update product stock",
-                            description = "Updates the stock of an existing product",
+                            description = "Sets the stock of an existing product, or adds a signed delta to it atomically",
                             tags = {"Products"},
                             requestBody = @RequestBody(
-                                    description = "New product stock",
+                                    description = "Either the new absolute stock or a signed delta",
                                     required = true,
                                     content = @Content(schema = @Schema(implementation = UpdateProductStockRequest.class))
                             ),
@@ -101,7 +140,34 @@ public class ProductRouter {
                                             content = @Content(schema = @Schema(implementation = ProductResponse.class), mediaType = MediaType.APPLICATION_JSON_VALUE)
                                     ),
                                     @ApiResponse(responseCode = "400", description = "Validation error"),
-                                    @ApiResponse(responseCode = "404", description = "Franchise, branch or product not found")
+                                    @ApiResponse(responseCode = "404", description = "Franchise, branch or product not found"),
+                                    @ApiResponse(responseCode = "409", description = "Delta would leave the stock negative")
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/franchises/{franchiseId}/branches/{branchId}/products/stock:batch",
+                    method = RequestMethod.POST,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "updateStocks",
+                    operation = @Operation(
+                            operationId = "updateProductStockBatch",
+                            summary = "Update product stock in batch",
+                            description = "Sets the stock of many products of a branch, validating the franchise and branch once",
+                            tags = {"Products"},
+                            requestBody = @RequestBody(
+                                    description = "Product id and new stock pairs",
+                                    required = true,
+                                    content = @Content(schema = @Schema(implementation = ProductStockBatchRequest.class))
+                            ),
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Per-item results",
+                                            content = @Content(schema = @Schema(implementation = ProductStockBatchResponse.class), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                                    ),
+                                    @ApiResponse(responseCode = "400", description = "Validation error"),
+                                    @ApiResponse(responseCode = "404", description = "Franchise or branch not found")
                             }
                     )
             ),
@@ -140,15 +206,93 @@ public class ProductRouter {
                                     @ApiResponse(responseCode = "404", description = "Franchise not found")
                             }
                     )
+            ),
+            @RouterOperation(
+                    path = "/franchises/{franchiseId}/top-products",
+                    method = RequestMethod.GET,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "getTopProductsPerBranch",
+                    operation = @Operation(
+                            operationId = "getTopProductsPerBranch",
+                            summary = "Get top N products per branch",
+                            description = "Gets up to perBranch products with the highest stock for each branch of a franchise, ties broken by lowest product id",
+                            tags = {"Products"},
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "franchiseId", required = true),
+                                    @Parameter(in = ParameterIn.QUERY, name = "perBranch", description = "Products per branch, 1 to 100 (default 1)")
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Top products per branch retrieved successfully",
+                                            content = @Content(schema = @Schema(implementation = TopProductsPerBranchResponse.class), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                                    ),
+                                    @ApiResponse(responseCode = "400", description = "perBranch out of range"),
+                                    @ApiResponse(responseCode = "404", description = "Franchise not found")
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/franchises/{franchiseId}/top-products:global",
+                    method = RequestMethod.GET,
+                    produces = MediaType.APPLICATION_NDJSON_VALUE,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "getGlobalTopProducts",
+                    operation = @Operation(
+                            operationId = "getGlobalTopProducts",
+                            summary = "Get top products across branches",
+                            description = "Streams the limit products with the highest stock across every branch of a franchise as NDJSON, highest first, ties broken by lowest product id",
+                            tags = {"Products"},
+                            parameters = {
+                                    @Parameter(in = ParameterIn.PATH, name = "franchiseId", required = true),
+                                    @Parameter(in = ParameterIn.QUERY, name = "limit", description = "Number of products, 1 to 1000 (default 10)")
+                            },
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Top products, one per line",
+                                            content = @Content(schema = @Schema(implementation = BranchTopProductResponse.class), mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+                                    ),
+                                    @ApiResponse(responseCode = "400", description = "limit out of range"),
+                                    @ApiResponse(responseCode = "404", description = "Franchise not found")
+                            }
+                    )
+            ),
+            @RouterOperation(
+                    path = "/franchises/{franchiseId}/branches/top-products:stream",
+                    method = RequestMethod.GET,
+                    produces = MediaType.APPLICATION_NDJSON_VALUE,
+                    beanClass = ProductHandler.class,
+                    beanMethod = "streamTopProducts",
+                    operation = @Operation(
+                            operationId = "streamTopProducts",
+                            summary = "Stream top products by branch",
+                            description = "Streams the product with the highest stock for each branch of a franchise as NDJSON, one branch per line, as rows are read",
+                            tags = {"Products"},
+                            responses = {
+                                    @ApiResponse(
+                                            responseCode = "200",
+                                            description = "Top product per branch",
+                                            content = @Content(schema = @Schema(implementation = BranchTopProductResponse.class), mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+                                    ),
+                                    @ApiResponse(responseCode = "404", description = "Franchise not found")
+                            }
+                    )
             )
     })
     public RouterFunction<ServerResponse> productRoutes(ProductHandler handler) {
         return RouterFunctions.route()
                 .POST("/franchises/{franchiseId}/branches/{branchId}/products", handler::create)
+                .POST("/franchises/{franchiseId}/branches/{branchId}/products:import",
+                        RequestPredicates.contentType(MediaType.APPLICATION_NDJSON), handler::importProducts)
                 .PUT("/franchises/{franchiseId}/branches/{branchId}/products/{productId}", handler::updateName)
                 .PATCH("/franchises/{franchiseId}/branches/{branchId}/products/{productId}/stock", handler::updateStock)
+                .POST("/franchises/{franchiseId}/branches/{branchId}/products/stock:batch", handler::updateStocks)
                 .DELETE("/franchises/{franchiseId}/branches/{branchId}/products/{productId}", handler::remove)
                 .GET("/franchises/{franchiseId}/branches/top-products", handler::getTopProducts)
+                .GET("/franchises/{franchiseId}/branches/top-products:stream", handler::streamTopProducts)
+                .GET("/franchises/{franchiseId}/top-products", handler::getTopProductsPerBranch)
+                .GET("/franchises/{franchiseId}/top-products:global", handler::getGlobalTopProducts)
                 .build();
     }
 }
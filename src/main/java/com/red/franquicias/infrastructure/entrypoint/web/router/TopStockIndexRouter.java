@@ -0,0 +1,50 @@
+package com.red.franquicias.infrastructure.entrypoint.web.router;
+
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopStockIndexConsistencyResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.handler.ProductHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springdoc.core.annotations.RouterOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Debug route for the in-memory top stock index, registered only while the index is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "franquicias.top-products.index", name = "enabled", havingValue = "true")
+public class TopStockIndexRouter {
+    @Bean
+    @RouterOperation(
+            path = "/debug/franchises/{franchiseId}/top-products/consistency",
+            method = RequestMethod.GET,
+            beanClass = ProductHandler.class,
+            beanMethod = "verifyTopProductsIndex",
+            operation = @Operation(
+                    operationId = "verifyTopProductsIndex",
+                    summary = "Verify top products index",
+                    description = "Compares the in-memory top stock index against the SQL answer for a franchise",
+                    tags = {"Products"},
+                    responses = {
+                            @ApiResponse(
+                                    responseCode = "200",
+                                    description = "Consistency report",
+                                    content = @Content(schema = @Schema(implementation = TopStockIndexConsistencyResponse.class), mediaType = MediaType.APPLICATION_JSON_VALUE)
+                            )
+                    }
+            )
+    )
+    public RouterFunction<ServerResponse> topStockIndexRoutes(ProductHandler handler) {
+        return RouterFunctions.route()
+                .GET("/debug/franchises/{franchiseId}/top-products/consistency", handler::verifyTopProductsIndex)
+                .build();
+    }
+}
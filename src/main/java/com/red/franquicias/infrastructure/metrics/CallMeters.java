@@ -0,0 +1,58 @@
+package com.red.franquicias.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timer and error counter registered once per call site, so recording a call is a
+ * {@code nanoTime} difference and never a registry lookup.
+ */
+public record CallMeters(Timer timer, Counter errors) {
+
+    public static CallMeters register(MeterRegistry registry, String name, Tags tags) {
+        return new CallMeters(
+                Timer.builder(name)
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                Counter.builder(name + ".errors")
+                        .tags(tags)
+                        .register(registry)
+        );
+    }
+
+    public <T> Mono<T> time(Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doOnEach(signal -> {
+                if (signal.isOnComplete() || signal.isOnError()) {
+                    record(start, signal.isOnError());
+                }
+            });
+        });
+    }
+
+    public <T> Flux<T> time(Flux<T> call) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return call.doOnEach(signal -> {
+                if (signal.isOnComplete() || signal.isOnError()) {
+                    record(start, signal.isOnError());
+                }
+            });
+        });
+    }
+
+    public void record(long start, boolean failed) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (failed) {
+            errors.increment();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Every column of products, ordered for the highest-stock lookups per branch, so
+-- findTopByBranchIdOrderByStockDesc and the top-products subquery never read the clustered index.
+ALTER TABLE products
+    ADD INDEX idx_products_branch_stock_cover (branch_id, stock DESC, id, name);
+
+-- The cover index makes the narrower (branch_id, stock DESC) index redundant. Databases created from the
+-- original schema never had it, so it is dropped only where it exists.
+SET @drop_branch_stock_index = (
+    SELECT IF(COUNT(*) > 0, 'ALTER TABLE products DROP INDEX idx_products_branch_stock', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'products'
+      AND index_name = 'idx_products_branch_stock'
+);
+PREPARE drop_branch_stock_index FROM @drop_branch_stock_index;
+EXECUTE drop_branch_stock_index;
+DEALLOCATE PREPARE drop_branch_stock_index;
@@ -0,0 +1,12 @@
+-- One row per change to a franchise, branch or product, written in the same transaction as the change.
+-- Every instance tails it by seq to drop what it keeps in memory about the rows other instances changed.
+CREATE TABLE change_log (
+    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+    origin CHAR(36) NOT NULL,
+    entity VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    branch_id BIGINT NULL,
+    franchise_id BIGINT NOT NULL,
+    changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_change_log_changed_at (changed_at)
+);
@@ -0,0 +1,8 @@
+-- Last write-ahead segment of stock deltas applied per writer (one per process start), recorded in the same
+-- transaction as the deltas so replaying a segment after a crash never applies it twice.
+CREATE TABLE stock_write_behind_segments (
+    writer CHAR(36) NOT NULL,
+    segment BIGINT NOT NULL,
+    applied_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (writer, segment)
+);
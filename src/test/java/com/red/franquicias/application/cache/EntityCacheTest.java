@@ -0,0 +1,156 @@
+package com.red.franquicias.application.cache;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.application.consistency.ReadConsistency;
+import com.red.franquicias.domain.model.Franchise;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class EntityCacheTest {
+
+    private MeterRegistry registry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_secondLookup_shouldBeServedFromMemory() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+
+        StepVerifier.create(cache.get(1L, () -> load(new Franchise(1L, "Test Franchise"))))
+                .expectNext(new Franchise(1L, "Test Franchise"))
+                .verifyComplete();
+        StepVerifier.create(cache.get(1L, () -> load(new Franchise(1L, "Test Franchise"))))
+                .expectNext(new Franchise(1L, "Test Franchise"))
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "franchises", "result", "hit").counter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "franchises", "result", "miss").counter().count());
+    }
+
+    @Test
+    void get_missingRow_shouldCacheTheMiss() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+
+        StepVerifier.create(cache.get(1L, () -> load(null))).verifyComplete();
+        StepVerifier.create(cache.get(1L, () -> load(null))).verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_expiredMiss_shouldLoadAgain() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ZERO);
+
+        StepVerifier.create(cache.get(1L, () -> load(null))).verifyComplete();
+        StepVerifier.create(cache.get(1L, () -> load(new Franchise(1L, "Created Elsewhere"))))
+                .expectNext(new Franchise(1L, "Created Elsewhere"))
+                .verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_concurrentMisses_shouldShareOneLoad() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+        Sinks.One<Franchise> row = Sinks.one();
+        Mono<Franchise> slowLoad = row.asMono().doOnSubscribe(subscription -> loads.incrementAndGet());
+
+        StepVerifier first = StepVerifier.create(cache.get(1L, () -> slowLoad))
+                .expectNext(new Franchise(1L, "Test Franchise"))
+                .expectComplete()
+                .verifyLater();
+        StepVerifier second = StepVerifier.create(cache.get(1L, () -> slowLoad))
+                .expectNext(new Franchise(1L, "Test Franchise"))
+                .expectComplete()
+                .verifyLater();
+        row.tryEmitValue(new Franchise(1L, "Test Franchise"));
+
+        first.verify(Duration.ofSeconds(5));
+        second.verify(Duration.ofSeconds(5));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_callerMutatesResult_shouldNotChangeCachedValue() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+        Franchise loaded = new Franchise(1L, "Test Franchise");
+
+        Franchise first = cache.get(1L, () -> load(loaded)).block();
+        first.setName("Renamed Without Saving");
+
+        assertNotSame(loaded, first);
+        assertEquals("Test Franchise", cache.get(1L, () -> load(loaded)).block().getName());
+    }
+
+    @Test
+    void get_withConsistencyToken_shouldBypassCache() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+        cache.put(1L, new Franchise(1L, "Cached"));
+
+        StepVerifier.create(cache.get(1L, () -> load(new Franchise(1L, "Fresh")))
+                        .contextWrite(Context.of(ConsistencyToken.class, new ConsistencyToken("uuid:1-5"))))
+                .expectNext(new Franchise(1L, "Fresh"))
+                .verifyComplete();
+        StepVerifier.create(cache.get(1L, () -> load(new Franchise(1L, "Fresh"))))
+                .expectNext(new Franchise(1L, "Cached"))
+                .verifyComplete();
+    }
+
+    @Test
+    void get_primaryOnly_shouldLoadInCallerContextWithoutFillingCache() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+        Mono<Franchise> primaryLoad = Mono.deferContextual(context -> ReadConsistency.isPrimaryOnly(context)
+                ? load(new Franchise(1L, "Just Created"))
+                : load(null));
+
+        StepVerifier.create(cache.get(1L, () -> primaryLoad).contextWrite(ReadConsistency.primaryOnly()))
+                .expectNext(new Franchise(1L, "Just Created"))
+                .verifyComplete();
+        StepVerifier.create(cache.get(1L, () -> load(null))).verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void put_shouldReplaceCachedMiss() {
+        EntityCache<Long, Franchise> cache = cache(Duration.ofMinutes(10));
+        StepVerifier.create(cache.get(1L, () -> load(null))).verifyComplete();
+
+        cache.put(1L, new Franchise(1L, "Created Here"));
+
+        StepVerifier.create(cache.get(1L, () -> load(null)))
+                .expectNext(new Franchise(1L, "Created Here"))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    private EntityCache<Long, Franchise> cache(Duration negativeTtl) {
+        return new EntityCache<>("franchises", 100, Duration.ofMinutes(10), negativeTtl, registry,
+                franchise -> new Franchise(franchise.getId(), franchise.getName()));
+    }
+
+    private Mono<Franchise> load(Franchise franchise) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return franchise;
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.red.franquicias.application.concurrency;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.application.consistency.ReadConsistency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchLoaderTest {
+
+    private MeterRegistry registry;
+    private List<List<Long>> batches;
+    private List<Long> singles;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        batches = new CopyOnWriteArrayList<>();
+        singles = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    void load_concurrentKeys_shouldBeResolvedByOneQuery() {
+        BatchLoader<Long, String> loader = loader(true, Duration.ofMillis(500), 64,
+                keys -> Flux.fromIterable(keys).filter(key -> key != 3L).map(key -> "value-" + key));
+
+        StepVerifier.create(Flux.merge(loader.load(1L), loader.load(2L), loader.load(2L), loader.load(3L)).collectList())
+                .assertNext(values -> assertEquals(List.of("value-1", "value-2", "value-2"),
+                        values.stream().sorted().toList()))
+                .verifyComplete();
+
+        assertEquals(List.of(List.of(1L, 2L, 3L)), batches);
+        assertTrue(singles.isEmpty());
+        assertEquals(3, registry.get(BatchLoader.METRIC).tag("name", "test").summary().max());
+    }
+
+    @Test
+    void load_maxBatchSizeReached_shouldSendWithoutWaitingForWindow() {
+        BatchLoader<Long, String> loader = loader(true, Duration.ofMinutes(1), 2,
+                keys -> Flux.fromIterable(keys).map(key -> "value-" + key));
+
+        StepVerifier.create(Flux.merge(loader.load(1L), loader.load(2L)).collectList())
+                .assertNext(values -> assertEquals(2, values.size()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(List.of(List.of(1L, 2L)), batches);
+    }
+
+    @Test
+    void load_queryFails_shouldFailEveryWaitingCaller() {
+        BatchLoader<Long, String> loader = loader(true, Duration.ofMillis(10), 64,
+                keys -> Flux.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(loader.load(1L)).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(loader.load(2L)).expectError(IllegalStateException.class).verify();
+    }
+
+    @Test
+    void load_withConsistencyToken_shouldNotBeBatched() {
+        BatchLoader<Long, String> loader = loader(true, Duration.ofMillis(10), 64,
+                keys -> Flux.fromIterable(keys).map(key -> "value-" + key));
+
+        StepVerifier.create(loader.load(1L)
+                        .contextWrite(Context.of(ConsistencyToken.class, new ConsistencyToken("uuid:1-5"))))
+                .expectNext("single-1")
+                .verifyComplete();
+
+        assertEquals(List.of(1L), singles);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void load_primaryOnly_shouldNotBeBatched() {
+        BatchLoader<Long, String> loader = loader(true, Duration.ofMillis(10), 64,
+                keys -> Flux.fromIterable(keys).map(key -> "value-" + key));
+
+        StepVerifier.create(loader.load(1L).contextWrite(ReadConsistency.primaryOnly()))
+                .expectNext("single-1")
+                .verifyComplete();
+
+        assertEquals(List.of(1L), singles);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void load_disabled_shouldUseSingleLookup() {
+        BatchLoader<Long, String> loader = loader(false, Duration.ofMillis(10), 64,
+                keys -> Flux.fromIterable(keys).map(key -> "value-" + key));
+
+        StepVerifier.create(loader.load(1L)).expectNext("single-1").verifyComplete();
+
+        assertTrue(batches.isEmpty());
+    }
+
+    private BatchLoader<Long, String> loader(boolean enabled, Duration window, int maxBatchSize,
+            Function<List<Long>, Flux<String>> query) {
+        return new BatchLoader<>("test", enabled, window, maxBatchSize, registry,
+                keys -> {
+                    batches.add(keys);
+                    return query.apply(keys);
+                },
+                value -> Long.valueOf(value.substring(value.indexOf('-') + 1)),
+                key -> {
+                    singles.add(key);
+                    return Mono.just("single-" + key);
+                });
+    }
+}
@@ -0,0 +1,84 @@
+package com.red.franquicias.application.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GroupCommitTest {
+
+    private MeterRegistry registry;
+    private List<List<Integer>> commits;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        commits = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    void submit_concurrentItems_shouldShareOneCommitAndGetTheirOwnResult() {
+        GroupCommit<Integer, String> groupCommit = groupCommit(Duration.ofMillis(500), 64,
+                items -> Flux.fromIterable(items).map(item -> "result-" + item));
+
+        StepVerifier.create(Flux.merge(groupCommit.submit(1), groupCommit.submit(2), groupCommit.submit(3))
+                        .collectList())
+                .assertNext(results -> assertEquals(List.of("result-1", "result-2", "result-3"),
+                        results.stream().sorted().toList()))
+                .verifyComplete();
+
+        assertEquals(1, commits.size());
+        assertEquals(3, registry.get(GroupCommit.METRIC).tag("name", "test").summary().max());
+    }
+
+    @Test
+    void submit_maxBatchSizeReached_shouldCommitWithoutWaitingForWindow() {
+        GroupCommit<Integer, String> groupCommit = groupCommit(Duration.ofMinutes(1), 2,
+                items -> Flux.fromIterable(items).map(item -> "result-" + item));
+
+        StepVerifier.create(Flux.merge(groupCommit.submit(1), groupCommit.submit(2)).collectList())
+                .assertNext(results -> assertEquals(2, results.size()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(List.of(List.of(1, 2)), commits);
+    }
+
+    @Test
+    void submit_commitEmitsThenFails_shouldFailEveryCaller() {
+        GroupCommit<Integer, String> groupCommit = groupCommit(Duration.ofMillis(500), 64,
+                items -> Flux.just("result-1").concatWith(Mono.error(new IllegalStateException("rolled back"))));
+
+        StepVerifier.create(Flux.mergeDelayError(2, groupCommit.submit(1), groupCommit.submit(2)))
+                .expectErrorSatisfies(ex -> assertEquals(2, Exceptions.unwrapMultiple(ex).stream()
+                        .filter(IllegalStateException.class::isInstance)
+                        .count()))
+                .verify();
+    }
+
+    @Test
+    void submit_commitReturnsFewerResults_shouldFail() {
+        GroupCommit<Integer, String> groupCommit = groupCommit(Duration.ofMillis(10), 64, items -> Flux.empty());
+
+        StepVerifier.create(groupCommit.submit(1)).expectError(IllegalStateException.class).verify();
+    }
+
+    private GroupCommit<Integer, String> groupCommit(Duration window, int maxBatchSize,
+                                                     Function<List<Integer>, Flux<String>> commit) {
+        return new GroupCommit<>("test", window, maxBatchSize, items -> {
+            commits.add(List.copyOf(items));
+            return commit.apply(items);
+        }, registry);
+    }
+}
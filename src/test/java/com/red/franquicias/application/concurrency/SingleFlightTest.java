@@ -0,0 +1,102 @@
+package com.red.franquicias.application.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>(registry, "test");
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void execute_concurrentCallsSameKey_shouldLoadOnceAndShareResult() {
+        Sinks.One<String> result = Sinks.one();
+
+        StepVerifier.create(Mono.zip(
+                        singleFlight.execute(1L, () -> load(result.asMono())),
+                        singleFlight.execute(1L, () -> load(result.asMono()))))
+                .then(() -> result.tryEmitValue("top"))
+                .assertNext(both -> {
+                    assertEquals("top", both.getT1());
+                    assertEquals("top", both.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, calls("executed"));
+        assertEquals(1.0, calls("shared"));
+    }
+
+    @Test
+    void execute_differentKeys_shouldLoadEach() {
+        Mono.zip(singleFlight.execute(1L, () -> load(Mono.just("a"))),
+                singleFlight.execute(2L, () -> load(Mono.just("b")))).block();
+
+        assertEquals(2, loads.get());
+        assertEquals(0.0, calls("shared"));
+    }
+
+    @Test
+    void execute_afterPreviousCallCompleted_shouldLoadAgain() {
+        StepVerifier.create(singleFlight.execute(1L, () -> load(Mono.just("first")))).expectNext("first").verifyComplete();
+        StepVerifier.create(singleFlight.execute(1L, () -> load(Mono.just("second")))).expectNext("second").verifyComplete();
+
+        assertEquals(2, loads.get());
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_loaderFails_shouldShareErrorAndForgetKey() {
+        Sinks.One<String> result = Sinks.one();
+
+        StepVerifier.create(Mono.zip(
+                        singleFlight.execute(1L, () -> load(result.asMono())),
+                        singleFlight.execute(1L, () -> load(result.asMono()))))
+                .then(() -> result.tryEmitError(new IllegalStateException("boom")))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(1, loads.get());
+        StepVerifier.create(singleFlight.execute(1L, () -> load(Mono.just("retry")))).expectNext("retry").verifyComplete();
+    }
+
+    @Test
+    void execute_allCallersCancel_shouldCancelLoader() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> never = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute(1L, () -> load(never)).subscribe();
+        Disposable second = singleFlight.execute(1L, () -> load(never)).subscribe();
+        first.dispose();
+        assertFalse(cancelled.get());
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0.0, inFlight());
+    }
+
+    private Mono<String> load(Mono<String> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+
+    private double calls(String result) {
+        return registry.get(SingleFlight.METRIC + ".calls").tag("result", result).counter().count();
+    }
+
+    private double inFlight() {
+        return registry.get(SingleFlight.METRIC + ".in.flight").gauge().value();
+    }
+}
@@ -2,14 +2,18 @@ package com.red.franquicias.application.usecase.branch;
 
 import com.red.franquicias.application.port.out.BranchRepositoryPort;
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.exception.TechnicalException;
 import com.red.franquicias.domain.model.Branch;
 import com.red.franquicias.domain.model.Franchise;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.MockedConstruction;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -21,6 +25,7 @@ import org.springframework.validation.beanvalidation.MethodValidationPostProcess
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
@@ -58,7 +63,7 @@ class CreateBranchUseCaseImplValidationTest {
                 BranchRepositoryPort branchRepositoryPort,
                 FranchiseRepositoryPort franchiseRepositoryPort
         ) {
-            return new CreateBranchUseCaseImpl(branchRepositoryPort, franchiseRepositoryPort);
+            return new CreateBranchUseCaseImpl(branchRepositoryPort, franchiseRepositoryPort, new TopStockIndex(), new FranchiseVersions());
         }
     }
 
@@ -85,7 +90,6 @@ class CreateBranchUseCaseImplValidationTest {
     void create_validBranch_shouldReturnCreatedBranch() {
         Branch savedBranch = new Branch(1L, 1L, "Test Branch");
         when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.existsByNameAndFranchiseId("Test Branch", 1L)).thenReturn(Mono.just(false));
         when(branchRepositoryPort.save(any(Branch.class))).thenReturn(Mono.just(savedBranch));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validBranch)))
@@ -93,6 +97,23 @@ class CreateBranchUseCaseImplValidationTest {
                 .verifyComplete();
     }
 
+    @Test
+    void create_validBranch_shouldNotConstructExceptions() {
+        BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND);
+        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
+        when(branchRepositoryPort.save(any(Branch.class))).thenReturn(Mono.just(new Branch(1L, 1L, "Test Branch")));
+
+        try (MockedConstruction<BusinessException> business = Mockito.mockConstruction(BusinessException.class);
+             MockedConstruction<TechnicalException> technical = Mockito.mockConstruction(TechnicalException.class)) {
+            StepVerifier.create(Mono.defer(() -> useCase.create(validBranch)))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            assertTrue(business.constructed().isEmpty());
+            assertTrue(technical.constructed().isEmpty());
+        }
+    }
+
     @Test
     void create_emptyName_shouldThrowConstraintViolationException() {
         Branch branch = new Branch(null, 1L, "");
@@ -154,7 +175,8 @@ class CreateBranchUseCaseImplValidationTest {
     @Test
     void create_duplicateName_shouldReturnConflictException() {
         when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.existsByNameAndFranchiseId("Test Branch", 1L)).thenReturn(Mono.just(true));
+        when(branchRepositoryPort.save(any(Branch.class)))
+                .thenReturn(Mono.error(new BusinessException(TechnicalMessage.BRANCH_NAME_ALREADY_EXISTS)));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validBranch)))
                 .expectErrorMatches(ex ->
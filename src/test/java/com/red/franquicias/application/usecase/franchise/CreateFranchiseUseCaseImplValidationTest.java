@@ -1,6 +1,8 @@
 package com.red.franquicias.application.usecase.franchise;
 
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Franchise;
@@ -47,7 +49,7 @@ class CreateFranchiseUseCaseImplValidationTest {
 
         @Bean
         CreateFranchiseUseCase createFranchiseUseCase(FranchiseRepositoryPort repositoryPort) {
-            return new CreateFranchiseUseCaseImpl(repositoryPort);
+            return new CreateFranchiseUseCaseImpl(repositoryPort, new TopStockIndex(), new FranchiseVersions());
         }
     }
 
@@ -80,7 +82,8 @@ class CreateFranchiseUseCaseImplValidationTest {
 
     @Test
     void create_duplicateName_shouldReturnConflictException() {
-        when(repositoryPort.existsByName("Test Franchise")).thenReturn(Mono.just(true));
+        when(repositoryPort.save(any()))
+                .thenReturn(Mono.error(new BusinessException(TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS)));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(new Franchise(null, "Test Franchise"))))
                 .expectErrorMatches(ex ->
@@ -93,7 +96,6 @@ class CreateFranchiseUseCaseImplValidationTest {
     @Test
     void create_valid_shouldSave() {
         Franchise saved = new Franchise(1L, "Test Franchise");
-        when(repositoryPort.existsByName("Test Franchise")).thenReturn(Mono.just(false));
         when(repositoryPort.save(any())).thenReturn(Mono.just(saved));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(new Franchise(null, "Test Franchise"))))
@@ -1,6 +1,8 @@
 package com.red.franquicias.application.usecase.franchise;
 
 import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Franchise;
@@ -48,7 +50,7 @@ class UpdateFranchiseNameUseCaseImplValidationTest {
 
         @Bean
         UpdateFranchiseNameUseCase updateFranchiseNameUseCase(FranchiseRepositoryPort repositoryPort) {
-            return new UpdateFranchiseNameUseCaseImpl(repositoryPort);
+            return new UpdateFranchiseNameUseCaseImpl(repositoryPort, new TopStockIndex(), new FranchiseVersions());
         }
     }
 
@@ -70,7 +72,6 @@ class UpdateFranchiseNameUseCaseImplValidationTest {
     void updateName_validName_shouldReturnUpdatedFranchise() {
         Franchise updatedFranchise = new Franchise(1L, "New Name");
         when(repositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(repositoryPort.existsByName("New Name")).thenReturn(Mono.just(false));
         when(repositoryPort.save(any(Franchise.class))).thenReturn(Mono.just(updatedFranchise));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, "New Name")))
@@ -123,7 +124,8 @@ class UpdateFranchiseNameUseCaseImplValidationTest {
     @Test
     void updateName_duplicateName_shouldReturnConflictException() {
         when(repositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(repositoryPort.existsByName("Duplicate Name")).thenReturn(Mono.just(true));
+        when(repositoryPort.save(any(Franchise.class)))
+                .thenReturn(Mono.error(new BusinessException(TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, "Duplicate Name")))
                 .expectErrorMatches(ex ->
@@ -136,7 +138,6 @@ class UpdateFranchiseNameUseCaseImplValidationTest {
     @Test
     void updateName_sameName_shouldReturnUpdatedFranchise() {
         when(repositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(repositoryPort.existsByName("Original Name")).thenReturn(Mono.just(true));
         when(repositoryPort.save(any(Franchise.class))).thenReturn(Mono.just(existingFranchise));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, "Original Name")))
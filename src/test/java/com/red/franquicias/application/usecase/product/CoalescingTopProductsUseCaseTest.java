@@ -0,0 +1,83 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingTopProductsUseCaseTest {
+
+    @Mock
+    private GetTopProductsByFranchiseUseCaseImpl delegate;
+
+    private final FranchiseVersions franchiseVersions = new FranchiseVersions();
+    private CoalescingTopProductsUseCase useCase;
+    private final TopProductsResult result = new TopProductsResult(1L, "Test Franchise", List.of());
+
+    @BeforeEach
+    void setUp() {
+        useCase = new CoalescingTopProductsUseCase(delegate, franchiseVersions, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getTopProducts_concurrentRequests_shouldQueryOnce() {
+        Sinks.One<TopProductsResult> query = Sinks.one();
+        when(delegate.getTopProducts(1L)).thenReturn(query.asMono());
+
+        StepVerifier.create(Mono.zip(useCase.getTopProducts(1L), useCase.getTopProducts(1L)))
+                .then(() -> query.tryEmitValue(result))
+                .expectNextMatches(both -> both.getT1() == result && both.getT2() == result)
+                .verifyComplete();
+
+        verify(delegate, times(1)).getTopProducts(1L);
+    }
+
+    @Test
+    void getTopProducts_withConsistencyToken_shouldNotJoinInFlightQuery() {
+        Sinks.One<TopProductsResult> query = Sinks.one();
+        when(delegate.getTopProducts(1L)).thenReturn(query.asMono());
+
+        StepVerifier.create(Mono.zip(useCase.getTopProducts(1L),
+                        useCase.getTopProducts(1L)
+                                .contextWrite(Context.of(ConsistencyToken.class, new ConsistencyToken("uuid:1-5")))))
+                .then(() -> query.tryEmitValue(result))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(delegate, times(2)).getTopProducts(1L);
+    }
+
+    @Test
+    void getTopProducts_afterWrite_shouldNotJoinQueryStartedBeforeIt() {
+        Sinks.One<TopProductsResult> before = Sinks.one();
+        Sinks.One<TopProductsResult> after = Sinks.one();
+        TopProductsResult written = new TopProductsResult(1L, "Renamed Franchise", List.of());
+        when(delegate.getTopProducts(1L)).thenReturn(before.asMono()).thenReturn(after.asMono());
+
+        StepVerifier.create(useCase.getTopProducts(1L)
+                        .zipWith(Mono.fromRunnable(() -> franchiseVersions.bump(1L))
+                                .then(useCase.getTopProducts(1L))))
+                .then(() -> {
+                    before.tryEmitValue(result);
+                    after.tryEmitValue(written);
+                })
+                .expectNextMatches(both -> both.getT1() == result && both.getT2() == written)
+                .verifyComplete();
+
+        verify(delegate, times(2)).getTopProducts(1L);
+    }
+}
@@ -1,12 +1,8 @@
 package com.red.franquicias.application.usecase.product;
 
-import com.red.franquicias.application.port.out.BranchRepositoryPort;
-import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
-import com.red.franquicias.domain.model.Branch;
-import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.domain.model.Product;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +20,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -38,16 +37,6 @@ class CreateProductUseCaseImplValidationTest {
             return Mockito.mock(ProductRepositoryPort.class);
         }
 
-        @Bean
-        BranchRepositoryPort branchRepositoryPort() {
-            return Mockito.mock(BranchRepositoryPort.class);
-        }
-
-        @Bean
-        FranchiseRepositoryPort franchiseRepositoryPort() {
-            return Mockito.mock(FranchiseRepositoryPort.class);
-        }
-
         @Bean
         LocalValidatorFactoryBean validator() {
             return new LocalValidatorFactoryBean();
@@ -61,12 +50,8 @@ class CreateProductUseCaseImplValidationTest {
         }
 
         @Bean
-        CreateProductUseCase createProductUseCase(
-                ProductRepositoryPort productRepositoryPort,
-                BranchRepositoryPort branchRepositoryPort,
-                FranchiseRepositoryPort franchiseRepositoryPort
-        ) {
-            return new CreateProductUseCaseImpl(productRepositoryPort, branchRepositoryPort, franchiseRepositoryPort);
+        CreateProductUseCase createProductUseCase(ProductRepositoryPort productRepositoryPort) {
+            return new CreateProductUseCaseImpl(productRepositoryPort, new TopStockIndex(), new FranchiseVersions());
         }
     }
 
@@ -76,30 +61,20 @@ class CreateProductUseCaseImplValidationTest {
     @Autowired
     private ProductRepositoryPort productRepositoryPort;
 
-    @Autowired
-    private BranchRepositoryPort branchRepositoryPort;
-
-    @Autowired
-    private FranchiseRepositoryPort franchiseRepositoryPort;
-
-    private Franchise existingFranchise;
-    private Branch existingBranch;
+    private ProductOwnershipRow existingBranch;
     private Product validProduct;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(productRepositoryPort, branchRepositoryPort, franchiseRepositoryPort);
-        existingFranchise = new Franchise(1L, "Test Franchise");
-        existingBranch = new Branch(1L, 1L, "Test Branch");
+        Mockito.reset(productRepositoryPort);
+        existingBranch = new ProductOwnershipRow(1L, 1L, null, null, null);
         validProduct = new Product(null, 1L, "Test Product", 10);
     }
 
     @Test
     void create_validProduct_shouldReturnCreatedProduct() {
         Product savedProduct = new Product(1L, 1L, "Test Product", 10);
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.existsByNameAndBranchId("Test Product", 1L)).thenReturn(Mono.just(false));
+        when(productRepositoryPort.findOwnership(1L, 1L, null)).thenReturn(Mono.just(existingBranch));
         when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(savedProduct));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validProduct, 1L)))
@@ -107,6 +82,20 @@ class CreateProductUseCaseImplValidationTest {
                 .verifyComplete();
     }
 
+    @Test
+    void create_validProduct_shouldResolveOwnershipInSingleQuery() {
+        when(productRepositoryPort.findOwnership(1L, 1L, null)).thenReturn(Mono.just(existingBranch));
+        when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(new Product(1L, 1L, "Test Product", 10)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.create(validProduct, 1L)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(productRepositoryPort, times(1)).findOwnership(1L, 1L, null);
+        verify(productRepositoryPort, times(1)).save(any(Product.class));
+        verifyNoMoreInteractions(productRepositoryPort);
+    }
+
     @Test
     void create_emptyName_shouldThrowConstraintViolationException() {
         Product product = new Product(null, 1L, "", 10);
@@ -178,7 +167,7 @@ class CreateProductUseCaseImplValidationTest {
 
     @Test
     void create_franchiseNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(999L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(999L, 1L, null)).thenReturn(Mono.empty());
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validProduct, 999L)))
                 .expectErrorMatches(ex ->
@@ -190,8 +179,8 @@ class CreateProductUseCaseImplValidationTest {
 
     @Test
     void create_branchNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validProduct, 1L)))
                 .expectErrorMatches(ex ->
@@ -203,8 +192,8 @@ class CreateProductUseCaseImplValidationTest {
 
     @Test
     void create_branchNotBelongsToFranchise_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validProduct, 1L)))
                 .expectErrorMatches(ex ->
@@ -216,9 +205,9 @@ class CreateProductUseCaseImplValidationTest {
 
     @Test
     void create_duplicateName_shouldReturnConflictException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.existsByNameAndBranchId("Test Product", 1L)).thenReturn(Mono.just(true));
+        when(productRepositoryPort.findOwnership(1L, 1L, null)).thenReturn(Mono.just(existingBranch));
+        when(productRepositoryPort.save(any(Product.class)))
+                .thenReturn(Mono.error(new BusinessException(TechnicalMessage.PRODUCT_NAME_ALREADY_EXISTS)));
 
         StepVerifier.create(Mono.defer(() -> useCase.create(validProduct, 1L)))
                 .expectErrorMatches(ex ->
@@ -0,0 +1,37 @@
+package com.red.franquicias.application.usecase.product;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FranchiseVersionsTest {
+
+    private final FranchiseVersions versions = new FranchiseVersions();
+
+    @Test
+    void current_unknownFranchise_shouldBeZero() {
+        assertEquals(0L, versions.current(1L));
+    }
+
+    @Test
+    void bump_shouldOnlyChangeThatFranchise() {
+        String before = versions.etag(1L);
+
+        versions.bump(1L);
+        versions.bump(1L);
+
+        assertEquals(2L, versions.current(1L));
+        assertEquals(0L, versions.current(2L));
+        assertNotEquals(before, versions.etag(1L));
+    }
+
+    @Test
+    void etag_shouldBeStrongAndUniquePerInstance() {
+        String etag = versions.etag(1L);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertNotEquals(etag, new FranchiseVersions().etag(1L));
+    }
+}
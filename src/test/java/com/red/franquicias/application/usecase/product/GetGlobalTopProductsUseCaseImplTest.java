@@ -0,0 +1,82 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.exception.TechnicalException;
+import com.red.franquicias.domain.model.Franchise;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GetGlobalTopProductsUseCaseImplTest {
+
+    @Mock
+    private ProductRepositoryPort productRepositoryPort;
+
+    @Mock
+    private FranchiseRepositoryPort franchiseRepositoryPort;
+
+    @InjectMocks
+    private GetGlobalTopProductsUseCaseImpl useCase;
+
+    @Test
+    void getTopProducts_rows_shouldStreamThemInOrder() {
+        when(productRepositoryPort.findTopProductsAcrossBranches(1L, 2)).thenReturn(Flux.just(
+                new BranchTopProductRow(1L, "Test Franchise", 2L, "Branch 2", 20L, "Product B", 90),
+                new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 10L, "Product A", 50)
+        ));
+
+        StepVerifier.create(useCase.getTopProducts(1L, 2))
+                .expectNext(new BranchTopProduct(2L, "Branch 2", new ProductInfo(20L, "Product B", 90)))
+                .expectNext(new BranchTopProduct(1L, "Branch 1", new ProductInfo(10L, "Product A", 50)))
+                .verifyComplete();
+
+        verifyNoInteractions(franchiseRepositoryPort);
+    }
+
+    @Test
+    void getTopProducts_franchiseWithoutProducts_shouldCompleteEmpty() {
+        when(productRepositoryPort.findTopProductsAcrossBranches(1L, 10)).thenReturn(Flux.empty());
+        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(new Franchise(1L, "Test Franchise")));
+
+        StepVerifier.create(useCase.getTopProducts(1L, 10))
+                .verifyComplete();
+    }
+
+    @Test
+    void getTopProducts_franchiseNotFound_shouldReturnNotFoundException() {
+        when(productRepositoryPort.findTopProductsAcrossBranches(999L, 10)).thenReturn(Flux.empty());
+        when(franchiseRepositoryPort.findById(999L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.getTopProducts(999L, 10))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.FRANCHISE_NOT_FOUND
+                )
+                .verify();
+    }
+
+    @Test
+    void getTopProducts_repositoryError_shouldReturnTechnicalException() {
+        when(productRepositoryPort.findTopProductsAcrossBranches(1L, 10))
+                .thenReturn(Flux.error(new RuntimeException("DB down")));
+
+        StepVerifier.create(useCase.getTopProducts(1L, 10))
+                .expectErrorMatches(ex ->
+                        ex instanceof TechnicalException te
+                        && te.getTechnicalMessage() == TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR
+                )
+                .verify();
+    }
+}
@@ -12,7 +12,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +25,9 @@ class GetTopProductsByFranchiseUseCaseImplTest {
     @Mock
     private ProductRepositoryPort productRepositoryPort;
 
+    @Mock
+    private TopStockIndex topStockIndex;
+
     @InjectMocks
     private GetTopProductsByFranchiseUseCaseImpl useCase;
 
@@ -128,4 +135,98 @@ class GetTopProductsByFranchiseUseCaseImplTest {
                 .verify();
     }
 
+    @Test
+    void getTopProducts_indexAnswers_shouldNotQueryRepository() {
+        var indexed = new TopProductsResult(1L, "Test Franchise", List.of(
+                new BranchTopProduct(1L, "Branch 1", new ProductInfo(10L, "Product A", 50))
+        ));
+        when(topStockIndex.topProducts(1L)).thenReturn(indexed);
+
+        StepVerifier.create(useCase.getTopProducts(1L))
+                .expectNext(indexed)
+                .verifyComplete();
+
+        verifyNoInteractions(productRepositoryPort);
+    }
+
+    @Test
+    void streamTopProducts_shouldEmitOneItemPerBranchWithProducts() {
+        var row1 = new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 10L, "Product A", 50);
+        var row2 = new BranchTopProductRow(1L, "Test Franchise", 2L, "Branch 2", null, null, null);
+        var row3 = new BranchTopProductRow(1L, "Test Franchise", 3L, "Branch 3", 30L, "Product C", 20);
+
+        when(productRepositoryPort.findTopProductsByFranchiseId(1L))
+                .thenReturn(Flux.just(row1, row2, row3));
+
+        StepVerifier.create(useCase.streamTopProducts(1L))
+                .expectNext(new BranchTopProduct(1L, "Branch 1", new ProductInfo(10L, "Product A", 50)))
+                .expectNext(new BranchTopProduct(3L, "Branch 3", new ProductInfo(30L, "Product C", 20)))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamTopProducts_shouldOnlyPullRowsAsTheyAreRequested() {
+        List<Long> requested = new CopyOnWriteArrayList<>();
+        Flux<BranchTopProductRow> rows = Flux.range(1, 1000)
+                .map(i -> new BranchTopProductRow(1L, "Test Franchise", (long) i, "Branch " + i, (long) i, "Product " + i, i))
+                .doOnRequest(requested::add);
+
+        when(productRepositoryPort.findTopProductsByFranchiseId(1L)).thenReturn(rows);
+
+        StepVerifier.create(useCase.streamTopProducts(1L), 2)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+
+        assertTrue(requested.stream().mapToLong(Long::longValue).sum() < 1000);
+    }
+
+    @Test
+    void streamTopProducts_franchiseNotFound_shouldFailBeforeEmitting() {
+        when(productRepositoryPort.findTopProductsByFranchiseId(999L))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.streamTopProducts(999L))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.FRANCHISE_NOT_FOUND
+                )
+                .verify();
+    }
+
+    @Test
+    void streamTopProducts_franchiseWithoutProducts_shouldCompleteEmpty() {
+        var row = new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", null, null, null);
+
+        when(productRepositoryPort.findTopProductsByFranchiseId(1L))
+                .thenReturn(Flux.just(row));
+
+        StepVerifier.create(useCase.streamTopProducts(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamTopProducts_repositoryError_shouldReturnTechnicalException() {
+        when(productRepositoryPort.findTopProductsByFranchiseId(1L))
+                .thenReturn(Flux.error(new RuntimeException("DB down")));
+
+        StepVerifier.create(useCase.streamTopProducts(1L))
+                .expectErrorMatches(ex ->
+                        ex instanceof TechnicalException te
+                        && te.getTechnicalMessage() == TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR
+                )
+                .verify();
+    }
+
+    @Test
+    void streamTopProducts_indexAnswers_shouldNotQueryRepository() {
+        var branch = new BranchTopProduct(1L, "Branch 1", new ProductInfo(10L, "Product A", 50));
+        when(topStockIndex.topProducts(1L)).thenReturn(new TopProductsResult(1L, "Test Franchise", List.of(branch)));
+
+        StepVerifier.create(useCase.streamTopProducts(1L))
+                .expectNext(branch)
+                .verifyComplete();
+
+        verifyNoInteractions(productRepositoryPort);
+    }
 }
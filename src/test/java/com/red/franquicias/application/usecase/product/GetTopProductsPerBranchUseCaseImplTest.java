@@ -0,0 +1,77 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.exception.TechnicalException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GetTopProductsPerBranchUseCaseImplTest {
+
+    @Mock
+    private ProductRepositoryPort productRepositoryPort;
+
+    @InjectMocks
+    private GetTopProductsPerBranchUseCaseImpl useCase;
+
+    @Test
+    void getTopProducts_rankedRows_shouldGroupByBranchKeepingOrder() {
+        when(productRepositoryPort.findTopProductsPerBranch(1L, 2)).thenReturn(Flux.just(
+                new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 10L, "Product A", 50),
+                new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 11L, "Product B", 40),
+                new BranchTopProductRow(1L, "Test Franchise", 2L, "Branch 2", null, null, null),
+                new BranchTopProductRow(1L, "Test Franchise", 3L, "Branch 3", 30L, "Product C", 5)
+        ));
+
+        StepVerifier.create(useCase.getTopProducts(1L, 2))
+                .assertNext(result -> {
+                    assertEquals(1L, result.franchiseId());
+                    assertEquals("Test Franchise", result.franchiseName());
+                    assertEquals(List.of(
+                            new BranchTopProducts(1L, "Branch 1", List.of(
+                                    new ProductInfo(10L, "Product A", 50),
+                                    new ProductInfo(11L, "Product B", 40))),
+                            new BranchTopProducts(3L, "Branch 3", List.of(
+                                    new ProductInfo(30L, "Product C", 5)))
+                    ), result.results());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getTopProducts_franchiseNotFound_shouldReturnNotFoundException() {
+        when(productRepositoryPort.findTopProductsPerBranch(999L, 5)).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.getTopProducts(999L, 5))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.FRANCHISE_NOT_FOUND
+                )
+                .verify();
+    }
+
+    @Test
+    void getTopProducts_repositoryError_shouldReturnTechnicalException() {
+        when(productRepositoryPort.findTopProductsPerBranch(1L, 5))
+                .thenReturn(Flux.error(new RuntimeException("DB down")));
+
+        StepVerifier.create(useCase.getTopProducts(1L, 5))
+                .expectErrorMatches(ex ->
+                        ex instanceof TechnicalException te
+                        && te.getTechnicalMessage() == TechnicalMessage.TOP_PRODUCTS_QUERY_ERROR
+                )
+                .verify();
+    }
+}
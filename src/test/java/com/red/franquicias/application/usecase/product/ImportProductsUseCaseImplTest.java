@@ -0,0 +1,135 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.model.Product;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportProductsUseCaseImplTest {
+    @Mock
+    private ProductRepositoryPort productRepositoryPort;
+
+    @Mock
+    private TopStockIndex topStockIndex;
+
+    private final FranchiseVersions franchiseVersions = new FranchiseVersions();
+
+    private ImportProductsUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        useCase = new ImportProductsUseCaseImpl(
+                productRepositoryPort,
+                topStockIndex,
+                franchiseVersions,
+                Validation.buildDefaultValidatorFactory().getValidator()
+        );
+    }
+
+    @Test
+    void importProducts_mixedLines_shouldReturnResultsInLineOrder() {
+        when(productRepositoryPort.findOwnership(1L, 1L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
+        when(productRepositoryPort.insertAll(eq(1L), anyList())).thenReturn(Flux.just(
+                new Product(10L, 1L, "Laptop", 5),
+                new Product(null, 1L, "Mouse", 3)
+        ));
+
+        Flux<Product> products = Flux.just(
+                new Product(null, 1L, "Laptop", 5),
+                new Product(null, 1L, "", 1),
+                new Product(null, 1L, "Mouse", 3)
+        );
+
+        StepVerifier.create(useCase.importProducts(1L, 1L, products))
+                .assertNext(result -> {
+                    assertEquals(1, result.line());
+                    assertEquals(ProductImportResult.Status.CREATED, result.status());
+                    assertEquals(10L, result.productId());
+                })
+                .assertNext(result -> {
+                    assertEquals(2, result.line());
+                    assertEquals(ProductImportResult.Status.INVALID, result.status());
+                    assertEquals("Product name is required", result.message());
+                })
+                .assertNext(result -> {
+                    assertEquals(3, result.line());
+                    assertEquals(ProductImportResult.Status.DUPLICATE, result.status());
+                    assertNull(result.productId());
+                    assertEquals(TechnicalMessage.PRODUCT_NAME_ALREADY_EXISTS.getMessage(), result.message());
+                })
+                .verifyComplete();
+
+        verify(topStockIndex).onProductSaved(new Product(10L, 1L, "Laptop", 5));
+        assertEquals(1L, franchiseVersions.current(1L));
+    }
+
+    @Test
+    void importProducts_manyLines_shouldInsertInBatchesAfterSingleOwnershipCheck() {
+        int lines = ImportProductsUseCaseImpl.BATCH_SIZE * 2 + 1;
+        when(productRepositoryPort.findOwnership(1L, 1L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
+        when(productRepositoryPort.insertAll(eq(1L), anyList()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Product>>getArgument(1)));
+
+        Flux<Product> products = Flux.range(0, lines)
+                .map(i -> new Product(null, 1L, "Product " + i, i));
+
+        StepVerifier.create(useCase.importProducts(1L, 1L, products))
+                .expectNextCount(lines)
+                .verifyComplete();
+
+        verify(productRepositoryPort, times(1)).findOwnership(1L, 1L, null);
+        verify(productRepositoryPort, times(3)).insertAll(eq(1L), anyList());
+        assertEquals(3L, franchiseVersions.current(1L));
+    }
+
+    @Test
+    void importProducts_branchNotFound_shouldReturnNotFoundException() {
+        when(productRepositoryPort.findOwnership(1L, 99L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
+
+        StepVerifier.create(useCase.importProducts(1L, 99L, Flux.just(new Product(null, 99L, "Laptop", 5))))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.BRANCH_NOT_FOUND
+                )
+                .verify();
+
+        verify(productRepositoryPort, never()).insertAll(eq(99L), anyList());
+    }
+
+    @Test
+    void importProducts_onlyInvalidLines_shouldNotTouchDatabase() {
+        when(productRepositoryPort.findOwnership(1L, 1L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
+
+        StepVerifier.create(useCase.importProducts(1L, 1L, Flux.just(new Product(null, 1L, "Laptop", -1))))
+                .assertNext(result -> assertEquals(ProductImportResult.Status.INVALID, result.status()))
+                .verifyComplete();
+
+        verify(productRepositoryPort, never()).insertAll(eq(1L), anyList());
+        assertEquals(0L, franchiseVersions.current(1L));
+    }
+}
@@ -1,22 +1,23 @@
 package com.red.franquicias.application.usecase.product;
 
-import com.red.franquicias.application.port.out.BranchRepositoryPort;
-import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
-import com.red.franquicias.domain.model.Branch;
-import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.domain.model.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,39 +26,49 @@ class RemoveProductUseCaseImplTest {
     private ProductRepositoryPort productRepositoryPort;
 
     @Mock
-    private BranchRepositoryPort branchRepositoryPort;
+    private TopStockIndex topStockIndex;
 
-    @Mock
-    private FranchiseRepositoryPort franchiseRepositoryPort;
+    @Spy
+    private FranchiseVersions franchiseVersions;
 
     @InjectMocks
     private RemoveProductUseCaseImpl useCase;
 
-    private Franchise existingFranchise;
-    private Branch existingBranch;
     private Product existingProduct;
 
     @BeforeEach
     void setUp() {
-        existingFranchise = new Franchise(1L, "Test Franchise");
-        existingBranch = new Branch(1L, 1L, "Test Branch");
         existingProduct = new Product(1L, 1L, "Test Product", 10);
     }
 
     @Test
     void remove_validProduct_shouldCompleteSuccessfully() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.just(existingProduct));
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
         when(productRepositoryPort.deleteById(1L)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.remove(1L, 1L, 1L))
                 .verifyComplete();
+
+        verify(topStockIndex).onProductRemoved(1L);
+        assertEquals(1L, franchiseVersions.current(1L));
+    }
+
+    @Test
+    void remove_validProduct_shouldResolveOwnershipInSingleQuery() {
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
+        when(productRepositoryPort.deleteById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(useCase.remove(1L, 1L, 1L))
+                .verifyComplete();
+
+        verify(productRepositoryPort, times(1)).findOwnership(1L, 1L, 1L);
+        verify(productRepositoryPort, times(1)).deleteById(1L);
+        verifyNoMoreInteractions(productRepositoryPort);
     }
 
     @Test
     void remove_franchiseNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(999L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(999L, 1L, 1L)).thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.remove(1L, 1L, 999L))
                 .expectErrorMatches(ex ->
@@ -70,8 +81,8 @@ class RemoveProductUseCaseImplTest {
 
     @Test
     void remove_branchNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
 
         StepVerifier.create(useCase.remove(1L, 1L, 1L))
                 .expectErrorMatches(ex ->
@@ -84,8 +95,8 @@ class RemoveProductUseCaseImplTest {
 
     @Test
     void remove_branchNotBelongsToFranchise_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
 
         StepVerifier.create(useCase.remove(1L, 1L, 1L))
                 .expectErrorMatches(ex ->
@@ -98,9 +109,8 @@ class RemoveProductUseCaseImplTest {
 
     @Test
     void remove_productNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(999L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 999L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
 
         StepVerifier.create(useCase.remove(999L, 1L, 1L))
                 .expectErrorMatches(ex ->
@@ -113,9 +123,8 @@ class RemoveProductUseCaseImplTest {
 
     @Test
     void remove_productNotBelongsToBranch_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
 
         StepVerifier.create(useCase.remove(1L, 1L, 1L))
                 .expectErrorMatches(ex ->
@@ -125,5 +134,8 @@ class RemoveProductUseCaseImplTest {
 
                 .verify();
     }
-}
 
+    private ProductOwnershipRow ownershipOf(Product product) {
+        return new ProductOwnershipRow(1L, product.getBranchId(), product.getId(), product.getName(), product.getStock());
+    }
+}
@@ -0,0 +1,56 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.BranchRepositoryPort;
+import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.domain.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopStockIndexLoaderTest {
+
+    @Mock
+    private FranchiseRepositoryPort franchiseRepositoryPort;
+
+    @Mock
+    private BranchRepositoryPort branchRepositoryPort;
+
+    @Mock
+    private ProductRepositoryPort productRepositoryPort;
+
+    @Test
+    void load_shouldFillTheIndexAndMarkItReady() {
+        TopStockIndex index = new TopStockIndex();
+        when(franchiseRepositoryPort.findAll()).thenReturn(Flux.just(new Franchise(1L, "Franchise")));
+        when(branchRepositoryPort.findAll()).thenReturn(Flux.just(new Branch(2L, 1L, "Branch")));
+        when(productRepositoryPort.findAll()).thenReturn(Flux.just(new Product(3L, 2L, "Product", 10)));
+
+        new TopStockIndexLoader(index, franchiseRepositoryPort, branchRepositoryPort, productRepositoryPort).load();
+
+        assertTrue(index.isReady());
+        assertEquals(3L, index.topProducts(1L).results().get(0).product().productId());
+    }
+
+    @Test
+    void load_databaseError_shouldLeaveTheIndexNotReady() {
+        TopStockIndex index = new TopStockIndex();
+        when(franchiseRepositoryPort.findAll()).thenReturn(Flux.error(new IllegalStateException("down")));
+        when(branchRepositoryPort.findAll()).thenReturn(Flux.empty());
+        when(productRepositoryPort.findAll()).thenReturn(Flux.empty());
+
+        new TopStockIndexLoader(index, franchiseRepositoryPort, branchRepositoryPort, productRepositoryPort).load();
+
+        assertFalse(index.isReady());
+    }
+}
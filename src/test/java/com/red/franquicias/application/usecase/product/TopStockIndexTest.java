@@ -0,0 +1,210 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopStockIndexTest {
+
+    private TopStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TopStockIndex();
+        index.startLoading();
+        index.loadFranchise(new Franchise(1L, "Test Franchise"));
+        index.loadBranch(new Branch(1L, 1L, "Branch 1"));
+        index.loadBranch(new Branch(2L, 1L, "Branch 2"));
+        index.loadProduct(new Product(10L, 1L, "Product A", 10));
+        index.loadProduct(new Product(11L, 1L, "Product B", 50));
+        index.loadProduct(new Product(20L, 2L, "Product C", 30));
+        index.finishLoading();
+    }
+
+    @Test
+    void topProducts_notReady_shouldReturnNull() {
+        TopStockIndex empty = new TopStockIndex();
+
+        assertNull(empty.topProducts(1L));
+    }
+
+    @Test
+    void topProducts_loaded_shouldReturnHighestStockPerBranch() {
+        TopProductsResult result = index.topProducts(1L);
+
+        assertEquals("Test Franchise", result.franchiseName());
+        assertEquals(2, result.results().size());
+        assertEquals(11L, result.results().get(0).product().productId());
+        assertEquals(20L, result.results().get(1).product().productId());
+    }
+
+    @Test
+    void topProducts_tiedStock_shouldReturnAllTiedProducts() {
+        index.onProductSaved(new Product(12L, 1L, "Product D", 50));
+
+        TopProductsResult result = index.topProducts(1L);
+
+        assertEquals(3, result.results().size());
+        assertEquals(2, result.results().stream().filter(r -> r.branchId().equals(1L)).count());
+    }
+
+    @Test
+    void onProductSaved_stockChange_shouldReorderBranch() {
+        index.onProductSaved(new Product(10L, 1L, "Product A", 70));
+
+        assertEquals(10L, index.topProducts(1L).results().get(0).product().productId());
+        assertEquals(70, index.topProducts(1L).results().get(0).product().stock());
+    }
+
+    @Test
+    void onStockChanged_knownProduct_shouldKeepNameAndReorder() {
+        index.onStockChanged(10L, 80);
+
+        BranchTopProduct top = index.topProducts(1L).results().get(0);
+        assertEquals(10L, top.product().productId());
+        assertEquals("Product A", top.product().name());
+        assertEquals(80, top.product().stock());
+    }
+
+    @Test
+    void loadProduct_afterConcurrentStockChange_shouldKeepChangedStock() {
+        TopStockIndex loading = new TopStockIndex();
+        loading.startLoading();
+        loading.loadFranchise(new Franchise(1L, "Test Franchise"));
+        loading.loadBranch(new Branch(1L, 1L, "Branch 1"));
+        loading.onStockChanged(10L, 99);
+        loading.loadProduct(new Product(10L, 1L, "Product A", 10));
+        loading.finishLoading();
+
+        assertEquals(99, loading.topProducts(1L).results().get(0).product().stock());
+    }
+
+    @Test
+    void onProductRemoved_topProduct_shouldFallBackToNextHighest() {
+        index.onProductRemoved(11L);
+
+        assertEquals(10L, index.topProducts(1L).results().get(0).product().productId());
+    }
+
+    @Test
+    void onBranchAndFranchiseSaved_rename_shouldBeVisible() {
+        index.onFranchiseSaved(new Franchise(1L, "Renamed Franchise"));
+        index.onBranchSaved(new Branch(2L, 1L, "Renamed Branch"));
+
+        TopProductsResult result = index.topProducts(1L);
+
+        assertEquals("Renamed Franchise", result.franchiseName());
+        assertEquals("Renamed Branch", result.results().get(1).branchName());
+    }
+
+    @Test
+    void topProducts_franchiseWithoutBranches_shouldReturnNull() {
+        index.onFranchiseSaved(new Franchise(2L, "Empty Franchise"));
+
+        assertNull(index.topProducts(2L));
+        assertNull(index.topProducts(999L));
+    }
+
+    @Test
+    void loadProduct_afterConcurrentWrite_shouldKeepWrittenValue() {
+        TopStockIndex loading = new TopStockIndex();
+        loading.startLoading();
+        loading.loadFranchise(new Franchise(1L, "Test Franchise"));
+        loading.loadBranch(new Branch(1L, 1L, "Branch 1"));
+        loading.onProductSaved(new Product(10L, 1L, "Product A", 99));
+        loading.onProductRemoved(11L);
+        loading.loadProduct(new Product(10L, 1L, "Product A", 10));
+        loading.loadProduct(new Product(11L, 1L, "Product B", 50));
+        loading.finishLoading();
+
+        TopProductsResult result = loading.topProducts(1L);
+
+        assertEquals(1, result.results().size());
+        assertEquals(99, result.results().get(0).product().stock());
+    }
+
+    @Test
+    void onProductRead_olderReadArrivingLast_shouldBeIgnored() {
+        long first = index.startRead();
+        long second = index.startRead();
+
+        index.onProductRead(10L, second, new Product(10L, 1L, "Product A", 90));
+        index.onProductRead(10L, first, new Product(10L, 1L, "Product A", 40));
+
+        TopProductsResult result = index.topProducts(1L);
+        assertEquals(10L, result.results().get(0).product().productId());
+        assertEquals(90, result.results().get(0).product().stock());
+    }
+
+    @Test
+    void onProductRead_startedBeforeRemoval_shouldNotBringProductBack() {
+        long read = index.startRead();
+        index.onProductRemoved(11L);
+
+        index.onProductRead(11L, read, new Product(11L, 1L, "Product B", 50));
+
+        assertEquals(10L, index.topProducts(1L).results().get(0).product().productId());
+    }
+
+    @Test
+    void refresh_shouldApplyTheRowReadBack() {
+        StepVerifier.create(index.refresh(10L, id -> Mono.just(new Product(id, 1L, "Product A", 80))))
+                .verifyComplete();
+        StepVerifier.create(index.refresh(11L, id -> Mono.empty())).verifyComplete();
+
+        TopProductsResult result = index.topProducts(1L);
+        assertEquals(1, result.results().stream().filter(r -> r.branchId().equals(1L)).count());
+        assertEquals(80, result.results().get(0).product().stock());
+    }
+
+    @Test
+    void refresh_beforeLoading_shouldNotRead() {
+        AtomicBoolean read = new AtomicBoolean();
+
+        StepVerifier.create(new TopStockIndex().refresh(10L, id -> Mono.fromRunnable(() -> read.set(true))))
+                .verifyComplete();
+
+        assertFalse(read.get());
+    }
+
+    @Test
+    void onProductSaved_beforeLoading_shouldBeIgnored() {
+        TopStockIndex passive = new TopStockIndex();
+        passive.onProductSaved(new Product(10L, 1L, "Product A", 10));
+        passive.startLoading();
+        passive.finishLoading();
+
+        assertNull(passive.topProducts(1L));
+    }
+
+    @Test
+    void topProducts_duringConcurrentStockChanges_shouldAlwaysReturnOneTopPerBranch() throws InterruptedException {
+        index.onProductRemoved(10L);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int stock = 0; running.get(); stock = (stock + 1) % 100) {
+                index.onStockChanged(11L, stock);
+                index.onStockChanged(20L, 99 - stock);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                TopProductsResult result = index.topProducts(1L);
+                assertEquals(List.of(1L, 2L), result.results().stream().map(BranchTopProduct::branchId).toList());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -1,12 +1,8 @@
 package com.red.franquicias.application.usecase.product;
 
-import com.red.franquicias.application.port.out.BranchRepositoryPort;
-import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
-import com.red.franquicias.domain.model.Branch;
-import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.domain.model.Product;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +20,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -38,16 +37,6 @@ class UpdateProductNameUseCaseImplValidationTest {
             return Mockito.mock(ProductRepositoryPort.class);
         }
 
-        @Bean
-        BranchRepositoryPort branchRepositoryPort() {
-            return Mockito.mock(BranchRepositoryPort.class);
-        }
-
-        @Bean
-        FranchiseRepositoryPort franchiseRepositoryPort() {
-            return Mockito.mock(FranchiseRepositoryPort.class);
-        }
-
         @Bean
         LocalValidatorFactoryBean validator() {
             return new LocalValidatorFactoryBean();
@@ -61,12 +50,8 @@ class UpdateProductNameUseCaseImplValidationTest {
         }
 
         @Bean
-        UpdateProductNameUseCase updateProductNameUseCase(
-                ProductRepositoryPort productRepositoryPort,
-                BranchRepositoryPort branchRepositoryPort,
-                FranchiseRepositoryPort franchiseRepositoryPort
-        ) {
-            return new UpdateProductNameUseCaseImpl(productRepositoryPort, branchRepositoryPort, franchiseRepositoryPort);
+        UpdateProductNameUseCase updateProductNameUseCase(ProductRepositoryPort productRepositoryPort) {
+            return new UpdateProductNameUseCaseImpl(productRepositoryPort, new TopStockIndex(), new FranchiseVersions());
         }
     }
 
@@ -76,31 +61,18 @@ class UpdateProductNameUseCaseImplValidationTest {
     @Autowired
     private ProductRepositoryPort productRepositoryPort;
 
-    @Autowired
-    private BranchRepositoryPort branchRepositoryPort;
-
-    @Autowired
-    private FranchiseRepositoryPort franchiseRepositoryPort;
-
-    private Franchise existingFranchise;
-    private Branch existingBranch;
     private Product existingProduct;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(productRepositoryPort, branchRepositoryPort, franchiseRepositoryPort);
-        existingFranchise = new Franchise(1L, "Test Franchise");
-        existingBranch = new Branch(1L, 1L, "Test Branch");
+        Mockito.reset(productRepositoryPort);
         existingProduct = new Product(1L, 1L, "Original Name", 10);
     }
 
     @Test
     void updateName_validName_shouldReturnUpdatedProduct() {
         Product updatedProduct = new Product(1L, 1L, "New Name", 10);
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.just(existingProduct));
-        when(productRepositoryPort.existsByNameAndBranchId("New Name", 1L)).thenReturn(Mono.just(false));
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
         when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(updatedProduct));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "New Name")))
@@ -108,6 +80,20 @@ class UpdateProductNameUseCaseImplValidationTest {
                 .verifyComplete();
     }
 
+    @Test
+    void updateName_validName_shouldResolveOwnershipInSingleQuery() {
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
+        when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(new Product(1L, 1L, "New Name", 10)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "New Name")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(productRepositoryPort, times(1)).findOwnership(1L, 1L, 1L);
+        verify(productRepositoryPort, times(1)).save(any(Product.class));
+        verifyNoMoreInteractions(productRepositoryPort);
+    }
+
     @Test
     void updateName_emptyName_shouldThrowConstraintViolationException() {
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "")))
@@ -154,7 +140,7 @@ class UpdateProductNameUseCaseImplValidationTest {
 
     @Test
     void updateName_franchiseNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(999L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(999L, 1L, 1L)).thenReturn(Mono.empty());
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 999L, "New Name")))
                 .expectErrorMatches(ex ->
@@ -166,8 +152,8 @@ class UpdateProductNameUseCaseImplValidationTest {
 
     @Test
     void updateName_branchNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "New Name")))
                 .expectErrorMatches(ex ->
@@ -179,9 +165,8 @@ class UpdateProductNameUseCaseImplValidationTest {
 
     @Test
     void updateName_productNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(999L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 999L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(999L, 1L, 1L, "New Name")))
                 .expectErrorMatches(ex ->
@@ -193,9 +178,8 @@ class UpdateProductNameUseCaseImplValidationTest {
 
     @Test
     void updateName_productNotBelongsToBranch_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "New Name")))
                 .expectErrorMatches(ex ->
@@ -207,10 +191,9 @@ class UpdateProductNameUseCaseImplValidationTest {
 
     @Test
     void updateName_duplicateName_shouldReturnConflictException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.just(existingProduct));
-        when(productRepositoryPort.existsByNameAndBranchId("Duplicate Name", 1L)).thenReturn(Mono.just(true));
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
+        when(productRepositoryPort.save(any(Product.class)))
+                .thenReturn(Mono.error(new BusinessException(TechnicalMessage.PRODUCT_NAME_ALREADY_EXISTS)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "Duplicate Name")))
                 .expectErrorMatches(ex ->
@@ -222,14 +205,15 @@ class UpdateProductNameUseCaseImplValidationTest {
 
     @Test
     void updateName_sameName_shouldReturnUpdatedProduct() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.just(existingProduct));
-        when(productRepositoryPort.existsByNameAndBranchId("Original Name", 1L)).thenReturn(Mono.just(true));
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
         when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(existingProduct));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateName(1L, 1L, 1L, "Original Name")))
                 .expectNext(existingProduct)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    private ProductOwnershipRow ownershipOf(Product product) {
+        return new ProductOwnershipRow(1L, product.getBranchId(), product.getId(), product.getName(), product.getStock());
+    }
+}
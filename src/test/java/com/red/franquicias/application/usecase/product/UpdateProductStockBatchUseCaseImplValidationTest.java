@@ -0,0 +1,168 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.validation.beanvalidation.MethodValidationPostProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = UpdateProductStockBatchUseCaseImplValidationTest.Config.class)
+class UpdateProductStockBatchUseCaseImplValidationTest {
+
+    @Configuration
+    static class Config {
+
+        @Bean
+        ProductRepositoryPort productRepositoryPort() {
+            return Mockito.mock(ProductRepositoryPort.class);
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        MethodValidationPostProcessor methodValidationPostProcessor(LocalValidatorFactoryBean validator) {
+            MethodValidationPostProcessor processor = new MethodValidationPostProcessor();
+            processor.setValidator(validator);
+            return processor;
+        }
+
+        @Bean
+        UpdateProductStockBatchUseCase updateProductStockBatchUseCase(ProductRepositoryPort productRepositoryPort) {
+            return new UpdateProductStockBatchUseCaseImpl(productRepositoryPort, new TopStockIndex(), new FranchiseVersions());
+        }
+    }
+
+    @Autowired
+    private UpdateProductStockBatchUseCase useCase;
+
+    @Autowired
+    private ProductRepositoryPort productRepositoryPort;
+
+    private ProductOwnershipRow existingBranch;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(productRepositoryPort);
+        existingBranch = new ProductOwnershipRow(1L, 1L, null, null, null);
+    }
+
+    @Test
+    void updateStocks_mixedItems_shouldReturnPerItemResults() {
+        List<ProductStockChange> changes = List.of(
+                new ProductStockChange(1L, 5),
+                new ProductStockChange(2L, -1),
+                new ProductStockChange(3L, 7)
+        );
+        List<ProductStockChange> sent = List.of(changes.get(0), changes.get(2));
+        when(productRepositoryPort.findOwnership(1L, 1L, null)).thenReturn(Mono.just(existingBranch));
+        when(productRepositoryPort.setStocks(1L, sent)).thenReturn(Flux.just(1L, 0L));
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(1L, 1L, changes)))
+                .assertNext(results -> {
+                    assertEquals(3, results.size());
+                    assertEquals(ProductStockChangeResult.Status.UPDATED, results.get(0).status());
+                    assertEquals(ProductStockChangeResult.Status.INVALID, results.get(1).status());
+                    assertEquals(ProductStockChangeResult.Status.NOT_FOUND, results.get(2).status());
+                    assertEquals(3L, results.get(2).productId());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void updateStocks_thousandItems_shouldValidateBranchOnceAndSendOneBatch() {
+        List<ProductStockChange> changes = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            changes.add(new ProductStockChange(id, 10));
+        }
+        when(productRepositoryPort.findOwnership(1L, 1L, null)).thenReturn(Mono.just(existingBranch));
+        when(productRepositoryPort.setStocks(1L, changes))
+                .thenReturn(Flux.fromIterable(Collections.nCopies(1000, 1L)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(1L, 1L, changes)))
+                .assertNext(results -> assertEquals(1000, results.size()))
+                .verifyComplete();
+
+        verify(productRepositoryPort, times(1)).findOwnership(1L, 1L, null);
+        verify(productRepositoryPort, times(1)).setStocks(1L, changes);
+        verifyNoMoreInteractions(productRepositoryPort);
+    }
+
+    @Test
+    void updateStocks_emptyList_shouldThrowConstraintViolationException() {
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(1L, 1L, List.of())))
+                .expectError(ConstraintViolationException.class)
+                .verify();
+    }
+
+    @Test
+    void updateStocks_nullList_shouldThrowConstraintViolationException() {
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(1L, 1L, null)))
+                .expectError(ConstraintViolationException.class)
+                .verify();
+    }
+
+    @Test
+    void updateStocks_tooManyItems_shouldThrowConstraintViolationException() {
+        List<ProductStockChange> changes = Collections.nCopies(5001, new ProductStockChange(1L, 1));
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(1L, 1L, changes)))
+                .expectError(ConstraintViolationException.class)
+                .verify();
+    }
+
+    @Test
+    void updateStocks_franchiseNotFound_shouldReturnNotFoundException() {
+        when(productRepositoryPort.findOwnership(999L, 1L, null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(999L, 1L, List.of(new ProductStockChange(1L, 5)))))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.FRANCHISE_NOT_FOUND
+                )
+                .verify();
+
+        verify(productRepositoryPort, never()).setStocks(Mockito.anyLong(), anyList());
+    }
+
+    @Test
+    void updateStocks_branchNotFound_shouldReturnNotFoundException() {
+        when(productRepositoryPort.findOwnership(1L, 1L, null))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateStocks(1L, 1L, List.of(new ProductStockChange(1L, 5)))))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.BRANCH_NOT_FOUND
+                )
+                .verify();
+    }
+}
@@ -1,12 +1,8 @@
 package com.red.franquicias.application.usecase.product;
 
-import com.red.franquicias.application.port.out.BranchRepositoryPort;
-import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
 import com.red.franquicias.application.port.out.ProductRepositoryPort;
 import com.red.franquicias.domain.enums.TechnicalMessage;
 import com.red.franquicias.domain.exception.BusinessException;
-import com.red.franquicias.domain.model.Branch;
-import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.domain.model.Product;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +20,10 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -38,16 +38,6 @@ class UpdateProductStockUseCaseImplValidationTest {
             return Mockito.mock(ProductRepositoryPort.class);
         }
 
-        @Bean
-        BranchRepositoryPort branchRepositoryPort() {
-            return Mockito.mock(BranchRepositoryPort.class);
-        }
-
-        @Bean
-        FranchiseRepositoryPort franchiseRepositoryPort() {
-            return Mockito.mock(FranchiseRepositoryPort.class);
-        }
-
         @Bean
         LocalValidatorFactoryBean validator() {
             return new LocalValidatorFactoryBean();
@@ -61,12 +51,8 @@ class UpdateProductStockUseCaseImplValidationTest {
         }
 
         @Bean
-        UpdateProductStockUseCase updateProductStockUseCase(
-                ProductRepositoryPort productRepositoryPort,
-                BranchRepositoryPort branchRepositoryPort,
-                FranchiseRepositoryPort franchiseRepositoryPort
-        ) {
-            return new UpdateProductStockUseCaseImpl(productRepositoryPort, branchRepositoryPort, franchiseRepositoryPort);
+        UpdateProductStockUseCase updateProductStockUseCase(ProductRepositoryPort productRepositoryPort) {
+            return new UpdateProductStockUseCaseImpl(productRepositoryPort, new TopStockIndex(), new FranchiseVersions());
         }
     }
 
@@ -76,44 +62,40 @@ class UpdateProductStockUseCaseImplValidationTest {
     @Autowired
     private ProductRepositoryPort productRepositoryPort;
 
-    @Autowired
-    private BranchRepositoryPort branchRepositoryPort;
-
-    @Autowired
-    private FranchiseRepositoryPort franchiseRepositoryPort;
-
-    private Franchise existingFranchise;
-    private Branch existingBranch;
     private Product existingProduct;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(productRepositoryPort, branchRepositoryPort, franchiseRepositoryPort);
-        existingFranchise = new Franchise(1L, "Test Franchise");
-        existingBranch = new Branch(1L, 1L, "Test Branch");
+        Mockito.reset(productRepositoryPort);
         existingProduct = new Product(1L, 1L, "Test Product", 10);
     }
 
     @Test
     void updateStock_validStock_shouldReturnUpdatedProduct() {
         Product updatedProduct = new Product(1L, 1L, "Test Product", 25);
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.just(existingProduct));
-        when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(updatedProduct));
+        when(productRepositoryPort.setStock(1L, 1L, 1L, 25)).thenReturn(Mono.just(updatedProduct));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateStock(1L, 1L, 1L, 25)))
                 .expectNext(updatedProduct)
                 .verifyComplete();
     }
 
+    @Test
+    void updateStock_validStock_shouldUpdateInSingleStatementWithoutSave() {
+        when(productRepositoryPort.setStock(1L, 1L, 1L, 25)).thenReturn(Mono.just(new Product(1L, 1L, "Test Product", 25)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.updateStock(1L, 1L, 1L, 25)))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(productRepositoryPort, times(1)).setStock(1L, 1L, 1L, 25);
+        verifyNoMoreInteractions(productRepositoryPort);
+    }
+
     @Test
     void updateStock_zeroStock_shouldReturnUpdatedProduct() {
         Product updatedProduct = new Product(1L, 1L, "Test Product", 0);
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.just(existingProduct));
-        when(productRepositoryPort.save(any(Product.class))).thenReturn(Mono.just(updatedProduct));
+        when(productRepositoryPort.setStock(1L, 1L, 1L, 0)).thenReturn(Mono.just(updatedProduct));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateStock(1L, 1L, 1L, 0)))
                 .expectNext(updatedProduct)
@@ -157,7 +139,8 @@ class UpdateProductStockUseCaseImplValidationTest {
 
     @Test
     void updateStock_franchiseNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(999L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.setStock(1L, 1L, 999L, 25)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(999L, 1L, 1L)).thenReturn(Mono.empty());
 
         StepVerifier.create(Mono.defer(() -> useCase.updateStock(1L, 1L, 999L, 25)))
                 .expectErrorMatches(ex ->
@@ -169,8 +152,9 @@ class UpdateProductStockUseCaseImplValidationTest {
 
     @Test
     void updateStock_branchNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.setStock(1L, 1L, 1L, 25)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateStock(1L, 1L, 1L, 25)))
                 .expectErrorMatches(ex ->
@@ -182,9 +166,9 @@ class UpdateProductStockUseCaseImplValidationTest {
 
     @Test
     void updateStock_productNotFound_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(999L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.setStock(999L, 1L, 1L, 25)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 999L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateStock(999L, 1L, 1L, 25)))
                 .expectErrorMatches(ex ->
@@ -196,9 +180,9 @@ class UpdateProductStockUseCaseImplValidationTest {
 
     @Test
     void updateStock_productNotBelongsToBranch_shouldReturnNotFoundException() {
-        when(franchiseRepositoryPort.findById(1L)).thenReturn(Mono.just(existingFranchise));
-        when(branchRepositoryPort.findByIdAndFranchiseId(1L, 1L)).thenReturn(Mono.just(existingBranch));
-        when(productRepositoryPort.findByIdAndBranchId(1L, 1L)).thenReturn(Mono.empty());
+        when(productRepositoryPort.setStock(1L, 1L, 1L, 25)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, 1L, null, null, null)));
 
         StepVerifier.create(Mono.defer(() -> useCase.updateStock(1L, 1L, 1L, 25)))
                 .expectErrorMatches(ex ->
@@ -207,4 +191,54 @@ class UpdateProductStockUseCaseImplValidationTest {
                 )
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void adjustStock_validDelta_shouldReturnUpdatedProduct() {
+        Product updatedProduct = new Product(1L, 1L, "Test Product", 7);
+        when(productRepositoryPort.addStock(1L, 1L, 1L, -3)).thenReturn(Mono.just(updatedProduct));
+
+        StepVerifier.create(Mono.defer(() -> useCase.adjustStock(1L, 1L, 1L, -3)))
+                .expectNext(updatedProduct)
+                .verifyComplete();
+
+        verify(productRepositoryPort, never()).save(any(Product.class));
+    }
+
+    @Test
+    void adjustStock_nullDelta_shouldThrowConstraintViolationException() {
+        StepVerifier.create(Mono.defer(() -> useCase.adjustStock(1L, 1L, 1L, null)))
+                .expectError(ConstraintViolationException.class)
+                .verify();
+    }
+
+    @Test
+    void adjustStock_deltaBelowZero_shouldReturnConflictException() {
+        when(productRepositoryPort.addStock(1L, 1L, 1L, -11)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L)).thenReturn(Mono.just(ownershipOf(existingProduct)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.adjustStock(1L, 1L, 1L, -11)))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.PRODUCT_STOCK_INSUFFICIENT
+                )
+                .verify();
+    }
+
+    @Test
+    void adjustStock_branchNotFound_shouldReturnNotFoundException() {
+        when(productRepositoryPort.addStock(1L, 1L, 1L, 5)).thenReturn(Mono.empty());
+        when(productRepositoryPort.findOwnership(1L, 1L, 1L))
+                .thenReturn(Mono.just(new ProductOwnershipRow(1L, null, null, null, null)));
+
+        StepVerifier.create(Mono.defer(() -> useCase.adjustStock(1L, 1L, 1L, 5)))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.BRANCH_NOT_FOUND
+                )
+                .verify();
+    }
+
+    private ProductOwnershipRow ownershipOf(Product product) {
+        return new ProductOwnershipRow(1L, product.getBranchId(), product.getId(), product.getName(), product.getStock());
+    }
+}
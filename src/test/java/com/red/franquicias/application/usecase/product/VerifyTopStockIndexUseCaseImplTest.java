@@ -0,0 +1,81 @@
+package com.red.franquicias.application.usecase.product;
+
+import com.red.franquicias.application.port.out.ProductRepositoryPort;
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.domain.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VerifyTopStockIndexUseCaseImplTest {
+
+    @Mock
+    private ProductRepositoryPort productRepositoryPort;
+
+    private TopStockIndex topStockIndex;
+
+    private VerifyTopStockIndexUseCaseImpl useCase;
+
+    @BeforeEach
+    void setUp() {
+        topStockIndex = new TopStockIndex();
+        topStockIndex.startLoading();
+        topStockIndex.loadFranchise(new Franchise(1L, "Test Franchise"));
+        topStockIndex.loadBranch(new Branch(1L, 1L, "Branch 1"));
+        topStockIndex.loadBranch(new Branch(2L, 1L, "Branch 2"));
+        topStockIndex.loadProduct(new Product(10L, 1L, "Product A", 50));
+        topStockIndex.loadProduct(new Product(11L, 1L, "Product B", 50));
+        topStockIndex.finishLoading();
+        useCase = new VerifyTopStockIndexUseCaseImpl(productRepositoryPort, topStockIndex);
+    }
+
+    @Test
+    void verify_sameContentInDifferentOrder_shouldBeConsistent() {
+        when(productRepositoryPort.findTopProductsByFranchiseId(1L)).thenReturn(Flux.just(
+                new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 11L, "Product B", 50),
+                new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 10L, "Product A", 50),
+                new BranchTopProductRow(1L, "Test Franchise", 2L, "Branch 2", null, null, null)
+        ));
+
+        StepVerifier.create(useCase.verify(1L))
+                .assertNext(report -> {
+                    assertTrue(report.indexReady());
+                    assertTrue(report.consistent());
+                    assertEquals(2, report.databaseResult().results().size());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void verify_staleStock_shouldBeInconsistent() {
+        when(productRepositoryPort.findTopProductsByFranchiseId(1L)).thenReturn(Flux.just(
+                new BranchTopProductRow(1L, "Test Franchise", 1L, "Branch 1", 10L, "Product A", 60)
+        ));
+
+        StepVerifier.create(useCase.verify(1L))
+                .assertNext(report -> assertFalse(report.consistent()))
+                .verifyComplete();
+    }
+
+    @Test
+    void verify_unknownFranchiseEverywhere_shouldBeConsistent() {
+        when(productRepositoryPort.findTopProductsByFranchiseId(999L)).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.verify(999L))
+                .assertNext(report -> {
+                    assertTrue(report.consistent());
+                    assertNull(report.indexResult());
+                    assertNull(report.databaseResult());
+                })
+                .verifyComplete();
+    }
+}
@@ -22,4 +22,22 @@ class BusinessExceptionTest {
                 exception.getTechnicalMessage()
         );
     }
+
+    @Test
+    void of_sameTechnicalMessage_shouldReturnSharedInstance() {
+        BusinessException first = BusinessException.of(TechnicalMessage.PRODUCT_NOT_FOUND);
+
+        assertSame(first, BusinessException.of(TechnicalMessage.PRODUCT_NOT_FOUND));
+        assertEquals(TechnicalMessage.PRODUCT_NOT_FOUND, first.getTechnicalMessage());
+        assertEquals(TechnicalMessage.PRODUCT_NOT_FOUND.getMessage(), first.getMessage());
+    }
+
+    @Test
+    void of_technicalMessage_shouldBeStacklessAndIgnoreSuppressed() {
+        BusinessException exception = BusinessException.of(TechnicalMessage.BRANCH_NOT_FOUND);
+        exception.addSuppressed(new RuntimeException("other"));
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(0, exception.getSuppressed().length);
+    }
 }
@@ -0,0 +1,92 @@
+package com.red.franquicias.infrastructure.config;
+
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class GlobalErrorHandlerBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    private static final String PATH = "/api/franchises/1/branches/1/products/999";
+
+    private final GlobalErrorHandler handler = new GlobalErrorHandler();
+    private final DefaultDataBufferFactory legacyBufferFactory = new DefaultDataBufferFactory();
+
+    @Test
+    void preEncodedErrors_shouldMatchLegacyBodyAndReportCost() {
+        for (TechnicalMessage technicalMessage : TechnicalMessage.values()) {
+            BusinessException ex = BusinessException.of(technicalMessage);
+            assertEquals(withoutTimestamp(body(this::legacyHandle, ex)), withoutTimestamp(body(handler::handle, ex)));
+        }
+
+        BusinessException notFound = BusinessException.of(TechnicalMessage.PRODUCT_NOT_FOUND);
+        System.out.println(measure("legacy (String.format)", this::legacyHandle, notFound));
+        System.out.println(measure("pre-encoded", handler::handle, notFound));
+    }
+
+    private String measure(String name, BiFunction<ServerWebExchange, Throwable, Mono<Void>> handle, Throwable ex) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            handle.apply(MockServerWebExchange.from(MockServerHttpRequest.get(PATH)), ex).block();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH));
+            handle.apply(exchange, ex).block();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return String.format("%-40s n=%-8d %8.0f ns/op %8d B/op (includes mock exchange)",
+                name, ITERATIONS, elapsed / (double) ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private String body(BiFunction<ServerWebExchange, Throwable, Mono<Void>> handle, Throwable ex) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(PATH));
+        handle.apply(exchange, ex).block();
+        return exchange.getResponse().getStatusCode().value() + " " + exchange.getResponse().getBodyAsString().block();
+    }
+
+    private String withoutTimestamp(String body) {
+        return body.replaceFirst("\"timestamp\":\"[^\"]*\"", "\"timestamp\":\"\"");
+    }
+
+    private Mono<Void> legacyHandle(ServerWebExchange exchange, Throwable ex) {
+        BusinessException be = (BusinessException) ex;
+        HttpStatus status = HttpStatus.valueOf(Integer.parseInt(be.getTechnicalMessage().getCode()));
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        String json = String.format(
+                "{\"timestamp\":\"%s\",\"path\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\"}",
+                LocalDateTime.now(),
+                exchange.getRequest().getPath().value(),
+                status.value(),
+                legacyEscape(status.getReasonPhrase()),
+                legacyEscape(be.getTechnicalMessage().getMessage())
+        );
+        return exchange.getResponse().writeWith(Mono.just(legacyBufferFactory.wrap(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private String legacyEscape(String v) {
+        return v.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r");
+    }
+}
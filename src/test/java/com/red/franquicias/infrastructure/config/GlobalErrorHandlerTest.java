@@ -0,0 +1,83 @@
+package com.red.franquicias.infrastructure.config;
+
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.domain.exception.TechnicalException;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.pool.PoolAcquirePendingLimitException;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalErrorHandlerTest {
+
+    private final GlobalErrorHandler handler = new GlobalErrorHandler();
+
+    @Test
+    void handle_businessException_shouldWritePreEncodedBody() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/franchises/9"));
+
+        StepVerifier.create(handler.handle(exchange, BusinessException.of(TechnicalMessage.FRANCHISE_NOT_FOUND)))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+        String body = exchange.getResponse().getBodyAsString().block();
+        assertTrue(body.startsWith("{\"timestamp\":\""));
+        assertTrue(body.endsWith("\",\"path\":\"/franchises/9\",\"status\":404,\"error\":\"Not Found\","
+                + "\"message\":\"Franchise not found\"}"));
+    }
+
+    @Test
+    void handle_connectionAcquireTimeout_shouldReturnServiceUnavailable() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/franchises/9"));
+        TechnicalException ex = new TechnicalException(
+                new DataAccessResourceFailureException("Failed to obtain R2DBC Connection",
+                        new R2dbcTimeoutException("Connection acquisition timed out after 2000ms", new TimeoutException())),
+                TechnicalMessage.FRANCHISE_UPDATE_NAME_ERROR
+        );
+
+        StepVerifier.create(handler.handle(exchange, ex))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals("1", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(exchange.getResponse().getBodyAsString().block()
+                .contains(TechnicalMessage.DATABASE_UNAVAILABLE.getMessage()));
+    }
+
+    @Test
+    void handle_connectionAcquirePendingLimit_shouldReturnServiceUnavailable() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/franchises/9"));
+
+        StepVerifier.create(handler.handle(exchange, new DataAccessResourceFailureException(
+                        "Failed to obtain R2DBC Connection", new PoolAcquirePendingLimitException(100))))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void handle_statementTimeout_shouldReturnServerError() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/franchises/9"));
+        TechnicalException ex = new TechnicalException(
+                new QueryTimeoutException("Statement timed out",
+                        new R2dbcTimeoutException("Query execution was interrupted, maximum statement execution time exceeded")),
+                TechnicalMessage.FRANCHISE_UPDATE_NAME_ERROR
+        );
+
+        StepVerifier.create(handler.handle(exchange, ex))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exchange.getResponse().getStatusCode());
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
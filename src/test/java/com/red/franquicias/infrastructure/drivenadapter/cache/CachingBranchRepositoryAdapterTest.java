@@ -0,0 +1,136 @@
+package com.red.franquicias.infrastructure.drivenadapter.cache;
+
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.infrastructure.config.EntityCacheProperties;
+import com.red.franquicias.infrastructure.config.LookupBatchingProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.BranchRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingBranchRepositoryAdapterTest {
+
+    @Mock
+    private BranchRepositoryAdapter delegate;
+
+    private CachingBranchRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new CachingBranchRepositoryAdapter(delegate,
+                new EntityCacheProperties(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(5)),
+                new LookupBatchingProperties(false, Duration.ofMillis(1), 64),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void findByIdAndFranchiseId_repeatedLookups_shouldQueryOnce() {
+        when(delegate.findByIdAndFranchiseId(1L, 10L)).thenReturn(Mono.just(new Branch(1L, 10L, "Branch")));
+
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L))
+                .expectNext(new Branch(1L, 10L, "Branch"))
+                .verifyComplete();
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L))
+                .expectNext(new Branch(1L, 10L, "Branch"))
+                .verifyComplete();
+
+        verify(delegate, times(1)).findByIdAndFranchiseId(1L, 10L);
+    }
+
+    @Test
+    void findByIdAndFranchiseId_otherFranchise_shouldBeCachedSeparately() {
+        when(delegate.findByIdAndFranchiseId(1L, 10L)).thenReturn(Mono.just(new Branch(1L, 10L, "Branch")));
+        when(delegate.findByIdAndFranchiseId(1L, 20L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 20L)).verifyComplete();
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 20L)).verifyComplete();
+
+        verify(delegate, times(1)).findByIdAndFranchiseId(1L, 20L);
+    }
+
+    @Test
+    void save_rename_shouldReplaceCachedBranch() {
+        when(delegate.findByIdAndFranchiseId(1L, 10L)).thenReturn(Mono.just(new Branch(1L, 10L, "Old Name")));
+        when(delegate.save(new Branch(1L, 10L, "New Name"))).thenReturn(Mono.just(new Branch(1L, 10L, "New Name")));
+
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(adapter.save(new Branch(1L, 10L, "New Name"))).expectNextCount(1).verifyComplete();
+
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L))
+                .expectNext(new Branch(1L, 10L, "New Name"))
+                .verifyComplete();
+        verify(delegate, times(1)).findByIdAndFranchiseId(1L, 10L);
+    }
+
+    @Test
+    void findByIdAndFranchiseId_concurrentMisses_shouldBeResolvedByOneQuery() {
+        CachingBranchRepositoryAdapter batching = new CachingBranchRepositoryAdapter(delegate,
+                new EntityCacheProperties(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(5)),
+                new LookupBatchingProperties(true, Duration.ofMillis(500), 64),
+                new SimpleMeterRegistry());
+        when(delegate.findAllById(anyCollection())).thenReturn(Flux.just(
+                new Branch(1L, 10L, "First"), new Branch(2L, 10L, "Second")));
+
+        StepVerifier.create(Flux.merge(
+                        batching.findByIdAndFranchiseId(1L, 10L),
+                        batching.findByIdAndFranchiseId(2L, 10L),
+                        batching.findByIdAndFranchiseId(2L, 20L)).collectList())
+                .assertNext(branches -> assertEquals(
+                        List.of(new Branch(1L, 10L, "First"), new Branch(2L, 10L, "Second")),
+                        branches.stream().sorted(Comparator.comparing(Branch::getId)).toList()))
+                .verifyComplete();
+
+        verify(delegate, times(1)).findAllById(List.of(1L, 2L));
+        verify(delegate, never()).findByIdAndFranchiseId(anyLong(), anyLong());
+    }
+
+    @Test
+    void findByIdAndFranchiseId_onWriteRequest_shouldQueryThePrimaryAndNotCache() {
+        when(delegate.findByIdAndFranchiseId(1L, 10L)).thenReturn(Mono.deferContextual(context ->
+                ConnectionRoute.isPrimaryOnly(context) ? Mono.just(new Branch(1L, 10L, "Branch")) : Mono.empty()));
+
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L).contextWrite(ConnectionRoute.primaryOnly()))
+                .expectNext(new Branch(1L, 10L, "Branch"))
+                .verifyComplete();
+        StepVerifier.create(adapter.findByIdAndFranchiseId(1L, 10L)).verifyComplete();
+
+        verify(delegate, times(2)).findByIdAndFranchiseId(1L, 10L);
+    }
+
+    @Test
+    void findByIdAndFranchiseId_onWriteRequestWithBatching_shouldQueryThePrimaryAlone() {
+        CachingBranchRepositoryAdapter batching = new CachingBranchRepositoryAdapter(delegate,
+                new EntityCacheProperties(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(5)),
+                new LookupBatchingProperties(true, Duration.ofMillis(500), 64),
+                new SimpleMeterRegistry());
+        when(delegate.findByIdAndFranchiseId(1L, 10L)).thenReturn(Mono.deferContextual(context ->
+                ConnectionRoute.isPrimaryOnly(context) ? Mono.just(new Branch(1L, 10L, "Branch")) : Mono.empty()));
+
+        StepVerifier.create(batching.findByIdAndFranchiseId(1L, 10L).contextWrite(ConnectionRoute.primaryOnly()))
+                .expectNext(new Branch(1L, 10L, "Branch"))
+                .verifyComplete();
+
+        verify(delegate, never()).findAllById(anyCollection());
+    }
+}
@@ -0,0 +1,111 @@
+package com.red.franquicias.infrastructure.drivenadapter.cache;
+
+import com.red.franquicias.application.concurrency.BatchLoader;
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.FranchiseEntity;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.BenchmarkDataSeeder;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.FranchiseRepository;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.LatencyStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bursts of concurrent franchise lookups by distinct id, one query each against the same burst
+ * resolved through {@link BatchLoader}. Reports the latency of a whole burst and the queries it sent.
+ */
+@Tag("benchmark")
+class LookupBatchingBenchmarkTest {
+
+    private static final int FRANCHISES = Integer.getInteger("benchmark.franchises", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 512);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+
+    private static FranchiseRepository repository;
+    private static List<Long> franchiseIds;
+
+    @BeforeAll
+    static void seed() {
+        DatabaseClient databaseClient = DatabaseClient.create(TestcontainersConfig.getConnectionFactory());
+        new SchemaMigrations(TestcontainersConfig.getConnectionFactory(),
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration"), Duration.ofSeconds(30)))
+                .migrate()
+                .block();
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        seeder.seed(FRANCHISES, 1, 1).block();
+        franchiseIds = seeder.franchiseIds().collectList().block();
+        repository = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(TestcontainersConfig.getConnectionFactory()))
+                .getRepository(FranchiseRepository.class);
+    }
+
+    @Test
+    void batchedLookups_shouldSendFewerQueriesAndReportLatency() {
+        AtomicLong singleQueries = new AtomicLong();
+        AtomicLong batchQueries = new AtomicLong();
+        BatchLoader<Long, FranchiseEntity> loader = new BatchLoader<>("franchises",
+                true, Duration.ofMillis(1), 64, new SimpleMeterRegistry(),
+                ids -> {
+                    batchQueries.incrementAndGet();
+                    return repository.findAllById(ids);
+                },
+                FranchiseEntity::getId,
+                id -> repository.findById(id));
+        Function<Long, Mono<FranchiseEntity>> single = id -> {
+            singleQueries.incrementAndGet();
+            return repository.findById(id);
+        };
+
+        List<Long> burst = burst();
+        assertEquals(burst.size(), lookUp(burst, single));
+        assertEquals(burst.size(), lookUp(burst, loader::load));
+
+        singleQueries.set(0);
+        batchQueries.set(0);
+        System.out.println(measure("one query per lookup", single).report()
+                + " queries/burst=" + singleQueries.get() / ITERATIONS);
+        System.out.println(measure("batched window=1ms max=64", loader::load).report()
+                + " queries/burst=" + batchQueries.get() / ITERATIONS);
+    }
+
+    private LatencyStats measure(String name, Function<Long, Mono<FranchiseEntity>> lookup) {
+        LatencyStats stats = new LatencyStats(name + " x" + CONCURRENCY, ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<Long> burst = burst();
+            long start = System.nanoTime();
+            lookUp(burst, lookup);
+            stats.record(System.nanoTime() - start);
+        }
+        return stats;
+    }
+
+    private long lookUp(List<Long> ids, Function<Long, Mono<FranchiseEntity>> lookup) {
+        return Flux.fromIterable(ids)
+                .flatMap(lookup, ids.size())
+                .count()
+                .block();
+    }
+
+    private List<Long> burst() {
+        List<Long> ids = new ArrayList<>(franchiseIds);
+        Collections.shuffle(ids);
+        return ids.subList(0, Math.min(CONCURRENCY, ids.size()));
+    }
+}
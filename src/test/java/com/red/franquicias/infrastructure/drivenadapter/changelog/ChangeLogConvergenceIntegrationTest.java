@@ -0,0 +1,124 @@
+package com.red.franquicias.infrastructure.drivenadapter.changelog;
+
+import com.red.franquicias.FranquiciasApplication;
+import com.red.franquicias.application.port.out.FranchiseRepositoryPort;
+import com.red.franquicias.application.usecase.branch.CreateBranchUseCase;
+import com.red.franquicias.application.usecase.franchise.CreateFranchiseUseCase;
+import com.red.franquicias.application.usecase.franchise.UpdateFranchiseNameUseCase;
+import com.red.franquicias.application.usecase.product.CreateProductUseCase;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.GetTopProductsByFranchiseUseCase;
+import com.red.franquicias.application.usecase.product.UpdateProductStockUseCase;
+import com.red.franquicias.domain.model.Branch;
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.TestDatabaseCleaner;
+import com.red.franquicias.infrastructure.config.TestR2dbcConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Two application contexts on the same MySQL stand in for two tasks behind the load balancer: a write
+ * through one of them must reach the caches, the index and the versions of the other.
+ */
+class ChangeLogConvergenceIntegrationTest {
+
+    private static final Duration CONVERGENCE_BOUND = Duration.ofSeconds(5);
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void start() {
+        first = context();
+        second = context();
+    }
+
+    @AfterAll
+    static void stop() {
+        new TestDatabaseCleaner(first.getBean(DatabaseClient.class)).cleanAll().block();
+        second.close();
+        first.close();
+    }
+
+    @Test
+    void franchiseRename_onOneInstance_shouldReachTheOther() {
+        Franchise franchise = first.getBean(CreateFranchiseUseCase.class)
+                .create(new Franchise(null, "Convergence Before")).block();
+        FranchiseRepositoryPort secondPort = second.getBean(FranchiseRepositoryPort.class);
+        FranchiseVersions secondVersions = second.getBean(FranchiseVersions.class);
+
+        assertEquals("Convergence Before", secondPort.findById(franchise.getId()).block().getName());
+        String etag = secondVersions.etag(franchise.getId());
+
+        first.getBean(UpdateFranchiseNameUseCase.class).updateName(franchise.getId(), "Convergence After").block();
+
+        awaitConverged(() -> secondPort.findById(franchise.getId()).block().getName(), "Convergence After");
+        assertNotEquals(etag, secondVersions.etag(franchise.getId()));
+    }
+
+    @Test
+    void stockChange_onOneInstance_shouldReachTheOthersIndex() {
+        Franchise franchise = first.getBean(CreateFranchiseUseCase.class)
+                .create(new Franchise(null, "Convergence Stock")).block();
+        Branch branch = first.getBean(CreateBranchUseCase.class)
+                .create(new Branch(null, franchise.getId(), "Branch")).block();
+        CreateProductUseCase createProduct = first.getBean(CreateProductUseCase.class);
+        Product low = createProduct.create(new Product(null, branch.getId(), "Low", 1), franchise.getId()).block();
+        createProduct.create(new Product(null, branch.getId(), "High", 5), franchise.getId()).block();
+        GetTopProductsByFranchiseUseCase secondTopProducts = second.getBean(GetTopProductsByFranchiseUseCase.class);
+
+        awaitConverged(() -> topProductName(secondTopProducts, franchise.getId()), "High");
+
+        first.getBean(UpdateProductStockUseCase.class)
+                .updateStock(low.getId(), branch.getId(), franchise.getId(), 50).block();
+
+        awaitConverged(() -> topProductName(secondTopProducts, franchise.getId()), "Low");
+    }
+
+    private static String topProductName(GetTopProductsByFranchiseUseCase useCase, Long franchiseId) {
+        return useCase.getTopProducts(franchiseId).block().results().get(0).product().name();
+    }
+
+    private static void awaitConverged(Supplier<String> actual, String expected) {
+        long deadline = System.nanoTime() + CONVERGENCE_BOUND.toNanos();
+        String last = null;
+        while (System.nanoTime() < deadline) {
+            try {
+                last = actual.get();
+            } catch (RuntimeException ex) {
+                last = ex.toString();
+            }
+            if (expected.equals(last)) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(ex);
+            }
+        }
+        fail("Expected " + expected + " within " + CONVERGENCE_BOUND + " but was " + last);
+    }
+
+    private static ConfigurableApplicationContext context() {
+        return new SpringApplicationBuilder(FranquiciasApplication.class, TestR2dbcConfig.class)
+                .properties(
+                        "server.port=0",
+                        "franquicias.change-log.poll-interval=100ms",
+                        "franquicias.top-products.index.enabled=true")
+                .run();
+    }
+}
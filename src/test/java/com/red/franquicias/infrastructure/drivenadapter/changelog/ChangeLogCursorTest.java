@@ -0,0 +1,55 @@
+package com.red.franquicias.infrastructure.drivenadapter.changelog;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChangeLogCursorTest {
+
+    private static final Duration GAP_TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void advance_contiguousRows_shouldMoveToLastRow() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10, GAP_TIMEOUT);
+
+        List<ChangeLogEntry> unseen = cursor.advance(List.of(entry(11, Duration.ZERO), entry(12, Duration.ZERO)));
+
+        assertEquals(List.of(11L, 12L), seqs(unseen));
+        assertEquals(12, cursor.position());
+    }
+
+    @Test
+    void advance_recentGap_shouldStopBeforeGapAndNotRepeatRowsAfterIt() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10, GAP_TIMEOUT);
+
+        List<ChangeLogEntry> first = cursor.advance(List.of(entry(11, Duration.ZERO), entry(13, Duration.ZERO)));
+        List<ChangeLogEntry> second = cursor.advance(List.of(entry(12, Duration.ZERO), entry(13, Duration.ZERO),
+                entry(14, Duration.ZERO)));
+
+        assertEquals(List.of(11L, 13L), seqs(first));
+        assertEquals(List.of(12L, 14L), seqs(second));
+        assertEquals(14, cursor.position());
+    }
+
+    @Test
+    void advance_gapOlderThanTimeout_shouldSkipIt() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10, GAP_TIMEOUT);
+
+        cursor.advance(List.of(entry(13, Duration.ofSeconds(1))));
+        List<ChangeLogEntry> unseen = cursor.advance(List.of(entry(13, Duration.ofSeconds(11)), entry(14, Duration.ZERO)));
+
+        assertEquals(List.of(14L), seqs(unseen));
+        assertEquals(14, cursor.position());
+    }
+
+    private ChangeLogEntry entry(long seq, Duration age) {
+        return new ChangeLogEntry(seq, "origin", "PRODUCT", seq, 1L, 1L, age);
+    }
+
+    private List<Long> seqs(List<ChangeLogEntry> entries) {
+        return entries.stream().map(ChangeLogEntry::seq).toList();
+    }
+}
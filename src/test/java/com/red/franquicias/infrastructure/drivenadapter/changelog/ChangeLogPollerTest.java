@@ -0,0 +1,92 @@
+package com.red.franquicias.infrastructure.drivenadapter.changelog;
+
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.TopStockIndex;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import com.red.franquicias.infrastructure.drivenadapter.cache.CachingBranchRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.cache.CachingFranchiseRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ChangeLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ChangeLogPollerTest {
+
+    private static final String LOCAL = "local-origin";
+    private static final String REMOTE = "remote-origin";
+
+    private MeterRegistry registry;
+    private FranchiseVersions franchiseVersions;
+    private CachingFranchiseRepositoryAdapter franchiseCache;
+    private CachingBranchRepositoryAdapter branchCache;
+    private ChangeLogPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        franchiseVersions = new FranchiseVersions();
+        franchiseCache = Mockito.mock(CachingFranchiseRepositoryAdapter.class);
+        branchCache = Mockito.mock(CachingBranchRepositoryAdapter.class);
+        ChangeLog changeLog = Mockito.mock(ChangeLog.class);
+        when(changeLog.origin()).thenReturn(LOCAL);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("franchiseCache", franchiseCache);
+        beanFactory.registerSingleton("branchCache", branchCache);
+
+        poller = new ChangeLogPoller(
+                Mockito.mock(DatabaseClient.class),
+                changeLog,
+                new ChangeLogProperties(true, Duration.ofSeconds(1), 1000, Duration.ofSeconds(10), Duration.ofHours(1)),
+                franchiseVersions,
+                new TopStockIndex(),
+                beanFactory.getBeanProvider(CachingFranchiseRepositoryAdapter.class),
+                beanFactory.getBeanProvider(CachingBranchRepositoryAdapter.class),
+                registry
+        );
+    }
+
+    @Test
+    void apply_remoteChanges_shouldInvalidateCachesAndBumpVersions() {
+        StepVerifier.create(poller.apply(List.of(
+                        new ChangeLogEntry(1, REMOTE, ChangeLog.FRANCHISE, 10L, null, 10L, Duration.ofMillis(200)),
+                        new ChangeLogEntry(2, REMOTE, ChangeLog.BRANCH, 20L, 20L, 10L, Duration.ofMillis(100)),
+                        new ChangeLogEntry(3, REMOTE, ChangeLog.PRODUCT, 30L, 20L, 11L, Duration.ofMillis(50)))))
+                .expectNext(3)
+                .verifyComplete();
+
+        verify(franchiseCache).invalidate(10L);
+        verify(branchCache).invalidate(20L, 10L);
+        assertEquals(1, franchiseVersions.current(10L));
+        assertEquals(1, franchiseVersions.current(11L));
+        assertEquals(3, registry.get("franquicias.change.log.staleness").timer().count());
+        assertEquals(200, registry.get("franquicias.change.log.staleness").timer().max(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void apply_ownChanges_shouldBeSkipped() {
+        StepVerifier.create(poller.apply(List.of(
+                        new ChangeLogEntry(1, LOCAL, ChangeLog.FRANCHISE, 10L, null, 10L, Duration.ZERO))))
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(franchiseCache);
+        verify(branchCache, never()).invalidate(Mockito.anyLong(), Mockito.anyLong());
+        assertEquals(0, franchiseVersions.current(10L));
+    }
+}
@@ -0,0 +1,73 @@
+package com.red.franquicias.infrastructure.drivenadapter.groupcommit;
+
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.StockGroupCommitProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ProductRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitProductRepositoryAdapterTest {
+
+    @Mock
+    private ProductRepositoryAdapter delegate;
+
+    @Test
+    void addAndSetStock_concurrent_shouldShareOneTransaction() {
+        List<StockUpdate> updates = List.of(StockUpdate.add(30L, 20L, 10L, 3), StockUpdate.set(31L, 20L, 10L, 7));
+        when(delegate.applyStockUpdates(updates))
+                .thenReturn(Flux.just(Optional.of(product(30L, 8)), Optional.of(product(31L, 7))));
+        GroupCommitProductRepositoryAdapter adapter = adapter();
+
+        StepVerifier.create(Mono.zip(adapter.addStock(30L, 20L, 10L, 3), adapter.setStock(31L, 20L, 10L, 7)))
+                .expectNextMatches(both -> both.getT1().equals(product(30L, 8)) && both.getT2().equals(product(31L, 7)))
+                .verifyComplete();
+
+        verify(delegate, times(1)).applyStockUpdates(any());
+        verify(delegate, never()).addStock(any(), any(), any(), any());
+        verify(delegate, never()).setStock(any(), any(), any(), any());
+    }
+
+    @Test
+    void addStock_noRowChanged_shouldCompleteEmpty() {
+        when(delegate.applyStockUpdates(List.of(StockUpdate.add(30L, 20L, 10L, -5))))
+                .thenReturn(Flux.just(Optional.empty()));
+
+        StepVerifier.create(adapter().addStock(30L, 20L, 10L, -5)).verifyComplete();
+    }
+
+    @Test
+    void findById_shouldGoStraightToTheDelegate() {
+        when(delegate.findById(30L)).thenReturn(Mono.just(product(30L, 5)));
+
+        StepVerifier.create(adapter().findById(30L)).expectNext(product(30L, 5)).verifyComplete();
+
+        verify(delegate, never()).applyStockUpdates(any());
+    }
+
+    private GroupCommitProductRepositoryAdapter adapter() {
+        return new GroupCommitProductRepositoryAdapter(delegate,
+                new StockGroupCommitProperties(true, Duration.ofMillis(50), 256), new SimpleMeterRegistry());
+    }
+
+    private static Product product(Long id, int stock) {
+        return new Product(id, 20L, "Product", stock);
+    }
+}
@@ -0,0 +1,135 @@
+package com.red.franquicias.infrastructure.drivenadapter.groupcommit;
+
+import com.red.franquicias.application.concurrency.GroupCommit;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ChangeLog;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ProductRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.BenchmarkDataSeeder;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.LatencyStats;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Concurrent callers updating the stock of products of one hot branch through a small pool, one
+ * transaction per update against updates grouped by {@link GroupCommit} with several windows.
+ * Reports throughput next to the latency each caller sees.
+ */
+@Tag("benchmark")
+class StockGroupCommitBenchmarkTest {
+
+    private static final int PRODUCTS_PER_BRANCH = Integer.getInteger("benchmark.productsPerBranch", 1_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 128);
+    private static final int UPDATES_PER_CALLER = Integer.getInteger("benchmark.iterations", 100);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.poolSize", 10);
+
+    private static ConnectionPool pool;
+    private static ProductRepositoryAdapter adapter;
+    private static Long franchiseId;
+    private static Long branchId;
+    private static List<Long> productIds;
+
+    @BeforeAll
+    static void seed() {
+        new SchemaMigrations(TestcontainersConfig.getConnectionFactory(),
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration"), Duration.ofSeconds(30)))
+                .migrate()
+                .block();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(TestcontainersConfig.getConnectionFactory())
+                .initialSize(POOL_SIZE)
+                .maxSize(POOL_SIZE)
+                .build());
+        DatabaseClient databaseClient = DatabaseClient.create(pool);
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        seeder.seed(1, 1, PRODUCTS_PER_BRANCH).block();
+        franchiseId = seeder.franchiseIds().blockFirst();
+        branchId = seeder.branchIds().blockFirst();
+        productIds = databaseClient.sql("SELECT id FROM products WHERE branch_id = :branchId")
+                .bind("branchId", branchId)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .block();
+
+        ChangeLog changeLog = new ChangeLog(databaseClient, TransactionalOperator.create(new R2dbcTransactionManager(pool)),
+                new ChangeLogProperties(true, Duration.ofSeconds(1), 1000, Duration.ofSeconds(10), Duration.ofHours(1)));
+        adapter = new ProductRepositoryAdapter(
+                new R2dbcRepositoryFactory(new R2dbcEntityTemplate(pool)).getRepository(ProductRepository.class),
+                databaseClient,
+                changeLog);
+    }
+
+    @AfterAll
+    static void close() {
+        pool.dispose();
+    }
+
+    @Test
+    void groupCommit_shouldReportThroughputAndLatency() {
+        Function<Long, Mono<Product>> single = productId -> adapter.setStock(productId, branchId, franchiseId, stock());
+        assertNotNull(single.apply(randomProduct()).block());
+        System.out.println(measure("one transaction per update", single));
+
+        for (Duration window : List.of(Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(5))) {
+            GroupCommit<StockUpdate, Optional<Product>> groupCommit = new GroupCommit<>("stock", window, 256,
+                    adapter::applyStockUpdates, new SimpleMeterRegistry());
+            Function<Long, Mono<Product>> grouped = productId ->
+                    groupCommit.submit(StockUpdate.set(productId, branchId, franchiseId, stock())).flatMap(Mono::justOrEmpty);
+            assertNotNull(grouped.apply(randomProduct()).block());
+            System.out.println(measure("group commit window=" + window.toMillis() + "ms", grouped));
+        }
+    }
+
+    private String measure(String name, Function<Long, Mono<Product>> update) {
+        LatencyStats stats = new LatencyStats(name, CONCURRENCY * UPDATES_PER_CALLER);
+        long start = System.nanoTime();
+        Flux.range(0, CONCURRENCY)
+                .flatMap(caller -> Flux.range(0, UPDATES_PER_CALLER)
+                        .concatMap(i -> {
+                            long issued = System.nanoTime();
+                            return update.apply(randomProduct())
+                                    .doOnNext(written -> record(stats, System.nanoTime() - issued));
+                        }), CONCURRENCY)
+                .blockLast();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return stats.report() + String.format(" throughput=%.0f updates/s", CONCURRENCY * UPDATES_PER_CALLER / seconds);
+    }
+
+    private static synchronized void record(LatencyStats stats, long nanos) {
+        stats.record(nanos);
+    }
+
+    private static Long randomProduct() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+
+    private static int stock() {
+        return ThreadLocalRandom.current().nextInt(1_000);
+    }
+}
@@ -0,0 +1,90 @@
+package com.red.franquicias.infrastructure.drivenadapter.metrics;
+
+import com.red.franquicias.domain.model.Franchise;
+import com.red.franquicias.infrastructure.config.EntityCacheProperties;
+import com.red.franquicias.infrastructure.config.LookupBatchingProperties;
+import com.red.franquicias.infrastructure.drivenadapter.cache.CachingFranchiseRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ChangeLog;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.FranchiseRepositoryAdapter;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.entity.FranchiseEntity;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.FranchiseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class RepositoryPortMetricsTest {
+
+    private MeterRegistry registry;
+    private FranchiseRepository repository;
+    private FranchiseRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        repository = Mockito.mock(FranchiseRepository.class);
+        adapter = (FranchiseRepositoryAdapter) new RepositoryPortMetrics(beanFactory.getBeanProvider(MeterRegistry.class))
+                .postProcessAfterInitialization(new FranchiseRepositoryAdapter(repository, Mockito.mock(ChangeLog.class)), "franchiseRepositoryAdapter");
+    }
+
+    @Test
+    void portCall_success_shouldRecordTimer() {
+        when(repository.findById(1L)).thenReturn(Mono.just(new FranchiseEntity(1L, "Test Franchise")));
+
+        StepVerifier.create(adapter.findById(1L))
+                .expectNext(new Franchise(1L, "Test Franchise"))
+                .verifyComplete();
+
+        assertEquals(1, registry.get(RepositoryPortMetrics.METRIC)
+                .tags("port", "FranchiseRepositoryPort", "method", "findById").timer().count());
+        assertEquals(0, registry.get(RepositoryPortMetrics.METRIC + ".errors")
+                .tags("port", "FranchiseRepositoryPort", "method", "findById").counter().count());
+    }
+
+    @Test
+    void portCall_error_shouldCountError() {
+        when(repository.findAll()).thenReturn(Flux.error(new IllegalStateException("down")));
+
+        StepVerifier.create(adapter.findAll())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(1, registry.get(RepositoryPortMetrics.METRIC)
+                .tags("port", "FranchiseRepositoryPort", "method", "findAll").timer().count());
+        assertEquals(1, registry.get(RepositoryPortMetrics.METRIC + ".errors")
+                .tags("port", "FranchiseRepositoryPort", "method", "findAll").counter().count());
+    }
+
+    @Test
+    void portDecoratorOutsideAdapters_shouldNotBeProxied() {
+        Object decorator = new CachingFranchiseRepositoryAdapter(new FranchiseRepositoryAdapter(repository, Mockito.mock(ChangeLog.class)),
+                new EntityCacheProperties(true, 100, Duration.ofMinutes(10), Duration.ofSeconds(5)),
+                new LookupBatchingProperties(true, Duration.ofMillis(1), 64), registry);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+
+        assertSame(decorator, new RepositoryPortMetrics(beanFactory.getBeanProvider(MeterRegistry.class))
+                .postProcessAfterInitialization(decorator, "cachingFranchiseRepositoryAdapter"));
+    }
+
+    @Test
+    void nonPortBean_shouldNotBeProxied() {
+        Object bean = new Object();
+
+        assertSame(bean, new RepositoryPortMetrics(new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class))
+                .postProcessAfterInitialization(bean, "other"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
 
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Branch;
 import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.infrastructure.config.TestDatabaseCleaner;
@@ -118,18 +120,23 @@ class BranchRepositoryAdapterTest {
     }
 
     @Test
-    void existsByNameAndFranchiseId_existingName_shouldReturnTrue() {
+    void save_duplicateNameInFranchise_shouldReturnBranchNameAlreadyExists() {
         adapter.save(new Branch(null, testFranchise.getId(), "Existing Branch")).block();
 
-        StepVerifier.create(adapter.existsByNameAndFranchiseId("Existing Branch", testFranchise.getId()))
-                .assertNext(exists -> assertTrue(exists))
-                .verifyComplete();
+        StepVerifier.create(adapter.save(new Branch(null, testFranchise.getId(), "Existing Branch")))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.BRANCH_NAME_ALREADY_EXISTS
+                )
+                .verify();
     }
 
     @Test
-    void existsByNameAndFranchiseId_nonExistentName_shouldReturnFalse() {
-        StepVerifier.create(adapter.existsByNameAndFranchiseId("Non Existent", testFranchise.getId()))
-                .assertNext(exists -> assertFalse(exists))
+    void save_sameNameInOtherFranchise_shouldSave() {
+        adapter.save(new Branch(null, testFranchise.getId(), "Shared Branch")).block();
+
+        StepVerifier.create(adapter.save(new Branch(null, otherFranchise.getId(), "Shared Branch")))
+                .assertNext(branch -> assertNotNull(branch.getId()))
                 .verifyComplete();
     }
 
@@ -0,0 +1,66 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
+
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void recording_disabled_shouldRunTheMutationWithoutAnEntry() {
+        when(transactionalOperator.transactional(ArgumentMatchers.<Mono<Long>>any())).thenAnswer(invocation -> invocation.getArgument(0));
+        ChangeLog changeLog = changeLog(false);
+
+        StepVerifier.create(changeLog.recording(Mono.just(1L), changeLog::franchise))
+                .expectNext(1L)
+                .verifyComplete();
+
+        verifyNoInteractions(databaseClient);
+    }
+
+    @Test
+    void entries_disabled_shouldNotTouchTheTable() {
+        ChangeLog changeLog = changeLog(false);
+
+        StepVerifier.create(changeLog.branch(2L, 1L)
+                        .then(changeLog.product(3L, 2L))
+                        .then(changeLog.product(3L, 2L, 1L))
+                        .then(changeLog.productRemoved(3L))
+                        .then(changeLog.productsNamed(2L, List.of("Product")))
+                        .then(changeLog.products(connection, 2L, List.of(3L)))
+                        .then(changeLog.stockUpdates(connection, List.of(StockUpdate.set(3L, 2L, 1L, 5)))))
+                .verifyComplete();
+
+        verifyNoInteractions(databaseClient, connection);
+    }
+
+    private ChangeLog changeLog(boolean enabled) {
+        return new ChangeLog(databaseClient, transactionalOperator,
+                new ChangeLogProperties(enabled, Duration.ofSeconds(1), 1000, Duration.ofSeconds(10), Duration.ofHours(1)));
+    }
+}
@@ -1,5 +1,7 @@
 package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
 
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.infrastructure.config.TestDatabaseCleaner;
 import com.red.franquicias.infrastructure.config.TestR2dbcConfig;
@@ -78,19 +80,29 @@ class FranchiseRepositoryAdapterTest {
     }
 
     @Test
-    void existsByName_existingName_shouldReturnTrue() {
+    void save_duplicateName_shouldReturnFranchiseNameAlreadyExists() {
         adapter.save(new Franchise(null, "Existing Franchise")).block();
 
-        StepVerifier.create(adapter.existsByName("Existing Franchise"))
-                .assertNext(exists -> assertTrue(exists))
-                .verifyComplete();
+        StepVerifier.create(adapter.save(new Franchise(null, "Existing Franchise")))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS
+                )
+                .verify();
     }
 
     @Test
-    void existsByName_nonExistentName_shouldReturnFalse() {
-        StepVerifier.create(adapter.existsByName("Non Existent"))
-                .assertNext(exists -> assertFalse(exists))
-                .verifyComplete();
+    void save_renameToTakenName_shouldReturnFranchiseNameAlreadyExists() {
+        adapter.save(new Franchise(null, "Taken Franchise")).block();
+        Franchise other = adapter.save(new Franchise(null, "Other Franchise")).block();
+        other.setName("Taken Franchise");
+
+        StepVerifier.create(adapter.save(other))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.FRANCHISE_NAME_ALREADY_EXISTS
+                )
+                .verify();
     }
 }
 
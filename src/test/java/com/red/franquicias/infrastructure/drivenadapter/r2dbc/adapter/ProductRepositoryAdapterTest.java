@@ -1,5 +1,9 @@
 package com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter;
 
+import com.red.franquicias.application.usecase.product.ProductStockChange;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
 import com.red.franquicias.domain.model.Branch;
 import com.red.franquicias.domain.model.Franchise;
 import com.red.franquicias.domain.model.Product;
@@ -11,8 +15,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -129,19 +138,15 @@ class ProductRepositoryAdapterTest {
     }
 
     @Test
-    void existsByNameAndBranchId_existingName_shouldReturnTrue() {
+    void save_duplicateNameInBranch_shouldReturnProductNameAlreadyExists() {
         adapter.save(new Product(null, testBranch.getId(), "Existing Product", 10)).block();
 
-        StepVerifier.create(adapter.existsByNameAndBranchId("Existing Product", testBranch.getId()))
-                .assertNext(exists -> assertTrue(exists))
-                .verifyComplete();
-    }
-
-    @Test
-    void existsByNameAndBranchId_nonExistentName_shouldReturnFalse() {
-        StepVerifier.create(adapter.existsByNameAndBranchId("Non Existent", testBranch.getId()))
-                .assertNext(exists -> assertFalse(exists))
-                .verifyComplete();
+        StepVerifier.create(adapter.save(new Product(null, testBranch.getId(), "Existing Product", 5)))
+                .expectErrorMatches(ex ->
+                        ex instanceof BusinessException be
+                        && be.getTechnicalMessage() == TechnicalMessage.PRODUCT_NAME_ALREADY_EXISTS
+                )
+                .verify();
     }
 
     @Test
@@ -174,5 +179,270 @@ class ProductRepositoryAdapterTest {
         StepVerifier.create(adapter.findTopByBranchIdOrderByStockDesc(testBranch.getId()))
                 .verifyComplete();
     }
-}
 
+    @Test
+    void findTopProductsByFranchiseId_tiedStock_shouldReturnAllTiedProductsPerBranch() {
+        adapter.save(new Product(null, testBranch.getId(), "Tied A", 40)).block();
+        adapter.save(new Product(null, testBranch.getId(), "Tied B", 40)).block();
+        adapter.save(new Product(null, testBranch.getId(), "Lower", 10)).block();
+        adapter.save(new Product(null, otherBranch.getId(), "Other Top", 25)).block();
+
+        StepVerifier.create(adapter.findTopProductsByFranchiseId(testFranchise.getId()).collectList())
+                .assertNext(rows -> {
+                    assertEquals(3, rows.size());
+                    assertEquals(2, rows.stream().filter(r -> r.branch_id().equals(testBranch.getId())).count());
+                    assertTrue(rows.stream()
+                            .filter(r -> r.branch_id().equals(testBranch.getId()))
+                            .allMatch(r -> r.stock() == 40));
+                    assertTrue(rows.stream()
+                            .anyMatch(r -> r.branch_id().equals(otherBranch.getId()) && r.stock() == 25));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findTopProductsByFranchiseId_otherFranchiseProducts_shouldNotAffectResult() {
+        Franchise otherFranchise = franchiseAdapter.save(new Franchise(null, "Other Franchise")).block();
+        Branch foreignBranch = branchAdapter.save(new Branch(null, otherFranchise.getId(), "Foreign Branch")).block();
+        adapter.save(new Product(null, foreignBranch.getId(), "Foreign Product", 1000)).block();
+        Product top = adapter.save(new Product(null, testBranch.getId(), "Local Product", 5)).block();
+
+        StepVerifier.create(adapter.findTopProductsByFranchiseId(testFranchise.getId()).collectList())
+                .assertNext(rows -> {
+                    assertEquals(2, rows.size());
+                    assertTrue(rows.stream().allMatch(r -> r.franchise_id().equals(testFranchise.getId())));
+                    assertTrue(rows.stream().anyMatch(r -> top.getId().equals(r.product_id())));
+                    assertTrue(rows.stream()
+                            .anyMatch(r -> r.branch_id().equals(otherBranch.getId()) && r.product_id() == null));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findTopProductsPerBranch_shouldLimitEachBranchAndBreakTiesByLowestId() {
+        Product tiedFirst = adapter.save(new Product(null, testBranch.getId(), "Tied A", 40)).block();
+        Product tiedSecond = adapter.save(new Product(null, testBranch.getId(), "Tied B", 40)).block();
+        Product highest = adapter.save(new Product(null, testBranch.getId(), "Highest", 90)).block();
+        adapter.save(new Product(null, testBranch.getId(), "Lower", 10)).block();
+
+        StepVerifier.create(adapter.findTopProductsPerBranch(testFranchise.getId(), 3).collectList())
+                .assertNext(rows -> {
+                    assertEquals(4, rows.size());
+                    assertEquals(List.of(highest.getId(), tiedFirst.getId(), tiedSecond.getId()), rows.stream()
+                            .filter(r -> r.branch_id().equals(testBranch.getId()))
+                            .map(r -> r.product_id())
+                            .toList());
+                    assertTrue(rows.stream()
+                            .anyMatch(r -> r.branch_id().equals(otherBranch.getId()) && r.product_id() == null));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findTopProductsPerBranch_fewerProductsThanLimit_shouldReturnAllOfThem() {
+        adapter.save(new Product(null, testBranch.getId(), "Only", 7)).block();
+
+        StepVerifier.create(adapter.findTopProductsPerBranch(testFranchise.getId(), 10)
+                        .filter(r -> r.branch_id().equals(testBranch.getId()))
+                        .collectList())
+                .assertNext(rows -> {
+                    assertEquals(1, rows.size());
+                    assertEquals(7, rows.get(0).stock());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findTopProductsAcrossBranches_shouldMergeBranchesAndBreakTiesByLowestId() {
+        Product top = adapter.save(new Product(null, otherBranch.getId(), "Other Top", 90)).block();
+        Product tiedFirst = adapter.save(new Product(null, testBranch.getId(), "Tied A", 40)).block();
+        Product tiedSecond = adapter.save(new Product(null, otherBranch.getId(), "Tied B", 40)).block();
+        adapter.save(new Product(null, testBranch.getId(), "Lower", 10)).block();
+        Franchise otherFranchise = franchiseAdapter.save(new Franchise(null, "Other Franchise")).block();
+        Branch foreignBranch = branchAdapter.save(new Branch(null, otherFranchise.getId(), "Foreign Branch")).block();
+        adapter.save(new Product(null, foreignBranch.getId(), "Foreign Product", 1000)).block();
+
+        StepVerifier.create(adapter.findTopProductsAcrossBranches(testFranchise.getId(), 3).collectList())
+                .assertNext(rows -> assertEquals(
+                        List.of(top.getId(), tiedFirst.getId(), tiedSecond.getId()),
+                        rows.stream().map(r -> r.product_id()).toList()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findOwnership_existingProduct_shouldReturnAllLevels() {
+        Product product = adapter.save(new Product(null, testBranch.getId(), "Owned Product", 7)).block();
+
+        StepVerifier.create(adapter.findOwnership(testFranchise.getId(), testBranch.getId(), product.getId()))
+                .assertNext(row -> {
+                    assertEquals(testFranchise.getId(), row.franchise_id());
+                    assertEquals(testBranch.getId(), row.branch_id());
+                    assertEquals(product.getId(), row.product_id());
+                    assertEquals("Owned Product", row.product_name());
+                    assertEquals(7, row.stock());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findOwnership_productInOtherBranch_shouldReturnNullProduct() {
+        Product product = adapter.save(new Product(null, otherBranch.getId(), "Other Product", 7)).block();
+
+        StepVerifier.create(adapter.findOwnership(testFranchise.getId(), testBranch.getId(), product.getId()))
+                .assertNext(row -> {
+                    assertEquals(testBranch.getId(), row.branch_id());
+                    assertNull(row.product_id());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findOwnership_branchOfOtherFranchise_shouldReturnNullBranch() {
+        Franchise otherFranchise = franchiseAdapter.save(new Franchise(null, "Other Franchise")).block();
+        Branch foreignBranch = branchAdapter.save(new Branch(null, otherFranchise.getId(), "Foreign Branch")).block();
+
+        StepVerifier.create(adapter.findOwnership(testFranchise.getId(), foreignBranch.getId(), null))
+                .assertNext(row -> {
+                    assertEquals(testFranchise.getId(), row.franchise_id());
+                    assertNull(row.branch_id());
+                    assertNull(row.product_id());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findOwnership_nonExistentFranchise_shouldReturnEmpty() {
+        StepVerifier.create(adapter.findOwnership(999L, testBranch.getId(), null))
+                .verifyComplete();
+    }
+
+    @Test
+    void addStock_concurrentDeltas_shouldNotLoseUpdatesAndReturnOwnStock() {
+        Product product = adapter.save(new Product(null, testBranch.getId(), "Contended Product", 0)).block();
+
+        StepVerifier.create(Flux.range(0, 50)
+                        .flatMap(i -> adapter.addStock(product.getId(), testBranch.getId(), testFranchise.getId(), 1), 16)
+                        .map(Product::getStock)
+                        .collectSortedList())
+                .expectNext(IntStream.rangeClosed(1, 50).boxed().toList())
+                .verifyComplete();
+
+        assertEquals(50, adapter.findById(product.getId()).block().getStock());
+    }
+
+    @Test
+    void addStock_wouldGoNegative_shouldUpdateNothing() {
+        Product product = adapter.save(new Product(null, testBranch.getId(), "Scarce Product", 3)).block();
+
+        StepVerifier.create(adapter.addStock(product.getId(), testBranch.getId(), testFranchise.getId(), -4))
+                .verifyComplete();
+
+        assertEquals(3, adapter.findById(product.getId()).block().getStock());
+    }
+
+    @Test
+    void setStock_branchOfOtherFranchise_shouldUpdateNothing() {
+        Franchise otherFranchise = franchiseAdapter.save(new Franchise(null, "Other Franchise")).block();
+        Product product = adapter.save(new Product(null, testBranch.getId(), "Guarded Product", 3)).block();
+
+        StepVerifier.create(adapter.setStock(product.getId(), testBranch.getId(), otherFranchise.getId(), 40))
+                .verifyComplete();
+
+        StepVerifier.create(adapter.setStock(product.getId(), testBranch.getId(), testFranchise.getId(), 40))
+                .expectNext(new Product(product.getId(), testBranch.getId(), "Guarded Product", 40))
+                .verifyComplete();
+    }
+
+    @Test
+    void setStocks_mixedOwnership_shouldReturnRowsUpdatedPerItem() {
+        Product first = adapter.save(new Product(null, testBranch.getId(), "Batch Product 1", 1)).block();
+        Product second = adapter.save(new Product(null, testBranch.getId(), "Batch Product 2", 2)).block();
+        Product foreign = adapter.save(new Product(null, otherBranch.getId(), "Batch Product 3", 3)).block();
+
+        StepVerifier.create(adapter.setStocks(testBranch.getId(), List.of(
+                                new ProductStockChange(first.getId(), 10),
+                                new ProductStockChange(foreign.getId(), 30),
+                                new ProductStockChange(999_999L, 40),
+                                new ProductStockChange(second.getId(), 20)
+                        ))
+                        .collectList())
+                .expectNext(List.of(1L, 0L, 0L, 1L))
+                .verifyComplete();
+
+        assertEquals(10, adapter.findById(first.getId()).block().getStock());
+        assertEquals(20, adapter.findById(second.getId()).block().getStock());
+        assertEquals(3, adapter.findById(foreign.getId()).block().getStock());
+    }
+
+    @Test
+    void applyStockUpdates_mixedKinds_shouldApplyInOrderAndReturnProductPerUpdate() {
+        Product first = adapter.save(new Product(null, testBranch.getId(), "Grouped Product 1", 5)).block();
+        Product second = adapter.save(new Product(null, testBranch.getId(), "Grouped Product 2", 1)).block();
+        Long franchiseId = testFranchise.getId();
+        Long branchId = testBranch.getId();
+
+        StepVerifier.create(adapter.applyStockUpdates(List.of(
+                                StockUpdate.add(second.getId(), branchId, franchiseId, -1),
+                                StockUpdate.set(first.getId(), branchId, franchiseId, 10),
+                                StockUpdate.add(second.getId(), branchId, franchiseId, -1),
+                                StockUpdate.add(first.getId(), branchId, franchiseId, 3),
+                                StockUpdate.set(first.getId(), otherBranch.getId(), franchiseId, 99)
+                        ))
+                        .map(written -> written.map(Product::getStock))
+                        .collectList())
+                .expectNext(List.of(Optional.of(0), Optional.of(13), Optional.empty(), Optional.of(13), Optional.empty()))
+                .verifyComplete();
+
+        assertEquals(13, adapter.findById(first.getId()).block().getStock());
+        assertEquals(0, adapter.findById(second.getId()).block().getStock());
+    }
+
+    @Test
+    void applyStockSegment_replayed_shouldApplyOnce() {
+        Product product = adapter.save(new Product(null, testBranch.getId(), "Segment Product", 5)).block();
+        List<StockUpdate> deltas = List.of(StockUpdate.add(product.getId(), testBranch.getId(), testFranchise.getId(), 4));
+
+        StepVerifier.create(adapter.applyStockSegment("writer", 1L, deltas).collectList())
+                .expectNext(List.of(1L))
+                .verifyComplete();
+        StepVerifier.create(adapter.applyStockSegment("writer", 1L, deltas))
+                .verifyComplete();
+
+        assertEquals(9, adapter.findById(product.getId()).block().getStock());
+    }
+
+    @Test
+    void insertAll_newNames_shouldInsertAndReturnIdsInOrder() {
+        StepVerifier.create(adapter.insertAll(testBranch.getId(), List.of(
+                                new Product(null, testBranch.getId(), "Imported 1", 1),
+                                new Product(null, testBranch.getId(), "Imported 2", 2)
+                        ))
+                        .collectList())
+                .assertNext(products -> {
+                    assertEquals(2, products.size());
+                    assertEquals("Imported 1", products.get(0).getName());
+                    assertNotNull(products.get(0).getId());
+                    assertNotNull(products.get(1).getId());
+                    assertEquals(2, adapter.findById(products.get(1).getId()).block().getStock());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void insertAll_existingAndRepeatedNames_shouldReturnNullIdForDuplicates() {
+        adapter.save(new Product(null, testBranch.getId(), "Existing", 1)).block();
+
+        StepVerifier.create(adapter.insertAll(testBranch.getId(), List.of(
+                                new Product(null, testBranch.getId(), "Fresh", 1),
+                                new Product(null, testBranch.getId(), "Existing", 2),
+                                new Product(null, testBranch.getId(), "Fresh", 3)
+                        ))
+                        .collectList())
+                .assertNext(products -> {
+                    assertNotNull(products.get(0).getId());
+                    assertNull(products.get(1).getId());
+                    assertNull(products.get(2).getId());
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,38 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MicrometerPoolMetricsRecorderTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerPoolMetricsRecorder recorder = new MicrometerPoolMetricsRecorder(registry, "read");
+
+    @Test
+    void recordPending_shouldTimeAcquiresByOutcome() {
+        recorder.recordPendingSuccessAndLatency(5);
+        recorder.recordPendingSuccessAndLatency(7);
+        recorder.recordPendingFailureAndLatency(30);
+
+        assertEquals(2, registry.get("franquicias.r2dbc.pool.acquire")
+                .tags("pool", "read", "outcome", "success").timer().count());
+        assertEquals(30, registry.get("franquicias.r2dbc.pool.acquire")
+                .tags("pool", "read", "outcome", "failure").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void recordAllocation_shouldTimeNewConnectionsByOutcome() {
+        recorder.recordAllocationSuccessAndLatency(12);
+        recorder.recordAllocationFailureAndLatency(40);
+
+        assertEquals(12, registry.get("franquicias.r2dbc.pool.allocation")
+                .tags("pool", "read", "outcome", "success").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get("franquicias.r2dbc.pool.allocation")
+                .tags("pool", "read", "outcome", "failure").timer().count());
+    }
+}
@@ -0,0 +1,171 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.infrastructure.config.DatabaseConfig;
+import com.red.franquicias.infrastructure.config.R2dbcPoolProperties;
+import com.red.franquicias.infrastructure.config.R2dbcReplicaProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingIntegrationTest {
+
+    private static final Network network = Network.newNetwork();
+    private static final MySQLContainer<?> source = container("source", 1);
+    private static final MySQLContainer<?> replica = container("replica", 2);
+
+    private static RoutingConnectionFactory routingConnectionFactory;
+    private static DatabaseClient routed;
+    private static DatabaseClient replicaAdmin;
+
+    @BeforeAll
+    static void startReplication() {
+        source.start();
+        replica.start();
+
+        DatabaseClient sourceAdmin = DatabaseClient.create(ConnectionFactoryBuilder.withUrl(url(source))
+                .username("root").password("test").build());
+        replicaAdmin = DatabaseClient.create(ConnectionFactoryBuilder.withUrl(url(replica))
+                .username("root").password("test").build());
+
+        String sourceGtids = sourceAdmin.sql("SELECT @@GLOBAL.gtid_executed AS gtids")
+                .map(row -> row.get("gtids", String.class)).one().block();
+        replicaAdmin.sql("RESET MASTER").then().block();
+        replicaAdmin.sql("SET GLOBAL gtid_purged = '" + sourceGtids.replace("\n", "") + "'").then().block();
+        replicaAdmin.sql("CHANGE REPLICATION SOURCE TO SOURCE_HOST = 'source', SOURCE_PORT = 3306, "
+                + "SOURCE_USER = 'root', SOURCE_PASSWORD = 'test', SOURCE_AUTO_POSITION = 1, "
+                + "GET_SOURCE_PUBLIC_KEY = 1").then().block();
+        replicaAdmin.sql("START REPLICA").then().block();
+
+        sourceAdmin.sql("CREATE TABLE testdb.franchises (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(60) NOT NULL)")
+                .then().block();
+
+        R2dbcProperties primaryProperties = new R2dbcProperties();
+        primaryProperties.setUrl(url(source));
+        primaryProperties.setUsername("root");
+        primaryProperties.setPassword("test");
+        R2dbcPoolProperties.Pool pool = new R2dbcPoolProperties.Pool(1, 4, Duration.ofSeconds(5), Duration.ofMinutes(30), "SELECT 1");
+
+        routingConnectionFactory = new DatabaseConfig().routingConnectionFactory(
+                primaryProperties,
+                new R2dbcPoolProperties(pool, pool, pool),
+                new R2dbcReplicaProperties(url(replica), "root", "test"),
+                new SimpleMeterRegistry()
+        );
+        routingConnectionFactory.afterPropertiesSet();
+        routed = DatabaseClient.create(routingConnectionFactory);
+
+        String token = routingConnectionFactory.consistencyToken().block();
+        awaitReplica(new ConsistencyToken(token));
+    }
+
+    @AfterAll
+    static void stop() {
+        routingConnectionFactory.destroy();
+        replica.stop();
+        source.stop();
+        network.close();
+    }
+
+    @Test
+    void read_withoutToken_shouldUseReplica() {
+        assertEquals(2L, serverId(Context.empty()));
+    }
+
+    @Test
+    void read_withTokenAheadOfReplica_shouldUsePrimaryUntilReplicaCatchesUp() {
+        replicaAdmin.sql("STOP REPLICA SQL_THREAD").then().block();
+        try {
+            routed.sql("INSERT INTO franchises (name) VALUES ('Lagging Franchise')").then().block();
+            ConsistencyToken token = new ConsistencyToken(routingConnectionFactory.consistencyToken().block());
+            Context withToken = Context.of(ConsistencyToken.class, token);
+
+            assertEquals(0L, laggingFranchises(Context.empty()));
+            assertEquals(1L, laggingFranchises(withToken));
+            assertEquals(1L, serverId(withToken));
+
+            replicaAdmin.sql("START REPLICA SQL_THREAD").then().block();
+            awaitReplica(token);
+
+            assertEquals(2L, serverId(withToken));
+            assertEquals(1L, laggingFranchises(withToken));
+        } finally {
+            replicaAdmin.sql("START REPLICA SQL_THREAD").then().block();
+        }
+    }
+
+    @Test
+    void read_underPrimaryOnly_shouldSeeWriteBeforeReplicaCatchesUp() {
+        replicaAdmin.sql("STOP REPLICA SQL_THREAD").then().block();
+        try {
+            routed.sql("INSERT INTO franchises (name) VALUES ('Pinned Franchise')").then().block();
+
+            assertEquals(0L, pinnedFranchises(Context.empty()));
+            assertEquals(1L, pinnedFranchises(ConnectionRoute.primaryOnly()));
+            assertEquals(1L, serverId(ConnectionRoute.primaryOnly()));
+        } finally {
+            replicaAdmin.sql("START REPLICA SQL_THREAD").then().block();
+        }
+    }
+
+    private static Long serverId(Context context) {
+        return readOnReplicaRoute("SELECT @@server_id AS value", context);
+    }
+
+    private static Long laggingFranchises(Context context) {
+        return readOnReplicaRoute("SELECT COUNT(*) AS value FROM franchises WHERE name = 'Lagging Franchise'", context);
+    }
+
+    private static Long pinnedFranchises(Context context) {
+        return readOnReplicaRoute("SELECT COUNT(*) AS value FROM franchises WHERE name = 'Pinned Franchise'", context);
+    }
+
+    private static Long readOnReplicaRoute(String sql, Context context) {
+        return routed.sql(sql)
+                .map(row -> row.get("value", Long.class))
+                .one()
+                .contextWrite(ConnectionRoute.READ.context())
+                .contextWrite(context)
+                .block();
+    }
+
+    private static void awaitReplica(ConsistencyToken token) {
+        replicaAdmin.sql("SELECT WAIT_FOR_EXECUTED_GTID_SET(:gtids, 30) AS timedOut")
+                .bind("gtids", token.gtidSet())
+                .map(row -> row.get("timedOut", Long.class))
+                .one()
+                .filter(timedOut -> timedOut == 0L)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Replica did not catch up")))
+                .block();
+    }
+
+    private static String url(MySQLContainer<?> container) {
+        return String.format("r2dbc:mysql://%s:%d/%s",
+                container.getHost(), container.getFirstMappedPort(), container.getDatabaseName());
+    }
+
+    private static MySQLContainer<?> container(String alias, int serverId) {
+        return new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+                .withNetwork(network)
+                .withNetworkAliases(alias)
+                .withDatabaseName("testdb")
+                .withUsername("root")
+                .withPassword("test")
+                .withCommand("--server-id=" + serverId, "--log-bin=mysql-bin",
+                        "--gtid-mode=ON", "--enforce-gtid-consistency=ON");
+    }
+}
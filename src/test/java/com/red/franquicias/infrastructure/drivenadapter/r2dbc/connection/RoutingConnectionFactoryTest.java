@@ -0,0 +1,94 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+
+class RoutingConnectionFactoryTest {
+
+    private final Map<ConnectionRoute, Connection> connections = new EnumMap<>(ConnectionRoute.class);
+    private final Map<ConnectionRoute, ConnectionPool> pools = new EnumMap<>(ConnectionRoute.class);
+    private RoutingConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (ConnectionRoute route : ConnectionRoute.values()) {
+            Connection connection = Mockito.mock(Connection.class);
+            ConnectionPool pool = Mockito.mock(ConnectionPool.class);
+            when(pool.create()).thenReturn(Mono.just(connection));
+            connections.put(route, connection);
+            pools.put(route, pool);
+        }
+        connectionFactory = new RoutingConnectionFactory(pools);
+        connectionFactory.afterPropertiesSet();
+    }
+
+    @Test
+    void create_withoutRoute_shouldUseWritePool() {
+        StepVerifier.create(Mono.from(connectionFactory.create()))
+                .expectNext(connections.get(ConnectionRoute.WRITE))
+                .verifyComplete();
+    }
+
+    @Test
+    void create_withRoute_shouldUseRoutedPool() {
+        StepVerifier.create(Mono.from(connectionFactory.create()).contextWrite(ConnectionRoute.READ.context()))
+                .expectNext(connections.get(ConnectionRoute.READ))
+                .verifyComplete();
+
+        StepVerifier.create(Mono.from(connectionFactory.create()).contextWrite(ConnectionRoute.ANALYTICS.context()))
+                .expectNext(connections.get(ConnectionRoute.ANALYTICS))
+                .verifyComplete();
+    }
+
+    @Test
+    void create_readWithTokenNotAppliedOnReplica_shouldUseWritePool() {
+        ReplicaConsistency replicaConsistency = Mockito.mock(ReplicaConsistency.class);
+        ConsistencyToken token = new ConsistencyToken("uuid:1-5");
+        when(replicaConsistency.isAppliedOnReplica(token)).thenReturn(Mono.just(false));
+        RoutingConnectionFactory replicated = new RoutingConnectionFactory(pools, replicaConsistency);
+        replicated.afterPropertiesSet();
+
+        StepVerifier.create(Mono.from(replicated.create())
+                        .contextWrite(ConnectionRoute.READ.context())
+                        .contextWrite(Context.of(ConsistencyToken.class, token)))
+                .expectNext(connections.get(ConnectionRoute.WRITE))
+                .verifyComplete();
+    }
+
+    @Test
+    void create_readWithTokenAppliedOnReplica_shouldUseReadPool() {
+        ReplicaConsistency replicaConsistency = Mockito.mock(ReplicaConsistency.class);
+        ConsistencyToken token = new ConsistencyToken("uuid:1-5");
+        when(replicaConsistency.isAppliedOnReplica(token)).thenReturn(Mono.just(true));
+        RoutingConnectionFactory replicated = new RoutingConnectionFactory(pools, replicaConsistency);
+        replicated.afterPropertiesSet();
+
+        StepVerifier.create(Mono.from(replicated.create())
+                        .contextWrite(ConnectionRoute.READ.context())
+                        .contextWrite(Context.of(ConsistencyToken.class, token)))
+                .expectNext(connections.get(ConnectionRoute.READ))
+                .verifyComplete();
+    }
+
+    @Test
+    void create_readUnderPrimaryOnly_shouldUseWritePool() {
+        StepVerifier.create(Mono.from(connectionFactory.create())
+                        .contextWrite(ConnectionRoute.READ.context())
+                        .contextWrite(ConnectionRoute.primaryOnly()))
+                .expectNext(connections.get(ConnectionRoute.WRITE))
+                .verifyComplete();
+    }
+}
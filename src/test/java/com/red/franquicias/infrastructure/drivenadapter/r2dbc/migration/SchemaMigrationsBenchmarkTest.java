@@ -0,0 +1,54 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.LatencyStats;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import java.time.Duration;
+import java.util.List;
+
+@Tag("benchmark")
+class SchemaMigrationsBenchmarkTest {
+
+    private static final int BOOTS = Integer.getInteger("benchmark.boots", 50);
+
+    @Test
+    void startup_migrationsVersusRerunningScripts() {
+        ConnectionFactory connectionFactory = TestcontainersConfig.getConnectionFactory();
+        SchemaMigrations migrations = new SchemaMigrations(connectionFactory, new SchemaMigrationProperties(true,
+                List.of("classpath:db/migration", "classpath:db/seed"), Duration.ofSeconds(30)));
+        migrations.migrate().block();
+
+        LatencyStats rerun = new LatencyStats("rerun schema.sql + data.sql twice", BOOTS);
+        LatencyStats skipIfApplied = new LatencyStats("versioned migrations (up to date)", BOOTS);
+        for (int i = 0; i < BOOTS; i++) {
+            long start = System.nanoTime();
+            legacyStartup(connectionFactory);
+            rerun.record(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            migrations.migrate().block();
+            skipIfApplied.record(System.nanoTime() - start);
+        }
+
+        System.out.println(rerun.report());
+        System.out.println(skipIfApplied.report());
+    }
+
+    /**
+     * What every boot used to do: {@code spring.sql.init} and the {@code ConnectionFactoryInitializer}
+     * both ran the schema and seed scripts.
+     */
+    private void legacyStartup(ConnectionFactory connectionFactory) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V1__create_schema.sql"),
+                new ClassPathResource("db/seed/V1.1__seed_demo_data.sql"));
+        populator.populate(connectionFactory).block();
+        populator.populate(connectionFactory).block();
+    }
+}
@@ -0,0 +1,154 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SchemaMigrationsIntegrationTest {
+
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static ConnectionFactory connectionFactory;
+    private static DatabaseClient databaseClient;
+
+    @TempDir
+    private Path extra;
+
+    @BeforeAll
+    static void start() {
+        mysql.start();
+        connectionFactory = ConnectionFactoryBuilder.withUrl(String.format("r2dbc:mysql://%s:%d/%s",
+                        mysql.getHost(), mysql.getFirstMappedPort(), mysql.getDatabaseName()))
+                .username(mysql.getUsername())
+                .password(mysql.getPassword())
+                .build();
+        databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    @AfterAll
+    static void stop() {
+        mysql.stop();
+    }
+
+    @BeforeEach
+    void dropTables() {
+        Flux.just("products", "branches", "franchises", "change_log", "stock_write_behind_segments", "extra_table",
+                        SchemaMigrations.HISTORY_TABLE)
+                .concatMap(table -> databaseClient.sql("DROP TABLE IF EXISTS " + table).then())
+                .blockLast();
+    }
+
+    @Test
+    void migrate_secondRun_shouldSkipAppliedScripts() {
+        SchemaMigrations migrations = migrations("classpath:db/migration");
+        int scripts = migrations.scan().size();
+
+        StepVerifier.create(migrations.migrate()).expectNext(scripts).verifyComplete();
+        StepVerifier.create(migrations.migrate()).expectNext(0).verifyComplete();
+
+        assertEquals((long) scripts, count("SELECT COUNT(*) AS total FROM " + SchemaMigrations.HISTORY_TABLE));
+    }
+
+    @Test
+    void migrate_concurrentTasks_shouldApplyEachScriptOnce() {
+        SchemaMigrations first = migrations("classpath:db/migration", "classpath:db/seed");
+        SchemaMigrations second = migrations("classpath:db/migration", "classpath:db/seed");
+
+        StepVerifier.create(Flux.merge(first.migrate(), second.migrate()).reduce(0, Integer::sum))
+                .expectNext(first.scan().size())
+                .verifyComplete();
+    }
+
+    @Test
+    void migrate_withoutSeedLocation_shouldNotSeed() {
+        SchemaMigrations migrations = migrations("classpath:db/migration");
+        StepVerifier.create(migrations.migrate()).expectNext(migrations.scan().size()).verifyComplete();
+        assertEquals(0L, count("SELECT COUNT(*) AS total FROM franchises"));
+
+        StepVerifier.create(migrations("classpath:db/migration", "classpath:db/seed").migrate()).expectNext(1).verifyComplete();
+        assertEquals(3L, count("SELECT COUNT(*) AS total FROM franchises"));
+    }
+
+    @Test
+    void migrate_newScript_shouldApplyOnlyTheNewScript() throws IOException {
+        SchemaMigrations migrations = migrations("classpath:db/migration");
+        StepVerifier.create(migrations.migrate()).expectNext(migrations.scan().size()).verifyComplete();
+
+        Files.writeString(extra.resolve("V100__create_extra_table.sql"), "CREATE TABLE extra_table (id BIGINT PRIMARY KEY);");
+
+        StepVerifier.create(migrations("classpath:db/migration", extra.toUri().toString()).migrate())
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void migrate_appliedScriptChanged_shouldFail() throws IOException {
+        Path script = extra.resolve("V100__create_extra_table.sql");
+        Files.writeString(script, "CREATE TABLE extra_table (id BIGINT PRIMARY KEY);");
+        StepVerifier.create(migrations(extra.toUri().toString()).migrate()).expectNext(1).verifyComplete();
+
+        Files.writeString(script, "CREATE TABLE extra_table (id BIGINT PRIMARY KEY, name VARCHAR(10));");
+
+        StepVerifier.create(migrations(extra.toUri().toString()).migrate())
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void migrate_databaseFromOriginalSchema_shouldApplyEveryScript() {
+        Flux.just(
+                        "CREATE TABLE franchises (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(60) UNIQUE NOT NULL)",
+                        "CREATE TABLE branches (id BIGINT AUTO_INCREMENT PRIMARY KEY, franchise_id BIGINT NOT NULL,"
+                                + " name VARCHAR(60) NOT NULL, FOREIGN KEY (franchise_id) REFERENCES franchises(id),"
+                                + " UNIQUE(franchise_id, name))",
+                        "CREATE TABLE products (id BIGINT AUTO_INCREMENT PRIMARY KEY, branch_id BIGINT NOT NULL,"
+                                + " name VARCHAR(60) NOT NULL, stock INT NOT NULL, FOREIGN KEY (branch_id) REFERENCES branches(id),"
+                                + " UNIQUE(branch_id, name))")
+                .concatMap(ddl -> databaseClient.sql(ddl).then())
+                .blockLast();
+        SchemaMigrations migrations = migrations("classpath:db/migration");
+
+        StepVerifier.create(migrations.migrate()).expectNext(migrations.scan().size()).verifyComplete();
+
+        assertEquals(1L, count("""
+                SELECT COUNT(DISTINCT index_name) AS total FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'products'
+                  AND index_name = 'idx_products_branch_stock_cover'
+                """));
+        assertEquals(0L, count("""
+                SELECT COUNT(*) AS total FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'products'
+                  AND index_name = 'idx_products_branch_stock'
+                """));
+    }
+
+    private SchemaMigrations migrations(String... locations) {
+        return new SchemaMigrations(connectionFactory,
+                new SchemaMigrationProperties(true, List.of(locations), Duration.ofSeconds(30)));
+    }
+
+    private Long count(String sql) {
+        return databaseClient.sql(sql).map(row -> row.get("total", Long.class)).one().block();
+    }
+}
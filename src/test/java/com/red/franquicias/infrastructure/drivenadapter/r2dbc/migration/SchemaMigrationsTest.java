@@ -0,0 +1,85 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SchemaMigrationsTest {
+
+    @TempDir
+    private Path migrations;
+
+    @TempDir
+    private Path seed;
+
+    @Test
+    void scan_multipleLocations_shouldSortByNumericVersion() throws IOException {
+        script(migrations, "V10__add_audit.sql");
+        script(migrations, "V2__add_index.sql");
+        script(migrations, "V1__create_schema.sql");
+        script(seed, "V1.1__seed_demo_data.sql");
+
+        List<SchemaMigrations.Migration> scanned = migrations(migrations, seed).scan();
+
+        assertEquals(List.of("1", "1.1", "2", "10"), scanned.stream().map(SchemaMigrations.Migration::version).toList());
+        assertEquals("seed demo data", scanned.get(1).description());
+    }
+
+    @Test
+    void scan_classpathDefaults_shouldFindSchemaAndSeedScripts() {
+        List<SchemaMigrations.Migration> scanned = new SchemaMigrations(mock(ConnectionFactory.class),
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration", "classpath:db/seed"), Duration.ofSeconds(1)))
+                .scan();
+
+        assertEquals("1", scanned.get(0).version());
+        assertTrue(scanned.stream().anyMatch(migration -> migration.version().equals("1.1")));
+    }
+
+    @Test
+    void scan_sameVersionInTwoLocations_shouldFail() throws IOException {
+        script(migrations, "V1__create_schema.sql");
+        script(seed, "V1__seed_demo_data.sql");
+
+        assertThrows(IllegalStateException.class, () -> migrations(migrations, seed).scan());
+    }
+
+    @Test
+    void scan_scriptWithoutNumericVersion_shouldFail() throws IOException {
+        script(migrations, "V1a__create_schema.sql");
+
+        assertThrows(IllegalStateException.class, () -> migrations(migrations).scan());
+    }
+
+    @Test
+    void scan_sameContent_shouldHaveSameChecksum() throws IOException {
+        script(migrations, "V1__create_schema.sql");
+        script(seed, "V2__create_schema.sql");
+
+        List<SchemaMigrations.Migration> scanned = migrations(migrations, seed).scan();
+
+        assertEquals(scanned.get(0).checksum(), scanned.get(1).checksum());
+    }
+
+    private SchemaMigrations migrations(Path... locations) {
+        List<String> urls = Arrays.stream(locations).map(path -> path.toUri().toString()).toList();
+        return new SchemaMigrations(mock(ConnectionFactory.class),
+                new SchemaMigrationProperties(true, urls, Duration.ofSeconds(1)));
+    }
+
+    private void script(Path location, String name) throws IOException {
+        Files.writeString(location.resolve(name), "CREATE TABLE IF NOT EXISTS t (id BIGINT);");
+    }
+}
@@ -0,0 +1,101 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public class BenchmarkDataSeeder {
+    private static final int FRANCHISE_CHUNK = 50;
+
+    private final DatabaseClient databaseClient;
+
+    public BenchmarkDataSeeder(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Void> seed(int franchises, int branchesPerFranchise, int productsPerBranch) {
+        return createSequenceTable(Math.max(franchises, Math.max(branchesPerFranchise, productsPerBranch)))
+                .then(execute("""
+                        INSERT INTO franchises (name)
+                        SELECT CONCAT('Bench Franchise ', n) FROM bench_seq WHERE n < :count
+                        """, franchises))
+                .then(execute("""
+                        INSERT INTO branches (franchise_id, name)
+                        SELECT f.id, CONCAT('Bench Branch ', s.n)
+                        FROM franchises f
+                        JOIN bench_seq s ON s.n < :count
+                        WHERE f.name LIKE 'Bench Franchise %'
+                        """, branchesPerFranchise))
+                .then(franchiseIds()
+                        .buffer(FRANCHISE_CHUNK)
+                        .concatMap(ids -> seedProducts(ids, productsPerBranch))
+                        .then())
+                .then(databaseClient.sql("ANALYZE TABLE franchises, branches, products").fetch().all().then());
+    }
+
+    public Flux<Long> franchiseIds() {
+        return databaseClient.sql("SELECT id FROM franchises WHERE name LIKE 'Bench Franchise %' ORDER BY id")
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    public Flux<Long> branchIds() {
+        return databaseClient.sql("""
+                        SELECT b.id
+                        FROM branches b
+                        JOIN franchises f ON f.id = b.franchise_id
+                        WHERE f.name LIKE 'Bench Franchise %'
+                        ORDER BY b.id
+                        """)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    private Mono<Void> seedProducts(List<Long> franchiseIds, int productsPerBranch) {
+        return databaseClient.sql("""
+                        INSERT INTO products (branch_id, name, stock)
+                        SELECT b.id, CONCAT('Bench Product ', s.n), FLOOR(RAND() * 10000)
+                        FROM branches b
+                        JOIN bench_seq s ON s.n < :count
+                        WHERE b.franchise_id BETWEEN :fromId AND :toId
+                        """)
+                .bind("count", productsPerBranch)
+                .bind("fromId", franchiseIds.get(0))
+                .bind("toId", franchiseIds.get(franchiseIds.size() - 1))
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Mono<Void> createSequenceTable(int size) {
+        return databaseClient.sql("CREATE TABLE IF NOT EXISTS bench_digits (d INT PRIMARY KEY)")
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("INSERT IGNORE INTO bench_digits VALUES (0),(1),(2),(3),(4),(5),(6),(7),(8),(9)")
+                        .fetch()
+                        .rowsUpdated())
+                .then(databaseClient.sql("CREATE TABLE IF NOT EXISTS bench_seq (n INT PRIMARY KEY)")
+                        .fetch()
+                        .rowsUpdated())
+                .then(databaseClient.sql("""
+                                INSERT IGNORE INTO bench_seq (n)
+                                SELECT a.d + b.d * 10 + c.d * 100 + e.d * 1000 + g.d * 10000
+                                FROM bench_digits a, bench_digits b, bench_digits c, bench_digits e, bench_digits g
+                                WHERE a.d + b.d * 10 + c.d * 100 + e.d * 1000 + g.d * 10000 < :size
+                                """)
+                        .bind("size", size)
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    private Mono<Void> execute(String sql, int count) {
+        return databaseClient.sql(sql)
+                .bind("count", count)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+}
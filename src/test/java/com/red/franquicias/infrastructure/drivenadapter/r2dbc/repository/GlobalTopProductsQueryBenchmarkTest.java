@@ -0,0 +1,106 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Franchise-wide top-K over franchises of a million products (1,000 branches x 1,000 products by default),
+ * against the plain query that orders the whole franchise inventory.
+ */
+@Tag("benchmark")
+class GlobalTopProductsQueryBenchmarkTest {
+
+    private static final String FULL_SORT_QUERY = """
+            SELECT b.id AS branch_id, p.id AS product_id
+            FROM branches b
+            JOIN products p ON p.branch_id = b.id
+            WHERE b.franchise_id = :franchiseId
+            ORDER BY p.stock DESC, p.id
+            LIMIT :limit
+            """;
+
+    private static final int FRANCHISES = Integer.getInteger("benchmark.franchises", 2);
+    private static final int BRANCHES_PER_FRANCHISE = Integer.getInteger("benchmark.branchesPerFranchise", 1_000);
+    private static final int PRODUCTS_PER_BRANCH = Integer.getInteger("benchmark.productsPerBranch", 1_000);
+    private static final int FULL_SORT_ITERATIONS = Integer.getInteger("benchmark.legacyIterations", 10);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 100);
+
+    private static DatabaseClient databaseClient;
+    private static List<Long> franchiseIds;
+    private static String query;
+
+    @BeforeAll
+    static void seed() throws NoSuchMethodException {
+        databaseClient = DatabaseClient.create(TestcontainersConfig.getConnectionFactory());
+        new SchemaMigrations(TestcontainersConfig.getConnectionFactory(),
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration"), Duration.ofSeconds(30)))
+                .migrate()
+                .block();
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        long start = System.nanoTime();
+        seeder.seed(FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH).block();
+        franchiseIds = seeder.franchiseIds().collectList().block();
+        System.out.printf("Seeded %d franchises x %d branches x %d products in %d s%n",
+                FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH,
+                (System.nanoTime() - start) / 1_000_000_000L);
+
+        query = ProductRepository.class
+                .getMethod("findTopProductsAcrossBranches", Long.class, Integer.class)
+                .getAnnotation(Query.class)
+                .value();
+    }
+
+    @Test
+    void lateralQuery_shouldMatchFullSortAndReportLatency() {
+        for (int limit : new int[]{10, 100, 1000}) {
+            Long franchiseId = randomFranchise();
+            assertEquals(rows(FULL_SORT_QUERY, franchiseId, limit), rows(query, franchiseId, limit));
+        }
+
+        for (int limit : new int[]{10, 100, 1000}) {
+            System.out.println(measure("full sort limit=" + limit, FULL_SORT_QUERY, limit, FULL_SORT_ITERATIONS).report());
+            System.out.println(measure("per-branch LATERAL limit=" + limit, query, limit, ITERATIONS).report());
+        }
+    }
+
+    private LatencyStats measure(String name, String sql, int limit, int iterations) {
+        for (int i = 0; i < Math.min(iterations, 10); i++) {
+            rows(sql, randomFranchise(), limit);
+        }
+        LatencyStats stats = new LatencyStats(name, iterations);
+        for (int i = 0; i < iterations; i++) {
+            Long franchiseId = randomFranchise();
+            long start = System.nanoTime();
+            rows(sql, franchiseId, limit);
+            stats.record(System.nanoTime() - start);
+        }
+        return stats;
+    }
+
+    private List<String> rows(String sql, Long franchiseId, int limit) {
+        return databaseClient.sql(sql)
+                .bind("franchiseId", franchiseId)
+                .bind("limit", limit)
+                .map(row -> row.get("branch_id", Long.class) + ":" + row.get("product_id", Long.class))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    private Long randomFranchise() {
+        return franchiseIds.get(ThreadLocalRandom.current().nextInt(franchiseIds.size()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
+
+import java.util.Arrays;
+
+public class LatencyStats {
+    private final String name;
+    private final long[] samples;
+    private int count;
+
+    public LatencyStats(String name, int capacity) {
+        this.name = name;
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        samples[count++] = nanos;
+    }
+
+    public double percentileMillis(double percentile) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public double meanMillis() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return count == 0 ? 0 : total / (double) count / 1_000_000.0;
+    }
+
+    public String report() {
+        return String.format("%-40s n=%-6d mean=%8.2fms p50=%8.2fms p95=%8.2fms p99=%8.2fms",
+                name, count, meanMillis(), percentileMillis(50), percentileMillis(95), percentileMillis(99));
+    }
+}
@@ -0,0 +1,228 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestDatabaseCleaner;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every query method declared on the repositories against a realistically sized data set,
+ * captures the SQL actually sent to MySQL and fails when its plan reads a whole table.
+ */
+class QueryPlanIntegrationTest {
+
+    private static final int FRANCHISES = 200;
+    private static final int BRANCHES_PER_FRANCHISE = 5;
+    private static final int PRODUCTS_PER_BRANCH = 100;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final List<CapturedStatement> captured = new CopyOnWriteArrayList<>();
+
+    private static ConnectionFactory connectionFactory;
+    private static DatabaseClient databaseClient;
+    private static R2dbcRepositoryFactory repositoryFactory;
+    private static Long franchiseId;
+    private static Long branchId;
+    private static Long productId;
+
+    @BeforeAll
+    static void seed() {
+        connectionFactory = TestcontainersConfig.getConnectionFactory();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        new SchemaMigrations(connectionFactory,
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration"), Duration.ofSeconds(30)))
+                .migrate()
+                .block();
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        seeder.seed(FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH).block();
+        franchiseId = seeder.franchiseIds().blockFirst();
+        branchId = databaseClient.sql("SELECT MIN(id) AS id FROM branches WHERE franchise_id = :franchiseId")
+                .bind("franchiseId", franchiseId)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .block();
+        productId = databaseClient.sql("SELECT MIN(id) AS id FROM products WHERE branch_id = :branchId")
+                .bind("branchId", branchId)
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .block();
+
+        repositoryFactory = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(capturing(connectionFactory)));
+    }
+
+    @AfterAll
+    static void clean() {
+        new TestDatabaseCleaner(databaseClient).cleanAll().block();
+    }
+
+    @Test
+    void repositoryQueries_shouldNotScanWholeTables() throws Exception {
+        List<String> checked = new ArrayList<>();
+        List<String> fullScans = new ArrayList<>();
+
+        for (Class<?> repositoryType : List.of(FranchiseRepository.class, BranchRepository.class, ProductRepository.class)) {
+            Object repository = repositoryFactory.getRepository(repositoryType);
+            for (Method method : repositoryType.getDeclaredMethods()) {
+                captured.clear();
+                invoke(repository, method, arguments(repositoryType, method));
+
+                for (CapturedStatement statement : captured) {
+                    String label = repositoryType.getSimpleName() + "." + method.getName();
+                    checked.add(label);
+                    List<String> scannedTables = fullScans(explain(statement));
+                    if (!scannedTables.isEmpty()) {
+                        fullScans.add(label + " scans " + scannedTables + ": " + statement.sql());
+                    }
+                }
+            }
+        }
+
+        assertFalse(checked.isEmpty());
+        assertTrue(fullScans.isEmpty(), String.join("\n", fullScans));
+    }
+
+    private Object[] arguments(Class<?> repositoryType, Method method) {
+        Parameter[] parameters = method.getParameters();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            arguments[i] = switch (parameters[i].getName()) {
+                case "franchiseId" -> franchiseId;
+                case "branchId" -> branchId;
+                case "productId" -> productId;
+                case "id" -> repositoryType == BranchRepository.class ? branchId
+                        : repositoryType == ProductRepository.class ? productId : franchiseId;
+                case "stock", "delta" -> 1;
+                case "perBranch", "limit" -> 10;
+                default -> throw new IllegalArgumentException("No sample value for " + method.getName()
+                        + "(" + parameters[i].getName() + ")");
+            };
+        }
+        return arguments;
+    }
+
+    private void invoke(Object repository, Method method, Object[] arguments) throws Exception {
+        Object result;
+        try {
+            result = method.invoke(repository, arguments);
+        } catch (InvocationTargetException ex) {
+            throw (Exception) ex.getCause();
+        }
+        if (result instanceof Mono<?> mono) {
+            mono.block();
+        } else if (result instanceof Flux<?> flux) {
+            flux.collectList().block();
+        }
+    }
+
+    private JsonNode explain(CapturedStatement statement) throws Exception {
+        String plan = Mono.usingWhen(
+                connectionFactory.create(),
+                connection -> {
+                    Statement explain = connection.createStatement("EXPLAIN FORMAT=JSON " + statement.sql());
+                    statement.bindings().forEach((key, value) -> {
+                        if (key instanceof Integer index) {
+                            explain.bind(index, value);
+                        } else {
+                            explain.bind((String) key, value);
+                        }
+                    });
+                    return Flux.from(explain.execute())
+                            .flatMap(result -> result.map((row, metadata) -> row.get(0, String.class)))
+                            .next();
+                },
+                Connection::close
+        ).block();
+        return objectMapper.readTree(plan);
+    }
+
+    /**
+     * Tables read with {@code access_type: ALL} anywhere in the plan, including subqueries. Reading back a
+     * materialized derived table is not counted; the plan that fills it is checked like any other.
+     */
+    private List<String> fullScans(JsonNode node) {
+        List<String> tables = new ArrayList<>();
+        if (node.isObject()) {
+            if ("ALL".equals(node.path("access_type").asText())
+                    && !node.has("materialized_from_subquery")) {
+                tables.add(node.path("table_name").asText());
+            }
+            node.fields().forEachRemaining(field -> tables.addAll(fullScans(field.getValue())));
+        } else if (node.isArray()) {
+            node.forEach(child -> tables.addAll(fullScans(child)));
+        }
+        return tables;
+    }
+
+    private static ConnectionFactory capturing(ConnectionFactory delegate) {
+        return (ConnectionFactory) Proxy.newProxyInstance(
+                QueryPlanIntegrationTest.class.getClassLoader(),
+                new Class<?>[]{ConnectionFactory.class},
+                (proxy, method, args) -> {
+                    Object result = method.invoke(delegate, args);
+                    if (method.getName().equals("create")) {
+                        return Mono.from((Publisher<?>) result).map(connection -> capturing((Connection) connection));
+                    }
+                    return result;
+                });
+    }
+
+    private static Connection capturing(Connection delegate) {
+        return (Connection) Proxy.newProxyInstance(
+                QueryPlanIntegrationTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = method.invoke(delegate, args);
+                    if (method.getName().equals("createStatement")) {
+                        CapturedStatement statement = new CapturedStatement((String) args[0], new LinkedHashMap<>());
+                        captured.add(statement);
+                        return capturing((Statement) result, statement);
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement capturing(Statement delegate, CapturedStatement statement) {
+        return (Statement) Proxy.newProxyInstance(
+                QueryPlanIntegrationTest.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    Object result = method.invoke(delegate, args);
+                    if (method.getName().equals("bind")) {
+                        statement.bindings().put(args[0], args[1]);
+                    }
+                    return result == delegate ? proxy : result;
+                });
+    }
+
+    private record CapturedStatement(String sql, Map<Object, Object> bindings) {
+    }
+}
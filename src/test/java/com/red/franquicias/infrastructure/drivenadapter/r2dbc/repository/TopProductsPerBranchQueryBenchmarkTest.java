@@ -0,0 +1,101 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class TopProductsPerBranchQueryBenchmarkTest {
+
+    private static final int FRANCHISES = Integer.getInteger("benchmark.franchises", 200);
+    private static final int BRANCHES_PER_FRANCHISE = Integer.getInteger("benchmark.branchesPerFranchise", 5);
+    private static final int PRODUCTS_PER_BRANCH = Integer.getInteger("benchmark.productsPerBranch", 5_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+
+    private static DatabaseClient databaseClient;
+    private static List<Long> franchiseIds;
+    private static String query;
+
+    @BeforeAll
+    static void seed() throws NoSuchMethodException {
+        databaseClient = DatabaseClient.create(TestcontainersConfig.getConnectionFactory());
+        new SchemaMigrations(TestcontainersConfig.getConnectionFactory(),
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration"), Duration.ofSeconds(30)))
+                .migrate()
+                .block();
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        long start = System.nanoTime();
+        seeder.seed(FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH).block();
+        franchiseIds = seeder.franchiseIds().collectList().block();
+        System.out.printf("Seeded %d franchises x %d branches x %d products in %d s%n",
+                FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH,
+                (System.nanoTime() - start) / 1_000_000_000L);
+
+        query = ProductRepository.class
+                .getMethod("findTopProductsPerBranch", Long.class, Integer.class)
+                .getAnnotation(Query.class)
+                .value();
+    }
+
+    @Test
+    void windowQuery_shouldBeDeterministicAndReportLatencyPerN() {
+        for (int perBranch : new int[]{1, 10, 100}) {
+            Long franchiseId = randomFranchise();
+            List<String> first = rows(franchiseId, perBranch);
+            assertEquals(first, rows(franchiseId, perBranch));
+
+            Map<String, Long> perBranchCounts = first.stream()
+                    .collect(Collectors.groupingBy(row -> row.substring(0, row.indexOf(':')), Collectors.counting()));
+            assertEquals(BRANCHES_PER_FRANCHISE, perBranchCounts.size());
+            assertTrue(perBranchCounts.values().stream()
+                    .allMatch(count -> count == Math.min(perBranch, PRODUCTS_PER_BRANCH)));
+        }
+
+        for (int perBranch : new int[]{1, 10, 100}) {
+            System.out.println(measure(perBranch).report());
+        }
+    }
+
+    private LatencyStats measure(int perBranch) {
+        for (int i = 0; i < Math.min(ITERATIONS, 10); i++) {
+            rows(randomFranchise(), perBranch);
+        }
+        LatencyStats stats = new LatencyStats("ROW_NUMBER perBranch=" + perBranch, ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            Long franchiseId = randomFranchise();
+            long start = System.nanoTime();
+            rows(franchiseId, perBranch);
+            stats.record(System.nanoTime() - start);
+        }
+        return stats;
+    }
+
+    private List<String> rows(Long franchiseId, int perBranch) {
+        return databaseClient.sql(query)
+                .bind("franchiseId", franchiseId)
+                .bind("perBranch", perBranch)
+                .map(row -> row.get("branch_id", Long.class) + ":" + row.get("product_id", Long.class))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    private Long randomFranchise() {
+        return franchiseIds.get(ThreadLocalRandom.current().nextInt(franchiseIds.size()));
+    }
+}
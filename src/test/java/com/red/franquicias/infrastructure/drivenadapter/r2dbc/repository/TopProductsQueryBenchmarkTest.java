@@ -0,0 +1,118 @@
+package com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository;
+
+import com.red.franquicias.infrastructure.config.SchemaMigrationProperties;
+import com.red.franquicias.infrastructure.config.TestcontainersConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.migration.SchemaMigrations;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class TopProductsQueryBenchmarkTest {
+
+    private static final String LEGACY_QUERY = """
+            SELECT
+              f.id   AS franchise_id,
+              f.name AS franchise_name,
+              b.id   AS branch_id,
+              b.name AS branch_name,
+              p.id   AS product_id,
+              p.name AS product_name,
+              p.stock AS stock
+            FROM franchises f
+            JOIN branches b ON b.franchise_id = f.id
+            LEFT JOIN (
+              SELECT p1.*
+              FROM products p1
+              JOIN (
+                SELECT branch_id, MAX(stock) AS max_stock
+                FROM products
+                GROUP BY branch_id
+              ) mx ON mx.branch_id = p1.branch_id AND mx.max_stock = p1.stock
+            ) p ON p.branch_id = b.id
+            WHERE f.id = :franchiseId
+            ORDER BY b.id
+            """;
+
+    private static final int FRANCHISES = Integer.getInteger("benchmark.franchises", 2_000);
+    private static final int BRANCHES_PER_FRANCHISE = Integer.getInteger("benchmark.branchesPerFranchise", 5);
+    private static final int PRODUCTS_PER_BRANCH = Integer.getInteger("benchmark.productsPerBranch", 1_000);
+    private static final int LEGACY_ITERATIONS = Integer.getInteger("benchmark.legacyIterations", 20);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 500);
+
+    private static DatabaseClient databaseClient;
+    private static List<Long> franchiseIds;
+
+    @BeforeAll
+    static void seed() {
+        databaseClient = DatabaseClient.create(TestcontainersConfig.getConnectionFactory());
+        new SchemaMigrations(TestcontainersConfig.getConnectionFactory(),
+                new SchemaMigrationProperties(true, List.of("classpath:db/migration"), Duration.ofSeconds(30)))
+                .migrate()
+                .block();
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        long start = System.nanoTime();
+        seeder.seed(FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH).block();
+        franchiseIds = seeder.franchiseIds().collectList().block();
+        System.out.printf("Seeded %d franchises x %d branches x %d products in %d s%n",
+                FRANCHISES, BRANCHES_PER_FRANCHISE, PRODUCTS_PER_BRANCH,
+                (System.nanoTime() - start) / 1_000_000_000L);
+    }
+
+    @Test
+    void franchiseScopedQuery_shouldMatchLegacyResultsAndReportLatency() throws NoSuchMethodException {
+        String scopedQuery = ProductRepository.class
+                .getMethod("findTopProductsByFranchiseId", Long.class)
+                .getAnnotation(Query.class)
+                .value();
+
+        for (int i = 0; i < 5; i++) {
+            Long franchiseId = randomFranchise();
+            assertEquals(rows(LEGACY_QUERY, franchiseId), rows(scopedQuery, franchiseId));
+        }
+
+        LatencyStats legacy = measure("legacy (global GROUP BY)", LEGACY_QUERY, LEGACY_ITERATIONS);
+        LatencyStats scoped = measure("franchise-scoped (correlated MAX)", scopedQuery, ITERATIONS);
+
+        System.out.println(legacy.report());
+        System.out.println(scoped.report());
+    }
+
+    private LatencyStats measure(String name, String sql, int iterations) {
+        for (int i = 0; i < Math.min(iterations, 10); i++) {
+            rows(sql, randomFranchise());
+        }
+        LatencyStats stats = new LatencyStats(name, iterations);
+        for (int i = 0; i < iterations; i++) {
+            Long franchiseId = randomFranchise();
+            long start = System.nanoTime();
+            rows(sql, franchiseId);
+            stats.record(System.nanoTime() - start);
+        }
+        return stats;
+    }
+
+    private List<String> rows(String sql, Long franchiseId) {
+        return databaseClient.sql(sql)
+                .bind("franchiseId", franchiseId)
+                .map(row -> row.get("branch_id", Long.class) + ":" + row.get("product_id", Long.class))
+                .all()
+                .sort(Comparator.naturalOrder())
+                .collectList()
+                .block();
+    }
+
+    private Long randomFranchise() {
+        return franchiseIds.get(ThreadLocalRandom.current().nextInt(franchiseIds.size()));
+    }
+}
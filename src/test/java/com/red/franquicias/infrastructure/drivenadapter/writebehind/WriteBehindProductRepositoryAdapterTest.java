@@ -0,0 +1,173 @@
+package com.red.franquicias.infrastructure.drivenadapter.writebehind;
+
+import com.red.franquicias.application.usecase.product.ProductOwnershipRow;
+import com.red.franquicias.application.usecase.product.StockUpdate;
+import com.red.franquicias.domain.model.Product;
+import com.red.franquicias.infrastructure.config.ChangeLogProperties;
+import com.red.franquicias.infrastructure.config.R2dbcReplicaProperties;
+import com.red.franquicias.infrastructure.config.StockWriteBehindProperties;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ProductRepositoryAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindProductRepositoryAdapterTest {
+
+    @Mock
+    private ProductRepositoryAdapter delegate;
+
+    @TempDir
+    private Path walDirectory;
+
+    @Test
+    void addStock_shouldAcknowledgeBeforeFlushAndMergeIntoReads() {
+        when(delegate.findOwnership(10L, 20L, 30L)).thenReturn(Mono.just(owned(5)));
+        when(delegate.findByIdAndBranchId(30L, 20L)).thenReturn(Mono.just(product(5)));
+        WriteBehindProductRepositoryAdapter adapter = adapter();
+
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, 3)).expectNext(product(8)).verifyComplete();
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, -1)).expectNext(product(7)).verifyComplete();
+
+        StepVerifier.create(adapter.findByIdAndBranchId(30L, 20L))
+                .expectNext(product(7))
+                .verifyComplete();
+        verify(delegate, never()).addStock(any(), any(), any(), any());
+        verify(delegate, never()).applyStockSegment(anyString(), anyLong(), anyList());
+    }
+
+    @Test
+    void addStock_belowZeroWithPendingDeltas_shouldNotApply() {
+        when(delegate.findOwnership(10L, 20L, 30L)).thenReturn(Mono.just(owned(2)));
+        WriteBehindProductRepositoryAdapter adapter = adapter();
+
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, -3)).verifyComplete();
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, -2)).expectNext(product(0)).verifyComplete();
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, -1)).verifyComplete();
+    }
+
+    @Test
+    void addStock_productNotOwned_shouldNotApply() {
+        when(delegate.findOwnership(10L, 20L, 30L)).thenReturn(Mono.just(new ProductOwnershipRow(10L, 20L, null, null, null)));
+        when(delegate.findOwnership(11L, 20L, 30L)).thenReturn(Mono.empty());
+        WriteBehindProductRepositoryAdapter adapter = adapter();
+
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, 1)).verifyComplete();
+        StepVerifier.create(adapter.addStock(30L, 20L, 11L, 1)).verifyComplete();
+    }
+
+    @Test
+    void setStock_shouldFirstFlushPendingDeltasAsOneSegment() throws IOException {
+        when(delegate.findOwnership(10L, 20L, 30L)).thenReturn(Mono.just(owned(5)));
+        when(delegate.applyStockSegment(anyString(), eq(1L), eq(List.of(StockUpdate.add(30L, 20L, 10L, 5)))))
+                .thenReturn(Flux.just(1L));
+        when(delegate.setStock(30L, 20L, 10L, 50)).thenReturn(Mono.just(product(50)));
+        when(delegate.findByIdAndBranchId(30L, 20L)).thenReturn(Mono.just(product(50)));
+        WriteBehindProductRepositoryAdapter adapter = adapter();
+
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, 2)).expectNext(product(7)).verifyComplete();
+        StepVerifier.create(adapter.addStock(30L, 20L, 10L, 3)).expectNext(product(10)).verifyComplete();
+        StepVerifier.create(adapter.setStock(30L, 20L, 10L, 50)).expectNext(product(50)).verifyComplete();
+
+        StepVerifier.create(adapter.findByIdAndBranchId(30L, 20L))
+                .expectNext(product(50))
+                .verifyComplete();
+        InOrder order = inOrder(delegate);
+        order.verify(delegate).applyStockSegment(anyString(), eq(1L), anyList());
+        order.verify(delegate).setStock(30L, 20L, 10L, 50);
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void restart_shouldMergeAndApplyDeltasLeftInTheLog() throws IOException {
+        when(delegate.findOwnership(10L, 20L, 30L)).thenReturn(Mono.just(owned(5)));
+        when(delegate.applyStockSegment(anyString(), eq(1L), anyList())).thenReturn(Flux.error(new IllegalStateException("down")));
+        WriteBehindProductRepositoryAdapter crashed = adapter();
+        StepVerifier.create(crashed.addStock(30L, 20L, 10L, 4)).expectNext(product(9)).verifyComplete();
+        crashed.destroy();
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            Files.writeString(files.filter(file -> file.toString().endsWith(".wal")).findFirst().orElseThrow(), "30,20,10,9", StandardOpenOption.APPEND);
+        }
+
+        when(delegate.findByIdAndBranchId(30L, 20L)).thenReturn(Mono.just(product(5)));
+        when(delegate.applyStockSegment(anyString(), eq(1L), eq(List.of(StockUpdate.add(30L, 20L, 10L, 4)))))
+                .thenReturn(Flux.just(1L));
+        when(delegate.setStock(30L, 20L, 10L, 50)).thenReturn(Mono.just(product(50)));
+        WriteBehindProductRepositoryAdapter restarted = adapter();
+
+        StepVerifier.create(restarted.findByIdAndBranchId(30L, 20L))
+                .expectNext(product(9))
+                .verifyComplete();
+        StepVerifier.create(restarted.setStock(30L, 20L, 10L, 50)).expectNext(product(50)).verifyComplete();
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void constructor_withChangeLogEnabled_shouldRefuseToStart() {
+        assertThrows(IllegalStateException.class, () -> new WriteBehindProductRepositoryAdapter(delegate,
+                properties(), new R2dbcReplicaProperties(null, null, null), changeLog(true), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void constructor_walDirectoryInUse_shouldRefuseToStart() {
+        adapter();
+
+        assertThrows(IllegalStateException.class, this::adapter);
+    }
+
+    private WriteBehindProductRepositoryAdapter adapter() {
+        WriteBehindProductRepositoryAdapter adapter = new WriteBehindProductRepositoryAdapter(delegate,
+                properties(), new R2dbcReplicaProperties(null, null, null), changeLog(false), new SimpleMeterRegistry());
+        adapter.afterSingletonsInstantiated();
+        return adapter;
+    }
+
+    private StockWriteBehindProperties properties() {
+        return new StockWriteBehindProperties(true, Duration.ofHours(1), walDirectory.toString(), Duration.ofMillis(1));
+    }
+
+    private static ChangeLogProperties changeLog(boolean enabled) {
+        return new ChangeLogProperties(enabled, Duration.ofSeconds(1), 1000, Duration.ofSeconds(10), Duration.ofHours(1));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.filter(file -> file.toString().endsWith(".wal")).count();
+        }
+    }
+
+    private static Product product(int stock) {
+        return new Product(30L, 20L, "Product", stock);
+    }
+
+    private static ProductOwnershipRow owned(int stock) {
+        return new ProductOwnershipRow(10L, 20L, 30L, "Product", stock);
+    }
+}
@@ -2,17 +2,27 @@ package com.red.franquicias.infrastructure.entrypoint.web;
 
 import com.red.franquicias.infrastructure.config.TestDatabaseCleaner;
 import com.red.franquicias.infrastructure.config.TestR2dbcConfig;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.BranchTopProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductImportResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
-    properties = "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+    properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+        "franquicias.conditional-get.enabled=true",
+        "franquicias.top-products.response-cache.enabled=true"
+    })
 @Import({TestR2dbcConfig.class, TestDatabaseCleaner.class})
 class ProductRouterIntegrationTest {
     @Autowired
@@ -165,6 +175,44 @@ class ProductRouterIntegrationTest {
                 .jsonPath("$.error").isEqualTo("Conflict");
     }
 
+    @Test
+    void importProducts_ndjson_shouldStreamPerLineResults() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        createProduct(franchiseId, branchId, "Existing", 1);
+
+        webTestClient.post()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products:import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Laptop\",\"stock\":10}\n"
+                        + "{\"name\":\"Existing\",\"stock\":2}\n"
+                        + "{\"name\":\"\",\"stock\":3}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ProductImportResponse.class)
+                .value(results -> {
+                    assertEquals(3, results.size());
+                    assertEquals("CREATED", results.get(0).status());
+                    assertEquals("DUPLICATE", results.get(1).status());
+                    assertEquals("INVALID", results.get(2).status());
+                });
+    }
+
+    @Test
+    void importProducts_branchNotFound_shouldReturn404() {
+        Long franchiseId = createFranchise();
+
+        webTestClient.post()
+                .uri("/franchises/" + franchiseId + "/branches/99999/products:import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Laptop\",\"stock\":10}\n")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
     @Test
     void updateProductName_shouldReturn200() {
         Long franchiseId = createFranchise();
@@ -239,6 +287,115 @@ class ProductRouterIntegrationTest {
                 .jsonPath("$.stock").isEqualTo(25);
     }
 
+    @Test
+    void updateProductStock_delta_shouldReturn200() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        Long productId = createProduct(franchiseId, branchId, "Test Product", 10);
+
+        webTestClient.patch()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products/" + productId + "/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"delta\":-4}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(productId)
+                .jsonPath("$.stock").isEqualTo(6);
+    }
+
+    @Test
+    void updateProductStock_deltaBelowZero_shouldReturn409() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        Long productId = createProduct(franchiseId, branchId, "Test Product", 10);
+
+        webTestClient.patch()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products/" + productId + "/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"delta\":-11}")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(409);
+    }
+
+    @Test
+    void updateProductStock_stockAndDelta_shouldReturn400() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        Long productId = createProduct(franchiseId, branchId);
+
+        webTestClient.patch()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products/" + productId + "/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"stock\":5,\"delta\":1}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
+    @Test
+    void updateProductStockBatch_shouldReturnPerItemResults() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        Long firstId = createProduct(franchiseId, branchId, "Batch Product 1", 1);
+        Long secondId = createProduct(franchiseId, branchId, "Batch Product 2", 2);
+
+        webTestClient.post()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products/stock:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"productId\":" + firstId + ",\"stock\":10},"
+                        + "{\"productId\":99999,\"stock\":5},"
+                        + "{\"productId\":" + secondId + ",\"stock\":-1}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.branchId").isEqualTo(branchId)
+                .jsonPath("$.updated").isEqualTo(1)
+                .jsonPath("$.results[0].status").isEqualTo("UPDATED")
+                .jsonPath("$.results[1].status").isEqualTo("NOT_FOUND")
+                .jsonPath("$.results[2].status").isEqualTo("INVALID");
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/branches/top-products")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].product.productId").isEqualTo(firstId)
+                .jsonPath("$.results[0].product.stock").isEqualTo(10);
+    }
+
+    @Test
+    void updateProductStockBatch_branchNotFound_shouldReturn404() {
+        Long franchiseId = createFranchise();
+
+        webTestClient.post()
+                .uri("/franchises/" + franchiseId + "/branches/99999/products/stock:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"productId\":1,\"stock\":10}]}")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void updateProductStockBatch_emptyItems_shouldReturn400() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+
+        webTestClient.post()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products/stock:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400);
+    }
+
     @Test
     void updateProductStock_negativeStock_shouldReturn400() {
         Long franchiseId = createFranchise();
@@ -487,6 +644,208 @@ class ProductRouterIntegrationTest {
                 .jsonPath("$.results[0].branchId").isEqualTo(branchId1);
     }
 
+    @Test
+    void getTopProductsPerBranch_shouldReturnTopNPerBranch() {
+        Long franchiseId = createFranchise();
+        Long branchId1 = createBranch(franchiseId);
+        Long branchId2 = createBranch(franchiseId);
+        createProduct(franchiseId, branchId1, "Product A", 10);
+        createProduct(franchiseId, branchId1, "Product B", 50);
+        createProduct(franchiseId, branchId1, "Product C", 30);
+        createProduct(franchiseId, branchId2, "Product D", 20);
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/top-products?perBranch=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.franchiseId").isEqualTo(franchiseId)
+                .jsonPath("$.perBranch").isEqualTo(2)
+                .jsonPath("$.results.length()").isEqualTo(2)
+                .jsonPath("$.results[0].branchId").isEqualTo(branchId1)
+                .jsonPath("$.results[0].products.length()").isEqualTo(2)
+                .jsonPath("$.results[0].products[0].stock").isEqualTo(50)
+                .jsonPath("$.results[0].products[1].stock").isEqualTo(30)
+                .jsonPath("$.results[1].branchId").isEqualTo(branchId2)
+                .jsonPath("$.results[1].products.length()").isEqualTo(1);
+    }
+
+    @Test
+    void getTopProductsPerBranch_perBranchOutOfRange_shouldReturn400() {
+        Long franchiseId = createFranchise();
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/top-products?perBranch=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/top-products?perBranch=101")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getTopProductsPerBranch_franchiseNotFound_shouldReturn404() {
+        webTestClient.get()
+                .uri("/franchises/99999/top-products?perBranch=5")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getGlobalTopProducts_shouldStreamHighestStockAcrossBranches() {
+        Long franchiseId = createFranchise();
+        Long branchId1 = createBranch(franchiseId);
+        Long branchId2 = createBranch(franchiseId);
+        createProduct(franchiseId, branchId1, "Product A", 10);
+        createProduct(franchiseId, branchId1, "Product B", 50);
+        createProduct(franchiseId, branchId2, "Product C", 30);
+        createProduct(franchiseId, branchId2, "Product D", 40);
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/top-products:global?limit=3")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BranchTopProductResponse.class)
+                .value(results -> {
+                    assertEquals(3, results.size());
+                    assertEquals(50, results.get(0).product().stock());
+                    assertEquals(branchId1, results.get(0).branchId());
+                    assertEquals(40, results.get(1).product().stock());
+                    assertEquals(branchId2, results.get(1).branchId());
+                    assertEquals(30, results.get(2).product().stock());
+                });
+    }
+
+    @Test
+    void getGlobalTopProducts_franchiseNotFound_shouldReturn404() {
+        webTestClient.get()
+                .uri("/franchises/99999/top-products:global")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getGlobalTopProducts_limitOutOfRange_shouldReturn400() {
+        Long franchiseId = createFranchise();
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/top-products:global?limit=1001")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamTopProducts_shouldReturnOneLinePerBranchWithProducts() {
+        Long franchiseId = createFranchise();
+        Long branchId1 = createBranch(franchiseId);
+        Long branchId2 = createBranch(franchiseId);
+        createBranch(franchiseId);
+        createProduct(franchiseId, branchId1, "Product A", 10);
+        createProduct(franchiseId, branchId1, "Product B", 50);
+        createProduct(franchiseId, branchId2, "Product C", 30);
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/branches/top-products:stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BranchTopProductResponse.class)
+                .value(results -> {
+                    assertEquals(2, results.size());
+                    assertEquals(branchId1, results.get(0).branchId());
+                    assertEquals(50, results.get(0).product().stock());
+                    assertEquals(branchId2, results.get(1).branchId());
+                    assertEquals(30, results.get(1).product().stock());
+                });
+    }
+
+    @Test
+    void streamTopProducts_franchiseNotFound_shouldReturn404() {
+        webTestClient.get()
+                .uri("/franchises/99999/branches/top-products:stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void verifyTopProductsIndex_indexDisabled_shouldNotBeExposed() {
+        Long franchiseId = createFranchise();
+
+        webTestClient.get()
+                .uri("/debug/franchises/" + franchiseId + "/top-products/consistency")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getTopProducts_matchingIfNoneMatch_shouldReturn304() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        createProduct(franchiseId, branchId);
+
+        String etag = webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/branches/top-products")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/branches/top-products")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getTopProducts_afterWrite_shouldReturnNewBodyAndETag() {
+        Long franchiseId = createFranchise();
+        Long branchId = createBranch(franchiseId);
+        Long productId = createProduct(franchiseId, branchId);
+
+        String etag = webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/branches/top-products")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.patch()
+                .uri("/franchises/" + franchiseId + "/branches/" + branchId + "/products/" + productId + "/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"stock\":99}")
+                .exchange()
+                .expectStatus().isOk();
+
+        String newEtag = webTestClient.get()
+                .uri("/franchises/" + franchiseId + "/branches/top-products")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].product.stock").isEqualTo(99)
+                .returnResult()
+                .getResponseHeaders()
+                .getETag();
+
+        assertNotEquals(etag, newEtag);
+    }
+
     private Long createFranchise() {
         var response = webTestClient.post()
                 .uri("/franchises")
@@ -0,0 +1,112 @@
+package com.red.franquicias.infrastructure.entrypoint.web;
+
+import com.red.franquicias.infrastructure.config.TestDatabaseCleaner;
+import com.red.franquicias.infrastructure.config.TestR2dbcConfig;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.repository.BenchmarkDataSeeder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+@Import({TestR2dbcConfig.class, TestDatabaseCleaner.class})
+class ProductStockBatchBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 5_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TestDatabaseCleaner databaseCleaner;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private WebTestClient webTestClient;
+    private Long franchiseId;
+    private Long branchId;
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToApplicationContext(applicationContext)
+                .configureClient()
+                .responseTimeout(Duration.ofMinutes(5))
+                .build();
+        databaseCleaner.cleanAll().block();
+
+        BenchmarkDataSeeder seeder = new BenchmarkDataSeeder(databaseClient);
+        seeder.seed(1, 1, PRODUCTS).block();
+        franchiseId = seeder.franchiseIds().blockFirst();
+        branchId = seeder.branchIds().blockFirst();
+        productIds = databaseClient.sql("SELECT id FROM products WHERE branch_id = :branchId ORDER BY id")
+                .bind("branchId", branchId)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    @Test
+    void batchEndpoint_shouldOutperformPerItemEndpoint() {
+        String base = "/franchises/" + franchiseId + "/branches/" + branchId + "/products";
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Long productId : productIds) {
+                webTestClient.patch()
+                        .uri(base + "/" + productId + "/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue("{\"stock\":" + randomStock() + "}")
+                        .exchange()
+                        .expectStatus().isOk();
+            }
+            long perItemNanos = System.nanoTime() - start;
+
+            String body = productIds.stream()
+                    .map(id -> "{\"productId\":" + id + ",\"stock\":" + randomStock() + "}")
+                    .collect(Collectors.joining(",", "{\"items\":[", "]}"));
+            start = System.nanoTime();
+            webTestClient.post()
+                    .uri(base + "/stock:batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.updated").value(updated -> assertEquals(productIds.size(), ((Number) updated).intValue()));
+            long batchNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: per-item %8.0f items/s (%d ms), batch %8.0f items/s (%d ms), speedup x%.1f%n",
+                    round,
+                    throughput(perItemNanos), perItemNanos / 1_000_000,
+                    throughput(batchNanos), batchNanos / 1_000_000,
+                    perItemNanos / (double) batchNanos);
+        }
+    }
+
+    private double throughput(long nanos) {
+        return productIds.size() / (nanos / 1_000_000_000.0);
+    }
+
+    private int randomStock() {
+        return ThreadLocalRandom.current().nextInt(10_000);
+    }
+}
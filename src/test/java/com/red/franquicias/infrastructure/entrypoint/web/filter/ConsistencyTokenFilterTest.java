@@ -0,0 +1,57 @@
+package com.red.franquicias.infrastructure.entrypoint.web.filter;
+
+import com.red.franquicias.application.consistency.ConsistencyToken;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.adapter.ConnectionRoute;
+import com.red.franquicias.infrastructure.drivenadapter.r2dbc.connection.RoutingConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+class ConsistencyTokenFilterTest {
+
+    private final AtomicReference<ContextView> seen = new AtomicReference<>();
+    private final WebFilterChain chain = exchange -> Mono.deferContextual(context -> {
+        seen.set(context);
+        return Mono.empty();
+    });
+    private ConsistencyTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RoutingConnectionFactory routingConnectionFactory = Mockito.mock(RoutingConnectionFactory.class);
+        when(routingConnectionFactory.hasReplica()).thenReturn(true);
+        filter = new ConsistencyTokenFilter(routingConnectionFactory);
+    }
+
+    @Test
+    void filter_writeRequest_shouldRunOnPrimaryOnly() {
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(
+                        MockServerHttpRequest.post("/franchises/1/branches")), chain))
+                .verifyComplete();
+
+        assertTrue(ConnectionRoute.isPrimaryOnly(seen.get()));
+    }
+
+    @Test
+    void filter_readWithToken_shouldPassTokenAndKeepRoutes() {
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(
+                        MockServerHttpRequest.get("/franchises/1/top-products").header(ConsistencyToken.HEADER, "uuid:1-5")), chain))
+                .verifyComplete();
+
+        assertFalse(ConnectionRoute.isPrimaryOnly(seen.get()));
+        assertEquals("uuid:1-5", seen.get().get(ConsistencyToken.class).gtidSet());
+    }
+}
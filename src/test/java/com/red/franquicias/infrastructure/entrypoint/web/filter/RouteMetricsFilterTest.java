@@ -0,0 +1,100 @@
+package com.red.franquicias.infrastructure.entrypoint.web.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteMetricsFilterTest {
+
+    private MeterRegistry registry;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .GET("/franchises/{id}", request -> ServerResponse.ok().build())
+                        .PUT("/franchises/{id}", request -> Mono.error(new IllegalStateException("down")))
+                        .build())
+                .webFilter(new RouteMetricsFilter(registry))
+                .build();
+    }
+
+    @Test
+    void filter_matchedRoute_shouldTimeByPattern() {
+        client.get().uri("/franchises/1").exchange().expectStatus().isOk();
+        client.get().uri("/franchises/2").exchange().expectStatus().isOk();
+
+        assertEquals(2, registry.get(RouteMetricsFilter.METRIC)
+                .tags("method", "GET", "route", "/franchises/{id}").timer().count());
+    }
+
+    @Test
+    void filter_handlerError_shouldCountError() {
+        client.put().uri("/franchises/1").exchange().expectStatus().is5xxServerError();
+
+        assertEquals(1, registry.get(RouteMetricsFilter.METRIC + ".errors")
+                .tags("method", "PUT", "route", "/franchises/{id}").counter().count());
+    }
+
+    @Test
+    void filter_streamedBody_shouldTimeUntilTheBodyIsWritten() {
+        StepVerifier.create(new RouteMetricsFilter(registry).filter(streamExchange(), streaming(
+                        Flux.just("a\n", "b\n").delayElements(Duration.ofMillis(100)))))
+                .verifyComplete();
+
+        assertTrue(registry.get(RouteMetricsFilter.METRIC)
+                .tags("method", "GET", "route", "/franchises/{id}/stream").timer()
+                .totalTime(TimeUnit.MILLISECONDS) >= 200);
+    }
+
+    @Test
+    void filter_errorWhileWritingBody_shouldCountError() {
+        StepVerifier.create(new RouteMetricsFilter(registry).filter(streamExchange(), streaming(
+                        Flux.just("a\n").concatWith(Flux.error(new IllegalStateException("down"))))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(1, registry.get(RouteMetricsFilter.METRIC + ".errors")
+                .tags("method", "GET", "route", "/franchises/{id}/stream").counter().count());
+    }
+
+    @Test
+    void filter_unmatchedPath_shouldRecordNothing() {
+        client.get().uri("/unknown").exchange().expectStatus().isNotFound();
+
+        assertTrue(registry.find(RouteMetricsFilter.METRIC).meters().isEmpty());
+    }
+
+    private static MockServerWebExchange streamExchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/franchises/1/stream"));
+    }
+
+    private static WebFilterChain streaming(Flux<String> lines) {
+        PathPattern route = PathPatternParser.defaultInstance.parse("/franchises/{id}/stream");
+        return exchange -> {
+            exchange.getAttributes().put(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE, route);
+            return exchange.getResponse().writeWith(lines.map(line ->
+                    exchange.getResponse().bufferFactory().wrap(line.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
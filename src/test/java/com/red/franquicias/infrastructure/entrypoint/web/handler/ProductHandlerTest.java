@@ -0,0 +1,117 @@
+package com.red.franquicias.infrastructure.entrypoint.web.handler;
+
+import com.red.franquicias.application.usecase.product.CreateProductUseCase;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.GetGlobalTopProductsUseCase;
+import com.red.franquicias.application.usecase.product.GetTopProductsByFranchiseUseCase;
+import com.red.franquicias.application.usecase.product.GetTopProductsPerBranchUseCase;
+import com.red.franquicias.application.usecase.product.ImportProductsUseCase;
+import com.red.franquicias.application.usecase.product.RemoveProductUseCase;
+import com.red.franquicias.application.usecase.product.TopProductsPerBranchResult;
+import com.red.franquicias.application.usecase.product.UpdateProductNameUseCase;
+import com.red.franquicias.application.usecase.product.UpdateProductStockBatchUseCase;
+import com.red.franquicias.application.usecase.product.UpdateProductStockUseCase;
+import com.red.franquicias.application.usecase.product.VerifyTopStockIndexUseCase;
+import com.red.franquicias.domain.enums.TechnicalMessage;
+import com.red.franquicias.domain.exception.BusinessException;
+import com.red.franquicias.infrastructure.config.ConditionalGetProperties;
+import com.red.franquicias.infrastructure.config.GlobalErrorHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductHandlerTest {
+
+    @Mock
+    private GetTopProductsPerBranchUseCase getTopProductsPerBranchUseCase;
+
+    @Mock
+    private GetGlobalTopProductsUseCase getGlobalTopProductsUseCase;
+
+    private ProductHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new ProductHandler(mock(CreateProductUseCase.class), mock(ImportProductsUseCase.class),
+                mock(UpdateProductNameUseCase.class), mock(UpdateProductStockUseCase.class),
+                mock(UpdateProductStockBatchUseCase.class), mock(RemoveProductUseCase.class),
+                mock(GetTopProductsByFranchiseUseCase.class), getTopProductsPerBranchUseCase,
+                getGlobalTopProductsUseCase, mock(VerifyTopStockIndexUseCase.class), new FranchiseVersions(),
+                mock(ConditionalGetProperties.class), mock(TopProductsResponseCache.class));
+    }
+
+    @Test
+    void getTopProductsPerBranch_invalidPerBranch_shouldReturn400() {
+        for (String perBranch : List.of("abc", "-1", "0", "101", "99999999999")) {
+            StepVerifier.create(handler.getTopProductsPerBranch(request("perBranch", perBranch)))
+                    .expectErrorSatisfies(ex -> assertBadRequest(ex, TechnicalMessage.TOP_PRODUCTS_PER_BRANCH_INVALID))
+                    .verify();
+        }
+
+        verifyNoInteractions(getTopProductsPerBranchUseCase);
+    }
+
+    @Test
+    void getTopProductsPerBranch_missingPerBranch_shouldDefaultToOne() {
+        when(getTopProductsPerBranchUseCase.getTopProducts(1L, 1))
+                .thenReturn(Mono.just(new TopProductsPerBranchResult(1L, "Franchise", List.of())));
+
+        StepVerifier.create(handler.getTopProductsPerBranch(MockServerRequest.builder()
+                        .pathVariable("franchiseId", "1")
+                        .build()))
+                .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getGlobalTopProducts_invalidLimit_shouldReturn400() {
+        for (String limit : List.of("ten", "-5", "0", "1001")) {
+            StepVerifier.create(handler.getGlobalTopProducts(request("limit", limit)))
+                    .expectErrorSatisfies(ex -> assertBadRequest(ex, TechnicalMessage.TOP_PRODUCTS_LIMIT_INVALID))
+                    .verify();
+        }
+
+        verifyNoInteractions(getGlobalTopProductsUseCase);
+    }
+
+    @Test
+    void getGlobalTopProducts_validLimit_shouldStream() {
+        when(getGlobalTopProductsUseCase.getTopProducts(any(), any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(handler.getGlobalTopProducts(request("limit", "1000")))
+                .assertNext(response -> assertEquals(HttpStatus.OK, response.statusCode()))
+                .verifyComplete();
+    }
+
+    private MockServerRequest request(String name, String value) {
+        return MockServerRequest.builder()
+                .pathVariable("franchiseId", "1")
+                .queryParam(name, value)
+                .build();
+    }
+
+    private void assertBadRequest(Throwable ex, TechnicalMessage expected) {
+        assertEquals(expected, ((BusinessException) ex).getTechnicalMessage());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/franchises/1/top-products"));
+        new GlobalErrorHandler().handle(exchange, ex).block();
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,86 @@
+package com.red.franquicias.infrastructure.entrypoint.web.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.franquicias.application.usecase.product.BranchTopProduct;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.application.usecase.product.ProductInfo;
+import com.red.franquicias.application.usecase.product.TopProductsResult;
+import com.red.franquicias.infrastructure.config.TopProductsResponseCacheProperties;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.mapper.ProductMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class TopProductsResponseCacheBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    private static final int BRANCHES = Integer.getInteger("benchmark.branchesPerFranchise", 20);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper);
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final TopProductsResponseCache cache = new TopProductsResponseCache(new FranchiseVersions(), objectMapper,
+            new TopProductsResponseCacheProperties(true, 10_000), new SimpleMeterRegistry());
+    private final TopProductsResult result = new TopProductsResult(1L, "Benchmark Franchise", LongStream.range(0, BRANCHES)
+            .mapToObj(i -> new BranchTopProduct(i, "Branch " + i, new ProductInfo(i * 100, "Product " + i, (int) i)))
+            .toList());
+
+    @Test
+    void cachedBytes_shouldMatchEncoderOutputAndReportCost() {
+        assertEquals(read(mapAndEncode()), read(cachedBytes()));
+
+        System.out.println(measure("map + Jackson encode per request", this::mapAndEncode));
+        System.out.println(measure("cached UTF-8 bytes", this::cachedBytes));
+    }
+
+    private DataBuffer mapAndEncode() {
+        return Mono.just(result)
+                .map(ProductMapper::toTopProductsResponse)
+                .map(response -> encoder.encodeValue(response, bufferFactory,
+                        ResolvableType.forClass(TopProductsResponse.class), MediaType.APPLICATION_JSON, null))
+                .block();
+    }
+
+    private DataBuffer cachedBytes() {
+        return cache.get(1L, () -> Mono.just(result).map(ProductMapper::toTopProductsResponse))
+                .map(bufferFactory::wrap)
+                .block();
+    }
+
+    private String measure(String name, Supplier<DataBuffer> request) {
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            DataBufferUtils.release(request.get());
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            DataBufferUtils.release(request.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return String.format("%-40s n=%-8d branches=%-4d %8.0f ns/op %8d B/op",
+                name, ITERATIONS, BRANCHES, elapsed / (double) ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private String read(DataBuffer buffer) {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,99 @@
+package com.red.franquicias.infrastructure.entrypoint.web.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.franquicias.application.usecase.product.FranchiseVersions;
+import com.red.franquicias.infrastructure.config.TopProductsResponseCacheProperties;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.BranchTopProductResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.ProductInfoResponse;
+import com.red.franquicias.infrastructure.entrypoint.web.dto.TopProductsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopProductsResponseCacheTest {
+
+    private final FranchiseVersions versions = new FranchiseVersions();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TopProductsResponseCache cache = new TopProductsResponseCache(
+            versions, objectMapper, new TopProductsResponseCacheProperties(true, 2), registry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_unchangedVersion_shouldServeSameBytesWithoutLoading() {
+        byte[] first = cache.get(1L, () -> load(response(1L, 10))).block();
+        byte[] second = cache.get(1L, () -> load(response(1L, 99))).block();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertArrayEquals(json(response(1L, 10)), first);
+        assertEquals(1.0, registry.get(TopProductsResponseCache.METRIC).tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_afterWrite_shouldReload() {
+        cache.get(1L, () -> load(response(1L, 10))).block();
+        versions.bump(1L);
+
+        byte[] reloaded = cache.get(1L, () -> load(response(1L, 20))).block();
+
+        assertEquals(2, loads.get());
+        assertArrayEquals(json(response(1L, 20)), reloaded);
+    }
+
+    @Test
+    void get_writeDuringLoad_shouldNotServeLoadedBytesAfterwards() {
+        Sinks.One<TopProductsResponse> slowLoad = Sinks.one();
+        Mono<byte[]> pending = cache.get(1L, () -> load(slowLoad.asMono()));
+        pending.subscribe();
+        versions.bump(1L);
+        slowLoad.tryEmitValue(response(1L, 10));
+
+        byte[] next = cache.get(1L, () -> load(response(1L, 20))).block();
+
+        assertArrayEquals(json(response(1L, 20)), next);
+    }
+
+    @Test
+    void get_moreFranchisesThanMaxEntries_shouldEvictToStayBounded() {
+        for (long franchiseId = 1; franchiseId <= 10; franchiseId++) {
+            long id = franchiseId;
+            assertArrayEquals(json(response(id, 1)), cache.get(id, () -> load(response(id, 1))).block());
+        }
+
+        assertEquals(10, loads.get());
+        assertTrue(cache.size() <= 2);
+    }
+
+    private Mono<TopProductsResponse> load(TopProductsResponse response) {
+        return load(Mono.just(response));
+    }
+
+    private Mono<TopProductsResponse> load(Mono<TopProductsResponse> response) {
+        loads.incrementAndGet();
+        return response;
+    }
+
+    private TopProductsResponse response(Long franchiseId, int stock) {
+        return new TopProductsResponse(franchiseId, "Franchise " + franchiseId, List.of(
+                new BranchTopProductResponse(1L, "Branch", new ProductInfoResponse(10L, "Product", stock))));
+    }
+
+    private byte[] json(TopProductsResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response).getBytes(StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}